@@ -1,10 +1,13 @@
 package firstbot.communications;
 
 import battlecode.common.*;
-import firstbot.communications.messages.Message;
-import firstbot.containers.FastQueue;
+import firstbot.communications.messages.*;
+import firstbot.robots.Robot;
+import firstbot.utils.Budget;
 import firstbot.utils.Cache;
 import firstbot.utils.Global;
+import firstbot.utils.Memo;
+import firstbot.utils.Profiler;
 import firstbot.utils.Utils;
 
 /**
@@ -16,8 +19,8 @@ import firstbot.utils.Utils;
 public class Communicator {
 
   public static class ArchonInfo {
-    public static final int NUM_ARCHON_INTS = 8;
-    public static final int ARCHON_INTS_START = GameConstants.SHARED_ARRAY_LENGTH - NUM_ARCHON_INTS;
+    public static final int NUM_ARCHON_INTS = SharedArrayLayout.ARCHON_SIZE;
+    public static final int ARCHON_INTS_START = SharedArrayLayout.ARCHON_START;
     public static final int OUR_ARCHONS_1 = ARCHON_INTS_START;
     public static final int OUR_ARCHONS_2 = ARCHON_INTS_START+1;
     public static final int OUR_ARCHONS_3 = ARCHON_INTS_START+2;
@@ -26,6 +29,9 @@ public class Communicator {
     public static final int ENEMY_ARCHONS_2 = ARCHON_INTS_START+5;
     public static final int ENEMY_ARCHONS_3 = ARCHON_INTS_START+6;
     public static final int ENEMY_ARCHONS_4 = ARCHON_INTS_START+7;
+    /** bumped on every archon location write so readers can keep a decoded snapshot until it changes */
+    public static final int ARCHON_VERSION_IND = ARCHON_INTS_START+8;
+    private static final int VERSION_MASK = 0xFFFF;
     public static final int ARCHON_LOC_MASK = 0b1111111111110000;
     public static final int ARCHON_LOC_INVERTED_MASK = ~ARCHON_LOC_MASK;
     public static final int ARCHON_MOVING_MASK = 0b1000;
@@ -52,18 +58,91 @@ public class Communicator {
     public MapLocation enemyArchon3;
     public MapLocation enemyArchon4;
 
+    // decoded snapshot of the archon block (index 0 is archon 1) -- valid while snapshotVersion matches the shared version
+    private static final int NO_SNAPSHOT = -1;
+    private int snapshotVersion = NO_SNAPSHOT;
+    private final int[] ourX = new int[4];
+    private final int[] ourY = new int[4];
+    private final int[] enemyX = new int[4];
+    private final int[] enemyY = new int[4];
+
     public void readOurArchonLocs() throws GameActionException {
-      ourArchon1 = Utils.decodeLocation(Global.rc.readSharedArray(OUR_ARCHONS_1));
-      ourArchon2 = Utils.decodeLocation(Global.rc.readSharedArray(OUR_ARCHONS_2));
-      ourArchon3 = Utils.decodeLocation(Global.rc.readSharedArray(OUR_ARCHONS_3));
-      ourArchon4 = Utils.decodeLocation(Global.rc.readSharedArray(OUR_ARCHONS_4));
+      ourArchon1 = decodeOurs(0, Global.rc.readSharedArray(OUR_ARCHONS_1));
+      ourArchon2 = decodeOurs(1, Global.rc.readSharedArray(OUR_ARCHONS_2));
+      ourArchon3 = decodeOurs(2, Global.rc.readSharedArray(OUR_ARCHONS_3));
+      ourArchon4 = decodeOurs(3, Global.rc.readSharedArray(OUR_ARCHONS_4));
     }
 
     public void readEnemyArchonLocs() throws GameActionException {
-      enemyArchon1 = Utils.decodeLocation(Global.rc.readSharedArray(ENEMY_ARCHONS_1));
-      enemyArchon2 = Utils.decodeLocation(Global.rc.readSharedArray(ENEMY_ARCHONS_2));
-      enemyArchon3 = Utils.decodeLocation(Global.rc.readSharedArray(ENEMY_ARCHONS_3));
-      enemyArchon4 = Utils.decodeLocation(Global.rc.readSharedArray(ENEMY_ARCHONS_4));
+      enemyArchon1 = decodeEnemy(0, Global.rc.readSharedArray(ENEMY_ARCHONS_1));
+      enemyArchon2 = decodeEnemy(1, Global.rc.readSharedArray(ENEMY_ARCHONS_2));
+      enemyArchon3 = decodeEnemy(2, Global.rc.readSharedArray(ENEMY_ARCHONS_3));
+      enemyArchon4 = decodeEnemy(3, Global.rc.readSharedArray(ENEMY_ARCHONS_4));
+    }
+
+    private MapLocation decodeOurs(int slot, int encoded) {
+      ourX[slot] = (encoded >> 10) & 0x3f;
+      ourY[slot] = (encoded >> 4) & 0x3f;
+      return Utils.decodeLocation(encoded);
+    }
+
+    private MapLocation decodeEnemy(int slot, int encoded) {
+      enemyX[slot] = (encoded >> 10) & 0x3f;
+      enemyY[slot] = (encoded >> 4) & 0x3f;
+      return Utils.decodeLocation(encoded);
+    }
+
+    /**
+     * re-read + decode all archon locations only if some robot changed them since the last snapshot
+     * @throws GameActionException if reading fails
+     */
+    private void refreshSnapshot() throws GameActionException {
+      int version = Global.rc.readSharedArray(ARCHON_VERSION_IND);
+      if (version == snapshotVersion) return;
+      readOurArchonLocs();
+      readEnemyArchonLocs();
+      snapshotVersion = version;
+      invalidateNearestMemos();
+    }
+
+    /**
+     * the nearest-archon memos in Robot only key on cacheState -- drop them whenever the archon locations change
+     *    (other robots can only write between our turns, which bumps cacheState anyway, so our own writes are what matter)
+     */
+    private static void invalidateNearestMemos() {
+      Memo.invalidate(Memo.NEAREST_FRIENDLY_ARCHON);
+      Memo.invalidate(Memo.NEAREST_ENEMY_ARCHON);
+    }
+
+    /**
+     * bump the shared version after writing archon locations
+     * @param snapshotPatched true if the caller already applied its write to the local snapshot
+     * @throws GameActionException if reading/writing fails
+     */
+    private void bumpVersion(boolean snapshotPatched) throws GameActionException {
+      int version = Global.rc.readSharedArray(ARCHON_VERSION_IND);
+      int next = (version + 1) & VERSION_MASK;
+      Global.rc.writeSharedArray(ARCHON_VERSION_IND, next);
+      snapshotVersion = snapshotPatched && snapshotVersion == version ? next : NO_SNAPSHOT;
+      invalidateNearestMemos();
+    }
+
+    /**
+     * @return the index (0-3) of the closest location in the snapshot arrays, -1 if none
+     */
+    private static int nearestSlot(int[] xs, int[] ys, MapLocation from) {
+      int closest = -1;
+      int dToClosest = 9999;
+      for (int slot = Global.rc.getArchonCount(); --slot >= 0;) {
+        int dx = xs[slot] - from.x;
+        int dy = ys[slot] - from.y;
+        int d = dx*dx + dy*dy;
+        if (d < dToClosest) {
+          closest = slot;
+          dToClosest = d;
+        }
+      }
+      return closest;
     }
 
     public void setOurArchonLoc(int whichArchon, MapLocation archonLoc) throws GameActionException {
@@ -89,6 +168,9 @@ public class Communicator {
           Global.rc.writeSharedArray(OUR_ARCHONS_4, (Global.rc.readSharedArray(OUR_ARCHONS_4) & ARCHON_LOC_INVERTED_MASK) | Utils.encodeLocation(archonLoc));
           break;
       }
+      ourX[whichArchon-1] = archonLoc.x;
+      ourY[whichArchon-1] = archonLoc.y;
+      bumpVersion(true);
 //      Printer.submitPrint();
     }
 
@@ -115,9 +197,26 @@ public class Communicator {
           Global.rc.writeSharedArray(ENEMY_ARCHONS_4, (Global.rc.readSharedArray(ENEMY_ARCHONS_4) & ARCHON_LOC_INVERTED_MASK) | Utils.encodeLocation(archonLoc));
           break;
       }
+      enemyX[whichArchon-1] = archonLoc.x;
+      enemyY[whichArchon-1] = archonLoc.y;
+      bumpVersion(true);
 //      Printer.submitPrint();
     }
 
+    public MapLocation getOurArchon(int whichArchon) {
+      switch (whichArchon) {
+        case 4:
+          return ourArchon4;
+        case 3:
+          return ourArchon3;
+        case 2:
+          return ourArchon2;
+        case 1:
+          return ourArchon1;
+      }
+      return null;
+    }
+
     public MapLocation getEnemyArchon(int whichArchon) {
       switch (whichArchon) {
         case 4:
@@ -144,6 +243,7 @@ public class Communicator {
         case 1:
           Global.rc.writeSharedArray(ENEMY_ARCHONS_1, Utils.encodeLocation(Utils.applySymmetry(Utils.decodeLocation(Global.rc.readSharedArray(OUR_ARCHONS_1)), Global.communicator.metaInfo.guessedSymmetry)));
       }
+      bumpVersion(false);
 //      mirrored = true;
 //      readEnemyArchonLocs();
 //      Printer.cleanPrint();
@@ -214,90 +314,24 @@ public class Communicator {
     }
 
     public MapLocation getNearestEnemyArchon(MapLocation from) throws GameActionException {
-      MapLocation closestEnemyArchon = null;
-      readEnemyArchonLocs();
-      int dToClosest = 9999;
-      switch (Global.rc.getArchonCount()) {
-        case 4:
-          if (enemyArchon4.isWithinDistanceSquared(from, dToClosest-1)) {
-            closestEnemyArchon = enemyArchon4;
-            dToClosest = enemyArchon4.distanceSquaredTo(from);
-          }
-        case 3:
-          if (enemyArchon3.isWithinDistanceSquared(from, dToClosest-1)) {
-            closestEnemyArchon = enemyArchon3;
-            dToClosest = enemyArchon3.distanceSquaredTo(from);
-          }
-        case 2:
-          if (enemyArchon2.isWithinDistanceSquared(from, dToClosest-1)) {
-            closestEnemyArchon = enemyArchon2;
-            dToClosest = enemyArchon2.distanceSquaredTo(from);
-          }
-        case 1:
-          if (enemyArchon1.isWithinDistanceSquared(from, dToClosest-1)) {
-            closestEnemyArchon = enemyArchon1;
-//            dToClsoest = enemyArchon4.distanceSquaredTo(from);
-          }
-      }
-      return closestEnemyArchon;
+      refreshSnapshot();
+      return getEnemyArchon(nearestSlot(enemyX, enemyY, from) + 1);
     }
 
+    /**
+     * @param from the location to measure from
+     * @return which enemy archon (1-4) is closest, -1 if none
+     * @throws GameActionException if reading fails
+     */
     public int getNearestEnemyArchonIndex(MapLocation from) throws GameActionException {
-      int closestEnemyArchon = -1;
-      readEnemyArchonLocs();
-      int dToClosest = 9999;
-      switch (Global.rc.getArchonCount()) {
-        case 4:
-          if (enemyArchon4.isWithinDistanceSquared(from, dToClosest-1)) {
-            closestEnemyArchon = 4;
-            dToClosest = enemyArchon4.distanceSquaredTo(from);
-          }
-        case 3:
-          if (enemyArchon3.isWithinDistanceSquared(from, dToClosest-1)) {
-            closestEnemyArchon = 3;
-            dToClosest = enemyArchon3.distanceSquaredTo(from);
-          }
-        case 2:
-          if (enemyArchon2.isWithinDistanceSquared(from, dToClosest-1)) {
-            closestEnemyArchon = 2;
-            dToClosest = enemyArchon2.distanceSquaredTo(from);
-          }
-        case 1:
-          if (enemyArchon1.isWithinDistanceSquared(from, dToClosest-1)) {
-            closestEnemyArchon = 1;
-//            dToClsoest = enemyArchon4.distanceSquaredTo(from);
-          }
-      }
-      return closestEnemyArchon;
+      refreshSnapshot();
+      int slot = nearestSlot(enemyX, enemyY, from);
+      return slot == -1 ? -1 : slot + 1;
     }
 
     public MapLocation getNearestFriendlyArchon(MapLocation from) throws GameActionException {
-      readOurArchonLocs();
-      MapLocation closestFriendlyArchon = null;
-      int dToClosest = 9999;
-      switch (Global.rc.getArchonCount()) {
-        case 4:
-          if (ourArchon4.isWithinDistanceSquared(from, dToClosest-1)) {
-            closestFriendlyArchon = ourArchon4;
-            dToClosest = ourArchon4.distanceSquaredTo(from);
-          }
-        case 3:
-          if (ourArchon3.isWithinDistanceSquared(from, dToClosest-1)) {
-            closestFriendlyArchon = ourArchon3;
-            dToClosest = ourArchon3.distanceSquaredTo(from);
-          }
-        case 2:
-          if (ourArchon2.isWithinDistanceSquared(from, dToClosest-1)) {
-            closestFriendlyArchon = ourArchon2;
-            dToClosest = ourArchon2.distanceSquaredTo(from);
-          }
-        case 1:
-          if (ourArchon1.isWithinDistanceSquared(from, dToClosest-1)) {
-            closestFriendlyArchon = ourArchon1;
-//            dToClosest = enemyArchon4.distanceSquaredTo(from);
-          }
-      }
-      return closestFriendlyArchon;
+      refreshSnapshot();
+      return getOurArchon(nearestSlot(ourX, ourY, from) + 1);
     }
 
     /**
@@ -461,17 +495,12 @@ public class Communicator {
 
 
   public static class SpawnInfo {
-    public static final int NUM_SPAWN_INTS = 2;
-    public static final int SPAWN_INTS_START = ArchonInfo.ARCHON_INTS_START - NUM_SPAWN_INTS;
+    public static final int NUM_SPAWN_INTS = SharedArrayLayout.SPAWN_SIZE;
+    public static final int SPAWN_INTS_START = SharedArrayLayout.SPAWN_START;
 
     public static final int NUM_MINERS_NEEDED_IND = SPAWN_INTS_START;
     public static final int ROUND_MOD_TWO_BIT_MASK = 0b1 << 15;
     public static final int NUM_MINERS_NEEDED_MASK = ~ROUND_MOD_TWO_BIT_MASK;
-    public static final int NUM_MINERS_ALIVE_IND = SPAWN_INTS_START+1;
-    public static final int NUM_MINERS_LIVE_COUNT_MASK = 0b11111111;
-    public static final int NUM_MINERS_LIVE_COUNT_INVERTED_MASK = ~NUM_MINERS_LIVE_COUNT_MASK;
-    public static final int SHIFTED_MINER_INCREMENT = 0b1 << 8;
-    public static final int SHIFTED_MINER_INCREMENT_PLUS_1 = SHIFTED_MINER_INCREMENT + 1;
 
     public int getNumMinersNeeded() throws GameActionException {
       return Global.rc.readSharedArray(NUM_MINERS_NEEDED_IND) & NUM_MINERS_NEEDED_MASK;
@@ -493,7 +522,6 @@ public class Communicator {
       int val = Global.rc.readSharedArray(NUM_MINERS_NEEDED_IND);
       if ((val & ROUND_MOD_TWO_BIT_MASK) >> 15 != Cache.PerTurn.ROUND_NUM % 2) {
         Global.rc.writeSharedArray(NUM_MINERS_NEEDED_IND, val ^ ROUND_MOD_TWO_BIT_MASK);
-        Global.rc.writeSharedArray(NUM_MINERS_ALIVE_IND, (Global.rc.readSharedArray(NUM_MINERS_ALIVE_IND) & NUM_MINERS_LIVE_COUNT_MASK) << 8);
         return true;
       }
       return false;
@@ -508,37 +536,145 @@ public class Communicator {
       Global.rc.writeSharedArray(NUM_MINERS_NEEDED_IND, (Global.rc.readSharedArray(NUM_MINERS_NEEDED_IND) & ROUND_MOD_TWO_BIT_MASK) + newNum);
     }
 
-    public void incrMinerLiveCount() throws GameActionException {
-      Global.rc.writeSharedArray(NUM_MINERS_ALIVE_IND, Global.rc.readSharedArray(NUM_MINERS_ALIVE_IND) + 1);
-//      Printer.print("increment live counter");
+  }
+
+  /**
+   * team-wide live unit counts per (non-archon) type, double-buffered by round parity
+   *    every robot adds itself to the bank of the current round (one read-modify-write per turn)
+   *    readers use the other bank, which holds the complete count from last round
+   *    each count is an 8-bit field [stamp(2) | count(6)] -- the stamp is (round/2)%4 of the round it counts,
+   *    so a stale field is reset by the first increment instead of needing a separate clear
+   *    the stamp repeats every 8 rounds, so a type with no increments would read its old count again 8 rounds later
+   *      -> archons (never counted, but one always runs every round) restamp every field of the bank to 0 if nobody has yet
+   */
+  public static class CensusInfo {
+    public static final int NUM_CENSUS_INTS = SharedArrayLayout.CENSUS_SIZE;
+    public static final int EVEN_BANK_START = SharedArrayLayout.CENSUS_START;
+    public static final int ODD_BANK_START = EVEN_BANK_START + NUM_CENSUS_INTS / 2;
+
+    private static final int COUNT_BITS = 6;
+    private static final int COUNT_MASK = (1 << COUNT_BITS) - 1;  // counts saturate at 63
+    private static final int STAMP_MASK = 0b11;
+    private static final int FIELD_MASK = 0xFF;
+
+    // slots -- two per int (even slot in the upper byte)
+    private static final int MINER = 0;
+    private static final int SOLDIER = 1;
+    private static final int SAGE = 2;
+    private static final int BUILDER = 3;
+    private static final int LABORATORY = 4;
+    private static final int WATCHTOWER = 5;
+    private static final int NOT_COUNTED = -1;
+
+    private static int slotOf(RobotType type) {
+      switch (type) {
+        case MINER: return MINER;
+        case SOLDIER: return SOLDIER;
+        case SAGE: return SAGE;
+        case BUILDER: return BUILDER;
+        case LABORATORY: return LABORATORY;
+        case WATCHTOWER: return WATCHTOWER;
+        default: return NOT_COUNTED;
+      }
+    }
+
+    /**
+     * add this robot to the census for the given round
+     * @param roundNum the round this robot is alive for (normally Cache.PerTurn.ROUND_NUM)
+     * @throws GameActionException if reading/writing fails
+     */
+    public void countSelf(int roundNum) throws GameActionException {
+      if (Cache.Permanent.ROBOT_TYPE == RobotType.ARCHON) {
+        restampBank(roundNum);
+        return;
+      }
+      int slot = slotOf(Cache.Permanent.ROBOT_TYPE);
+      if (slot != NOT_COUNTED) increment(slot, roundNum);
+    }
+
+    /**
+     * count a freshly built robot in both banks
+     *    so readers this round see it right away (it only counts itself from next round)
+     * @param type the type that was built
+     * @throws GameActionException if reading/writing fails
+     */
+    public void countSpawned(RobotType type) throws GameActionException {
+      int slot = slotOf(type);
+      if (slot == NOT_COUNTED) return;
+      increment(slot, Cache.PerTurn.ROUND_NUM);
+      increment(slot, Cache.PerTurn.ROUND_NUM - 1);
     }
 
-    public void incrMinerMainCount() throws GameActionException {
-      Global.rc.writeSharedArray(NUM_MINERS_ALIVE_IND, Global.rc.readSharedArray(NUM_MINERS_ALIVE_IND) + SHIFTED_MINER_INCREMENT);
+    /**
+     * @param type the unit type
+     * @return how many of that type were alive last round (+ any built this round)
+     * @throws GameActionException if reading fails
+     */
+    public int getCount(RobotType type) throws GameActionException {
+      int slot = slotOf(type);
+      if (slot == NOT_COUNTED) return Global.rc.getArchonCount();
+      int round = Cache.PerTurn.ROUND_NUM - 1;
+      int field = (Global.rc.readSharedArray(bankIndex(slot, round)) >>> shiftOf(slot)) & FIELD_MASK;
+      return field >>> COUNT_BITS == ((round >>> 1) & STAMP_MASK) ? field & COUNT_MASK : 0;
     }
 
-    public void incrMinerMainAndLiveCount() throws GameActionException {
-      Global.rc.writeSharedArray(NUM_MINERS_ALIVE_IND, Global.rc.readSharedArray(NUM_MINERS_ALIVE_IND) + SHIFTED_MINER_INCREMENT_PLUS_1);
+    private static int bankIndex(int slot, int round) {
+      return ((round & 1) == 0 ? EVEN_BANK_START : ODD_BANK_START) + (slot >>> 1);
     }
 
-    public int getMinerLiveCount() throws GameActionException {
-      return (Global.rc.readSharedArray(NUM_MINERS_ALIVE_IND) & NUM_MINERS_LIVE_COUNT_MASK);
+    private static int shiftOf(int slot) {
+      return (slot & 1) == 0 ? 8 : 0;
     }
-    public int getMinerMainCount() throws GameActionException {
-      return (Global.rc.readSharedArray(NUM_MINERS_ALIVE_IND) & NUM_MINERS_LIVE_COUNT_INVERTED_MASK) >> 8;
+
+    /**
+     * reset every field of the round's bank that isn't stamped with that round yet (so a dead type reads 0)
+     *    fields already counted this round keep their count, so it doesn't matter who runs first
+     * @param round the round whose bank to restamp
+     * @throws GameActionException if reading/writing fails
+     */
+    private void restampBank(int round) throws GameActionException {
+      int stamp = (round >>> 1) & STAMP_MASK;
+      int fresh = stamp << COUNT_BITS;
+      int start = bankIndex(0, round);
+      for (int index = start + NUM_CENSUS_INTS / 2; --index >= start;) {
+        int packed = Global.rc.readSharedArray(index);
+        int restamped = packed;
+        if (packed >>> (8 + COUNT_BITS) != stamp) restamped = (restamped & FIELD_MASK) | fresh << 8;
+        if ((packed & FIELD_MASK) >>> COUNT_BITS != stamp) restamped = (restamped & ~FIELD_MASK) | fresh;
+        if (restamped != packed) Global.rc.writeSharedArray(index, restamped);
+      }
     }
 
+    private void increment(int slot, int round) throws GameActionException {
+      int index = bankIndex(slot, round);
+      int shift = shiftOf(slot);
+      int packed = Global.rc.readSharedArray(index);
+      int field = (packed >>> shift) & FIELD_MASK;
+      int stamp = (round >>> 1) & STAMP_MASK;
+      int count = field >>> COUNT_BITS == stamp ? Math.min((field & COUNT_MASK) + 1, COUNT_MASK) : 1;
+      Global.rc.writeSharedArray(index, (packed & ~(FIELD_MASK << shift)) | ((stamp << COUNT_BITS | count) << shift));
+    }
   }
 
   public class MetaInfo {
-    public static final int NUM_META_INTS = 1;
-    public static final int META_INT_START = SpawnInfo.SPAWN_INTS_START - NUM_META_INTS;
+    public static final int NUM_META_INTS = SharedArrayLayout.META_SIZE;
+    public static final int META_INT_START = SharedArrayLayout.META_START;
 
     public static final int VALID_REGION_IND = META_INT_START;
     private int validRegionStart; // 0-62    -- 6 bits [15,10]
     private int validRegionEnd;   // 0-62    -- 6 bits [9,4]
+    // bit [0] is the MUX tag (see MultiplexInfo) -- kept as is by every write here
     public static final int EMPTY_REGION_INDICATOR = 61;
 
+    /**
+     * total number of message ints ever written (wraps at 10 bits -- far more than one round can write)
+     *    lets each robot only read the ints written since its own last read
+     *    shares its int with the dedupe round stamp (see SharedArrayLayout)
+     */
+    public static final int WRITE_CURSOR_IND = SharedArrayLayout.WRITE_CURSOR_IND;
+    public static final int WRITE_CURSOR_MASK = (1 << SharedArrayLayout.WRITE_CURSOR_WIDTH) - 1;
+    private int writeCursor;      // 0-1023  -- 10 bits [15,6]
+
     public static final int SYMMETRY_INFO_SIZE = 0;
     public static final int SYMMETRY_INFO_IND = VALID_REGION_IND - SYMMETRY_INFO_SIZE;
     public Utils.MapSymmetry knownSymmetry; // determined by next three bools
@@ -573,6 +709,7 @@ public class Communicator {
       int validRegion = Global.rc.readSharedArray(VALID_REGION_IND);
       validRegionStart = (validRegion >>> 10) & 63;
       validRegionEnd = (validRegion >>> 4) & 63;
+      writeCursor = Global.rc.readSharedArray(WRITE_CURSOR_IND) >>> SharedArrayLayout.WRITE_CURSOR_SHIFT;
 
       int symmetryInfo = validRegion; //Global.rc.readSharedArray(SYMMETRY_INFO_IND);
       knownSymmetry = Utils.commsSymmetryMap[(symmetryInfo & ALL_SYM_INFO_MASK) >> 1];
@@ -598,6 +735,19 @@ public class Communicator {
       int validRegion = Global.rc.readSharedArray(VALID_REGION_IND);
       validRegionStart = (validRegion >>> 10) & 63;
       validRegionEnd = (validRegion >>> 4) & 63;
+      writeCursor = Global.rc.readSharedArray(WRITE_CURSOR_IND) >>> SharedArrayLayout.WRITE_CURSOR_SHIFT;
+    }
+
+    /**
+     * bump the write cursor after writing some message ints
+     * @param numInts how many ints were written
+     * @throws GameActionException if writing fails
+     */
+    public void advanceWriteCursor(int numInts) throws GameActionException {
+      writeCursor = (writeCursor + numInts) & WRITE_CURSOR_MASK;
+      Global.rc.writeSharedArray(WRITE_CURSOR_IND,
+          (Global.rc.readSharedArray(WRITE_CURSOR_IND) & ~SharedArrayLayout.WRITE_CURSOR_MASK)
+              | writeCursor << SharedArrayLayout.WRITE_CURSOR_SHIFT);
     }
 
     /**
@@ -610,7 +760,8 @@ public class Communicator {
 //      if (!dirty) return false;
 //      System.out.printf("%s\n", this);
       Global.rc.writeSharedArray(VALID_REGION_IND,
-            validRegionStart << 10
+            (Global.rc.readSharedArray(VALID_REGION_IND) & SharedArrayLayout.MUX_TAG_MASK)
+          | validRegionStart << 10
           | validRegionEnd << 4
           | ((notHorizontal ? NOT_HORIZ_MASK : 0) | (notVertical ? NOT_VERT_MASK : 0) | (notRotational ? NOT_ROT_MASK : 0)));
 //      dirty = false;
@@ -659,31 +810,623 @@ public class Communicator {
     }
   }
 
-  private static final int MIN_BYTECODES_TO_SEND_MESSAGE = 1000;
+  /**
+   * per-round bitsets of coarse map cells that already had an EnemyFound/RubbleAtLocation message sent this round
+   *    lets robots skip near-identical messages (e.g. every soldier in one fight reporting the same enemies)
+   *    the first robot to touch the bitsets in a new round clears them
+   */
+  public static class DedupeInfo {
+    public static final int NUM_DEDUPE_INTS = SharedArrayLayout.DEDUPE_SIZE;
+    public static final int DEDUPE_INTS_START = SharedArrayLayout.DEDUPE_START;
+
+    /** round mod 64 of the last clear -- packed next to the write cursor */
+    public static final int ROUND_STAMP_IND = SharedArrayLayout.DEDUPE_STAMP_IND;
+    /** 8x8 cells of 8x8 tiles -- 64 bits */
+    public static final int ENEMY_CELLS_START = DEDUPE_INTS_START;
+    public static final int NUM_ENEMY_CELL_INTS = 4;
+    private static final int ENEMY_CELL_SHIFT = 3;
+    /** 4x4 cells of 15x15 tiles -- 16 bits (rubble only matters for symmetry so it can be very coarse) */
+    public static final int RUBBLE_CELLS_IND = ENEMY_CELLS_START + NUM_ENEMY_CELL_INTS;
+    private static final int RUBBLE_CELL_SIZE = 15;
+
+    /**
+     * clear the bitsets if they are from an old round
+     * @throws GameActionException if reading/writing fails
+     */
+    private void refreshRound() throws GameActionException {
+      int packed = Global.rc.readSharedArray(ROUND_STAMP_IND);
+      int stamp = (Cache.PerTurn.ROUND_NUM << SharedArrayLayout.DEDUPE_STAMP_SHIFT) & SharedArrayLayout.DEDUPE_STAMP_MASK;
+      if ((packed & SharedArrayLayout.DEDUPE_STAMP_MASK) == stamp) return;
+      Global.rc.writeSharedArray(ROUND_STAMP_IND, (packed & ~SharedArrayLayout.DEDUPE_STAMP_MASK) | stamp);
+      Global.rc.writeSharedArray(ENEMY_CELLS_START, 0);
+      Global.rc.writeSharedArray(ENEMY_CELLS_START+1, 0);
+      Global.rc.writeSharedArray(ENEMY_CELLS_START+2, 0);
+      Global.rc.writeSharedArray(ENEMY_CELLS_START+3, 0);
+      Global.rc.writeSharedArray(RUBBLE_CELLS_IND, 0);
+    }
+
+    private static int enemyCell(MapLocation location) {
+      return ((location.x >>> ENEMY_CELL_SHIFT) << ENEMY_CELL_SHIFT) | (location.y >>> ENEMY_CELL_SHIFT);
+    }
+
+    /**
+     * @return true if both enemy locations would be deduped against each other
+     */
+    public static boolean sameEnemyCell(MapLocation a, MapLocation b) {
+      return enemyCell(a) == enemyCell(b);
+    }
+
+    private static int rubbleCell(MapLocation location) {
+      return (location.x / RUBBLE_CELL_SIZE) * 4 + location.y / RUBBLE_CELL_SIZE;
+    }
+
+    /**
+     * @param enemyLocation where the enemy was seen
+     * @return true if an enemy in the same cell was already reported this round
+     * @throws GameActionException if reading fails
+     */
+    public boolean enemyAlreadyReported(MapLocation enemyLocation) throws GameActionException {
+      refreshRound();
+      int cell = enemyCell(enemyLocation);
+      return (Global.rc.readSharedArray(ENEMY_CELLS_START + (cell >>> 4)) & (1 << (cell & 15))) != 0;
+    }
+
+    public void markEnemyReported(MapLocation enemyLocation) throws GameActionException {
+      refreshRound();
+      int cell = enemyCell(enemyLocation);
+      int index = ENEMY_CELLS_START + (cell >>> 4);
+      Global.rc.writeSharedArray(index, Global.rc.readSharedArray(index) | (1 << (cell & 15)));
+    }
+
+    /**
+     * @param location where the rubble was sensed
+     * @return true if rubble in the same cell was already reported this round
+     * @throws GameActionException if reading fails
+     */
+    public boolean rubbleAlreadyReported(MapLocation location) throws GameActionException {
+      refreshRound();
+      return (Global.rc.readSharedArray(RUBBLE_CELLS_IND) & (1 << rubbleCell(location))) != 0;
+    }
+
+    public void markRubbleReported(MapLocation location) throws GameActionException {
+      refreshRound();
+      Global.rc.writeSharedArray(RUBBLE_CELLS_IND, Global.rc.readSharedArray(RUBBLE_CELLS_IND) | (1 << rubbleCell(location)));
+    }
+  }
+
+  /**
+   * decaying map of where enemies have been seen recently
+   *    4 bits per danger cell, 4 cells per int: [strength(2) | epoch stamp(2)]
+   *    a cell is a block of chunks (1x1 if the map has few enough chunks, else the smallest square block that fits)
+   *    strength drops by 1 per EPOCH_ROUNDS since the stamp -- applied lazily when read
+   *    fully decayed cells are swept out every epoch so the 2-bit stamp can't wrap into a ghost
+   *      the last nibble of the region holds the (4-bit) epoch of the last sweep, so whichever robot first runs
+   *      in a new epoch does the sweep (no need for anyone to run on an exact round)
+   * only loaded on even rounds (see MultiplexInfo) -- on odd rounds reads use the copy from the last time it was loaded
+   *    and observations are dropped (the enemies are usually still there to be seen next turn)
+   */
+  public static class HeatmapInfo {
+    public static final int NUM_HEATMAP_INTS = SharedArrayLayout.HEATMAP_SIZE;
+    public static final int HEATMAP_INTS_START = SharedArrayLayout.HEATMAP_START;
+    public static final int CELLS_PER_INT = 4;
+    public static final int MAX_CELLS = NUM_HEATMAP_INTS * CELLS_PER_INT - 1; // last nibble is the sweep stamp
+    private static final int SWEEP_STAMP_IND = HEATMAP_INTS_START + NUM_HEATMAP_INTS - 1;
+    private static final int SWEEP_STAMP_MASK = 0b1111;
+
+    public static final int EPOCH_ROUNDS = 8;
+    private static final int EPOCH_SHIFT = 3;
+    private static final int STAMP_MASK = 0b11;
+    private static final int STRENGTH_SHIFT = 2;
+    public static final int MAX_STRENGTH = 0b11;
+    private static final int CELL_MASK = 0b1111;
+
+    /** the heatmap ints as of the last time this robot read them while loaded */
+    private final int[] copy = new int[NUM_HEATMAP_INTS];
+    private int cellWidth;
+    private int cellHeight;
+    private int cellsPerRow;
+    public int numCells;
+
+    /**
+     * pick the cell size for this map
+     *    ASSUMES - Cache.setup() has been called
+     */
+    public void setupGeometry() {
+      int chunksPerCell = 1;
+      do {
+        cellWidth = chunksPerCell * Cache.Permanent.CHUNK_WIDTH;
+        cellHeight = chunksPerCell * Cache.Permanent.CHUNK_HEIGHT;
+        cellsPerRow = (Cache.Permanent.MAP_WIDTH + cellWidth - 1) / cellWidth;
+        numCells = cellsPerRow * ((Cache.Permanent.MAP_HEIGHT + cellHeight - 1) / cellHeight);
+        chunksPerCell++;
+      } while (numCells > MAX_CELLS);
+    }
+
+    public int cellOf(MapLocation location) {
+      return location.x / cellWidth + (location.y / cellHeight) * cellsPerRow;
+    }
+
+    public MapLocation centerOf(int cell) {
+      int x = Math.min((cell % cellsPerRow) * cellWidth + cellWidth / 2, Cache.Permanent.MAP_WIDTH - 1);
+      int y = Math.min((cell / cellsPerRow) * cellHeight + cellHeight / 2, Cache.Permanent.MAP_HEIGHT - 1);
+      return new MapLocation(x, y);
+    }
+
+    private static int currentEpoch() {
+      return (Cache.PerTurn.ROUND_NUM >>> EPOCH_SHIFT) & STAMP_MASK;
+    }
+
+    /**
+     * @param nibble the raw 4 bits of a cell
+     * @param epoch the current epoch stamp
+     * @return the strength after decay
+     */
+    private static int decayed(int nibble, int epoch) {
+      int strength = (nibble >>> STRENGTH_SHIFT) - ((epoch - nibble) & STAMP_MASK);
+      return strength > 0 ? strength : 0;
+    }
+
+    private static int shiftOf(int cell) {
+      return (CELLS_PER_INT - 1 - cell % CELLS_PER_INT) << 2;
+    }
+
+    /**
+     * @param location any location
+     * @return the decayed enemy strength (0-3) of the cell containing the location
+     * @throws GameActionException if reading fails
+     */
+    public int getStrength(MapLocation location) throws GameActionException {
+      int cell = cellOf(location);
+      int i = cell / CELLS_PER_INT;
+      if (SharedArrayLayout.isActive(SharedArrayLayout.EVEN_ROUNDS)) copy[i] = Global.rc.readSharedArray(HEATMAP_INTS_START + i);
+      return decayed((copy[i] >>> shiftOf(cell)) & CELL_MASK, currentEpoch());
+    }
+
+    /**
+     * record that enemies were seen in a cell -- keeps the stronger of the decayed and observed strength
+     * @param cell the cell the enemies are in
+     * @param strength the observed strength (saturates at MAX_STRENGTH)
+     * @throws GameActionException if reading/writing fails
+     */
+    public void observe(int cell, int strength) throws GameActionException {
+      if (!SharedArrayLayout.isActive(SharedArrayLayout.EVEN_ROUNDS)) return;
+      int index = HEATMAP_INTS_START + cell / CELLS_PER_INT;
+      int shift = shiftOf(cell);
+      int packed = Global.rc.readSharedArray(index);
+      int epoch = currentEpoch();
+      int old = decayed((packed >>> shift) & CELL_MASK, epoch);
+      if (strength > MAX_STRENGTH) strength = MAX_STRENGTH;
+      if (old > strength) strength = old;
+      packed = (packed & ~(CELL_MASK << shift)) | ((strength << STRENGTH_SHIFT | epoch) << shift);
+      Global.rc.writeSharedArray(index, packed);
+      copy[index - HEATMAP_INTS_START] = packed;
+    }
+
+    /**
+     * scan the whole map for the strongest cell (ties broken by distance)
+     *    skips the cell containing from (the caller can see that one for itself)
+     * @param from where to measure distance from
+     * @return the center of the hottest cell, null if no enemies have been seen recently
+     * @throws GameActionException if reading fails
+     */
+    public MapLocation hottestCell(MapLocation from) throws GameActionException {
+      int epoch = currentEpoch();
+      int bestCell = -1;
+      int bestStrength = 0;
+      int bestDist = 0;
+      int ownCell = cellOf(from);
+      boolean loaded = SharedArrayLayout.isActive(SharedArrayLayout.EVEN_ROUNDS);
+      for (int i = 0, cell = 0; cell < numCells; i++) {
+        int packed = loaded ? (copy[i] = Global.rc.readSharedArray(HEATMAP_INTS_START + i)) : copy[i];
+        if (packed == 0) {
+          cell += CELLS_PER_INT;
+          continue;
+        }
+        for (int shift = 12; shift >= 0 && cell < numCells; shift -= 4, cell++) {
+          int strength = decayed((packed >>> shift) & CELL_MASK, epoch);
+          if (strength == 0 || strength < bestStrength || cell == ownCell) continue;
+          int dist = centerOf(cell).distanceSquaredTo(from);
+          if (strength > bestStrength || dist < bestDist) {
+            bestCell = cell;
+            bestStrength = strength;
+            bestDist = dist;
+          }
+        }
+      }
+      return bestCell == -1 ? null : centerOf(bestCell);
+    }
+
+    /**
+     * sweep the heatmap if nobody has yet this epoch -- one read when there's nothing to do
+     *    any robot can call this every turn (some robot runs every round, so no epoch gets skipped)
+     *    nothing to do while the heatmap isn't loaded (an epoch is 4 even rounds, so it still gets swept)
+     * @throws GameActionException if reading/writing fails
+     */
+    public void sweepIfDue() throws GameActionException {
+      if (!SharedArrayLayout.isActive(SharedArrayLayout.EVEN_ROUNDS)) return;
+      int sweepEpoch = (Cache.PerTurn.ROUND_NUM >>> EPOCH_SHIFT) & SWEEP_STAMP_MASK;
+      if ((Global.rc.readSharedArray(SWEEP_STAMP_IND) & SWEEP_STAMP_MASK) != sweepEpoch) sweep(sweepEpoch);
+    }
+
+    /**
+     * clear out cells that have fully decayed (keeps the epoch stamp from wrapping around) and mark the epoch swept
+     * @param sweepEpoch the value to leave in the sweep stamp
+     * @throws GameActionException if reading/writing fails
+     */
+    private void sweep(int sweepEpoch) throws GameActionException {
+      int epoch = currentEpoch();
+      for (int index = HEATMAP_INTS_START; index <= SWEEP_STAMP_IND; index++) {
+        int packed = Global.rc.readSharedArray(index);
+        if (packed == 0 && index != SWEEP_STAMP_IND) continue;
+        int swept = packed;
+        for (int shift = 12; shift >= 0; shift -= 4) {
+          if (decayed((packed >>> shift) & CELL_MASK, epoch) == 0) swept &= ~(CELL_MASK << shift);
+        }
+        if (index == SWEEP_STAMP_IND) swept = (swept & ~SWEEP_STAMP_MASK) | sweepEpoch;
+        if (swept != packed) Global.rc.writeSharedArray(index, swept);
+      }
+    }
+  }
+
+  /**
+   * shared exploration bitmap -- 1 bit per chunk (chunk geometry from Cache.Permanent.setupChunkBounds), 16 chunks per int
+   *    robots mark the chunk they are in whenever they cross into a new one
+   *    (the danger/lead bits of the chunking bot are left out -- the heatmap and LEAD_FOUND messages cover those)
+   * only loaded on odd rounds (see MultiplexInfo) -- on even rounds reads use the copy from the last time it was loaded
+   *    and marks are held back until flushPending runs on a round where it is
+   */
+  public static class ChunkInfo {
+    public static final int NUM_CHUNK_INTS = SharedArrayLayout.CHUNK_SIZE;
+    public static final int CHUNK_INTS_START = SharedArrayLayout.CHUNK_START;
+    public static final int CHUNKS_PER_INT = 16;
+    public static final int MAX_CHUNKS = NUM_CHUNK_INTS * CHUNKS_PER_INT;
+    /** default bytecode cap for the ring search */
+    public static final int MAX_SEARCH_BYTECODES = 2000;
+
+    /** local copy of the bitmap (as of the last time it was loaded + our own marks) */
+    private final int[] explored = new int[NUM_CHUNK_INTS];
+    /** bits marked while the bitmap wasn't loaded */
+    private final int[] pending = new int[NUM_CHUNK_INTS];
+    private boolean anyPending;
+    private int searchX;
+    private int searchY;
+    private int bestChunk;
+    private int bestDist;
+
+    /**
+     * @param location any location on the map
+     * @return the chunk containing it (leftover edge columns/rows go to the last chunk)
+     */
+    public int chunkOf(MapLocation location) {
+      int x = location.x / Cache.Permanent.CHUNK_WIDTH;
+      int y = location.y / Cache.Permanent.CHUNK_HEIGHT;
+      if (x >= Cache.Permanent.NUM_HORIZONTAL_CHUNKS) x = Cache.Permanent.NUM_HORIZONTAL_CHUNKS - 1;
+      if (y >= Cache.Permanent.NUM_VERTICAL_CHUNKS) y = Cache.Permanent.NUM_VERTICAL_CHUNKS - 1;
+      return x + y * Cache.Permanent.NUM_HORIZONTAL_CHUNKS;
+    }
+
+    public MapLocation centerOf(int chunk) {
+      int x = Math.min((chunk % Cache.Permanent.NUM_HORIZONTAL_CHUNKS) * Cache.Permanent.CHUNK_WIDTH + Cache.Permanent.CHUNK_WIDTH / 2, Cache.Permanent.MAP_WIDTH - 1);
+      int y = Math.min((chunk / Cache.Permanent.NUM_HORIZONTAL_CHUNKS) * Cache.Permanent.CHUNK_HEIGHT + Cache.Permanent.CHUNK_HEIGHT / 2, Cache.Permanent.MAP_HEIGHT - 1);
+      return new MapLocation(x, y);
+    }
+
+    public boolean chunkHasBeenExplored(int chunk) throws GameActionException {
+      int i = chunk >>> 4;
+      if (SharedArrayLayout.isActive(SharedArrayLayout.ODD_ROUNDS)) explored[i] = Global.rc.readSharedArray(CHUNK_INTS_START + i);
+      return (explored[i] & (1 << (chunk & 15))) != 0;
+    }
+
+    public boolean chunkHasBeenExplored(MapLocation location) throws GameActionException {
+      return chunkHasBeenExplored(chunkOf(location));
+    }
+
+    /**
+     * set the explored bit of the chunk containing the location (no write if it is already set)
+     *    held back in pending if the bitmap isn't loaded right now
+     * @param location the location that has been seen
+     * @throws GameActionException if reading/writing fails
+     */
+    public void markExplored(MapLocation location) throws GameActionException {
+      int chunk = chunkOf(location);
+      int i = chunk >>> 4;
+      int bit = 1 << (chunk & 15);
+      explored[i] |= bit;
+      if (!SharedArrayLayout.isActive(SharedArrayLayout.ODD_ROUNDS)) {
+        pending[i] |= bit;
+        anyPending = true;
+        return;
+      }
+      int packed = Global.rc.readSharedArray(CHUNK_INTS_START + i);
+      if ((packed & bit) == 0) Global.rc.writeSharedArray(CHUNK_INTS_START + i, packed | bit);
+    }
+
+    /**
+     * write out the marks held back while the bitmap wasn't loaded -- free when there are none
+     *    any robot can call this every turn
+     * @throws GameActionException if reading/writing fails
+     */
+    public void flushPending() throws GameActionException {
+      if (!anyPending || !SharedArrayLayout.isActive(SharedArrayLayout.ODD_ROUNDS)) return;
+      for (int i = NUM_CHUNK_INTS; --i >= 0;) {
+        if (pending[i] == 0) continue;
+        int packed = Global.rc.readSharedArray(CHUNK_INTS_START + i);
+        if ((packed | pending[i]) != packed) Global.rc.writeSharedArray(CHUNK_INTS_START + i, packed | pending[i]);
+        pending[i] = 0;
+      }
+      anyPending = false;
+    }
+
+    /**
+     * search outwards ring by ring (chebyshev distance in chunks) for an unexplored chunk
+     *    within a ring, the chunk closest to the source (euclidean, in chunks) wins
+     * @param source where to search from
+     * @param maxBytecodes give up after using this many bytecodes
+     * @return the center of the closest unexplored chunk, null if everything is explored or the search ran out of bytecodes
+     * @throws GameActionException if reading fails
+     */
+    public MapLocation centerOfClosestUnexploredChunk(MapLocation source, int maxBytecodes) throws GameActionException {
+      if (maxBytecodes <= 0) return null;
+      int stopAt = Clock.getBytecodesLeft() - maxBytecodes;
+      int numChunks = Cache.Permanent.NUM_CHUNKS;
+      int lastInt = (numChunks - 1) >>> 4;
+      boolean anyUnexplored = false;
+      boolean loaded = SharedArrayLayout.isActive(SharedArrayLayout.ODD_ROUNDS);
+      for (int i = 0; i <= lastInt; i++) {
+        if (loaded) explored[i] = Global.rc.readSharedArray(CHUNK_INTS_START + i) | pending[i];
+        int full = i == lastInt ? (1 << (numChunks - (i << 4))) - 1 : 0xFFFF;
+        if (explored[i] != full) anyUnexplored = true;
+      }
+      if (!anyUnexplored) return null;
+
+      int width = Cache.Permanent.NUM_HORIZONTAL_CHUNKS;
+      int height = Cache.Permanent.NUM_VERTICAL_CHUNKS;
+      int sourceChunk = chunkOf(source);
+      searchX = sourceChunk % width;
+      searchY = sourceChunk / width;
+      int maxRing = Math.max(Math.max(searchX, width - 1 - searchX), Math.max(searchY, height - 1 - searchY));
+      bestChunk = -1;
+      for (int ring = 0; ring <= maxRing; ring++) {
+        if (Clock.getBytecodesLeft() < stopAt) return null;
+        bestDist = Integer.MAX_VALUE;
+        int minX = searchX - ring;
+        int maxX = searchX + ring;
+        int minY = searchY - ring;
+        int maxY = searchY + ring;
+        int xEnd = Math.min(maxX, width - 1);
+        for (int x = Math.max(minX, 0); x <= xEnd; x++) {
+          if (minY >= 0) consider(x, minY);
+          if (ring > 0 && maxY < height) consider(x, maxY);
+        }
+        int yEnd = Math.min(maxY - 1, height - 1);
+        for (int y = Math.max(minY + 1, 0); y <= yEnd; y++) {
+          if (minX >= 0) consider(minX, y);
+          if (ring > 0 && maxX < width) consider(maxX, y);
+        }
+        if (bestChunk != -1) return centerOf(bestChunk);
+      }
+      return null;
+    }
+
+    private void consider(int x, int y) {
+      int chunk = x + y * Cache.Permanent.NUM_HORIZONTAL_CHUNKS;
+      if ((explored[chunk >>> 4] & (1 << (chunk & 15))) != 0) return;
+      int dist = (x - searchX) * (x - searchX) + (y - searchY) * (y - searchY);
+      if (dist < bestDist) {
+        bestChunk = chunk;
+        bestDist = dist;
+      }
+    }
+  }
+
+  /**
+   * swaps the time-multiplexed banks (SharedArrayLayout EVEN_ROUNDS / ODD_ROUNDS claims) in and out of the MUX region
+   *    the heatmap is loaded on even rounds and the chunk bitmap on odd rounds, the other bank waits in archon memory
+   *    archons run before every other robot, so the first archon of a round saves the outgoing bank and loads the due one
+   *    every archon copies the loaded bank on its turn, so another archon can take over if the swapping one dies
+   *      (that copy misses whatever was written after its own turn -- a few heat/explored bits, which both banks tolerate)
+   *    the MUX tag says which bank is loaded -- readers go by the tag (SharedArrayLayout.isActive), not the round parity
+   */
+  public static class MultiplexInfo {
+    public static final int NUM_MUX_INTS = SharedArrayLayout.MUX_SIZE;
+    public static final int MUX_INTS_START = SharedArrayLayout.MUX_START;
+
+    /** this archon's copy of each bank (indexed by MUX tag) */
+    private final int[][] banks = new int[2][NUM_MUX_INTS];
+
+    /**
+     * ARCHONS ONLY -- copy the loaded bank, and swap in the due bank if no archon has yet this round
+     *    7 reads on most turns, 7 more writes for the first archon of a round
+     * @throws GameActionException if reading/writing fails
+     */
+    public void swapIfDue() throws GameActionException {
+      int meta = Global.rc.readSharedArray(SharedArrayLayout.MUX_TAG_IND);
+      int loaded = meta & SharedArrayLayout.MUX_TAG_MASK;
+      int[] outgoing = banks[loaded];
+      for (int i = NUM_MUX_INTS; --i >= 0;) {
+        outgoing[i] = Global.rc.readSharedArray(MUX_INTS_START + i);
+      }
+      int due = SharedArrayLayout.muxTagOf(Cache.PerTurn.ROUND_NUM);
+      Memo.store(Memo.LOADED_MUX_TAG, due);
+      if (loaded == due) return;
+      int[] incoming = banks[due];
+      for (int i = NUM_MUX_INTS; --i >= 0;) {
+        if (incoming[i] != outgoing[i]) Global.rc.writeSharedArray(MUX_INTS_START + i, incoming[i]);
+      }
+      Global.rc.writeSharedArray(SharedArrayLayout.MUX_TAG_IND, (meta & ~SharedArrayLayout.MUX_TAG_MASK) | due);
+    }
+  }
+
+  /**
+   * fixed request/response slots for anything that needs an answer from another robot
+   *    slot = 2 ints: header [kind(2) | answered(1) | requester tag(7) | deadline(6)] + one payload int
+   *    the tag is the low 7 bits of the requester's ID -- two robots only get confused if their IDs are equal mod 128
+   *    the payload holds the request argument until a responder overwrites it with the response
+   *    the deadline is the round (mod 64) after which the slot is free again -- expired slots are reclaimed by the next request
+   */
+  public static class RpcInfo {
+    public static final int NUM_RPC_INTS = SharedArrayLayout.RPC_SIZE;
+    public static final int RPC_INTS_START = SharedArrayLayout.RPC_START;
+    public static final int INTS_PER_SLOT = 2;
+    public static final int NUM_SLOTS = NUM_RPC_INTS / INTS_PER_SLOT;
+
+    // request kinds (0 = free slot) -- 2 bits, so at most 3 real kinds
+    public static final int KIND_FREE = 0;
+    public static final int KIND_LEAD = 1;       // miner wants lead -- arg/response: encoded location
+    public static final int KIND_RALLY = 2;      // droid wants a rally point -- arg/response: encoded location
+    public static final int KIND_DEFENDERS = 3;  // archon wants defenders -- arg: encoded location, response: defenders coming
+
+    public static final int NO_SLOT = -1;
+    public static final int PENDING = -1;
+    public static final int LOST = -2;
+
+    private static final int KIND_SHIFT = 14;
+    private static final int ANSWERED_MASK = 1 << 13;
+    private static final int TAG_SHIFT = 6;
+    private static final int TAG_MASK = 0b1111111;
+    private static final int DEADLINE_MASK = 0b111111;
+    /** timeouts are capped so a live deadline is never mistaken for an expired one */
+    public static final int MAX_TIMEOUT = 31;
+
+    private static int myTag() {
+      return Cache.Permanent.ID & TAG_MASK;
+    }
+
+    private static boolean expired(int header) {
+      return ((header - Cache.PerTurn.ROUND_NUM) & DEADLINE_MASK) > MAX_TIMEOUT;
+    }
+
+    private static boolean isMine(int header, int kind) {
+      return header >>> KIND_SHIFT == kind && ((header >>> TAG_SHIFT) & TAG_MASK) == myTag() && !expired(header);
+    }
+
+    /**
+     * claim a free (or expired) slot for a new request
+     * @param kind the request kind
+     * @param arg the request argument (16 bits)
+     * @param timeoutRounds how many rounds the request stays open (at most MAX_TIMEOUT)
+     * @return the claimed slot, NO_SLOT if all slots are busy
+     * @throws GameActionException if reading/writing fails
+     */
+    public int request(int kind, int arg, int timeoutRounds) throws GameActionException {
+      if (timeoutRounds > MAX_TIMEOUT) timeoutRounds = MAX_TIMEOUT;
+      for (int slot = 0; slot < NUM_SLOTS; slot++) {
+        int index = RPC_INTS_START + slot * INTS_PER_SLOT;
+        int header = Global.rc.readSharedArray(index);
+        if (header >>> KIND_SHIFT != KIND_FREE && !expired(header)) continue;
+        Global.rc.writeSharedArray(index, kind << KIND_SHIFT | myTag() << TAG_SHIFT | ((Cache.PerTurn.ROUND_NUM + timeoutRounds) & DEADLINE_MASK));
+        Global.rc.writeSharedArray(index + 1, arg);
+        return slot;
+      }
+      return NO_SLOT;
+    }
+
+    /**
+     * check on a request this robot made
+     * @param slot the slot returned by request
+     * @param kind the kind that was requested
+     * @return the response, PENDING if not answered yet, LOST if the slot timed out or was reclaimed
+     * @throws GameActionException if reading fails
+     */
+    public int pollResponse(int slot, int kind) throws GameActionException {
+      int index = RPC_INTS_START + slot * INTS_PER_SLOT;
+      int header = Global.rc.readSharedArray(index);
+      if (!isMine(header, kind)) return LOST;
+      if ((header & ANSWERED_MASK) == 0) return PENDING;
+      return Global.rc.readSharedArray(index + 1);
+    }
+
+    /**
+     * free a slot this robot requested (once the response has been used or is no longer needed)
+     * @param slot the slot returned by request
+     * @param kind the kind that was requested
+     * @throws GameActionException if reading/writing fails
+     */
+    public void release(int slot, int kind) throws GameActionException {
+      int index = RPC_INTS_START + slot * INTS_PER_SLOT;
+      if (isMine(Global.rc.readSharedArray(index), kind)) Global.rc.writeSharedArray(index, 0);
+    }
+
+    /**
+     * answer an open request (first responder wins)
+     * @param slot the slot of the request
+     * @param kind the kind the responder is answering
+     * @param response the response (16 bits)
+     * @return true if the response was written
+     * @throws GameActionException if reading/writing fails
+     */
+    public boolean respond(int slot, int kind, int response) throws GameActionException {
+      int index = RPC_INTS_START + slot * INTS_PER_SLOT;
+      int header = Global.rc.readSharedArray(index);
+      if (header >>> KIND_SHIFT != kind || (header & ANSWERED_MASK) != 0 || expired(header)) return false;
+      Global.rc.writeSharedArray(index, header | ANSWERED_MASK);
+      Global.rc.writeSharedArray(index + 1, response);
+      return true;
+    }
+
+    /**
+     * hand every open (unanswered, unexpired) request made by someone else to the robot
+     * @throws GameActionException if reading fails or a handler fails
+     */
+    public void dispatchOpenRequests() throws GameActionException {
+      Robot robot = Global.robot;
+      for (int slot = 0; slot < NUM_SLOTS; slot++) {
+        int index = RPC_INTS_START + slot * INTS_PER_SLOT;
+        int header = Global.rc.readSharedArray(index);
+        if (header >>> KIND_SHIFT == KIND_FREE || (header & ANSWERED_MASK) != 0 || expired(header)) continue;
+        if (((header >>> TAG_SHIFT) & TAG_MASK) == myTag()) continue;
+        robot.onRpcRequest(slot, header >>> KIND_SHIFT, Global.rc.readSharedArray(index + 1));
+      }
+    }
+  }
+
 
   private final RobotController rc;
 //  private final int[] sharedBuffer;
 
   public final MetaInfo metaInfo;
-//  public final ChunkInfo chunkInfo;
   public final ArchonInfo archonInfo;
   public final SpawnInfo spawnInfo;
-
-  private static final int NUM_MESSAGING_INTS = MetaInfo.META_INT_START;
-  private final FastQueue<Message> messageQueue;
+  public final CensusInfo census;
+  public final HeatmapInfo heatmap;
+  public final ChunkInfo chunkInfo;
+  public final MultiplexInfo multiplex;
+  public final RpcInfo rpc;
+  public final DedupeInfo dedupeInfo;
+
+  private static final int NUM_MESSAGING_INTS = SharedArrayLayout.MESSAGE_RING_SIZE;
+  /** max messages waiting per priority level -- the oldest is dropped when full */
+  private static final int QUEUE_CAPACITY = 8;
+  /** one FIFO per MessageType.priority */
+  private final MessageQueue[] messageQueues;
+  /** measured bytecode cost of sending each message type (0 until first sent -> flat budget estimate) */
+  private final int[] sendCosts;
 //  private final List<Message> sentMessages;
 //  private final List<Message> received;
   private Message lastSentMessage;
 
+  private static final int NO_READ_CURSOR = -1;
+  /** value of the shared write cursor as of the end of this robot's last read */
+  private int readCursor = NO_READ_CURSOR;
+
   public Communicator() {
     this.rc = Global.rc;
 //    sharedBuffer = new int[NUM_MESSAGING_INTS];
     metaInfo = new MetaInfo();
-//    chunkInfo = new ChunkInfo();
     archonInfo = new ArchonInfo();
     spawnInfo = new SpawnInfo();
-
-    messageQueue = new FastQueue<>(10);
+    census = new CensusInfo();
+    heatmap = new HeatmapInfo();
+    chunkInfo = new ChunkInfo();
+    multiplex = new MultiplexInfo();
+    rpc = new RpcInfo();
+    dedupeInfo = new DedupeInfo();
+
+    messageQueues = new MessageQueue[Message.MessageType.NUM_PRIORITIES];
+    for (int i = 0; i < Message.MessageType.NUM_PRIORITIES; i++) {
+      messageQueues[i] = new MessageQueue(QUEUE_CAPACITY);
+    }
+    sendCosts = new int[Message.MessageType.values.length];
 //    sentMessages = new ArrayList<>(5);
 //    received = new ArrayList<>();
   }
@@ -692,7 +1435,6 @@ public class Communicator {
    * reset the sharedBuffer with the contents of the entire shared array
    */
   private void reloadBuffer() throws GameActionException {
-    Utils.startByteCodeCounting("readShared");
     metaInfo.updateFromShared();
 //    int toUpdate = (metaInfo.validRegionEnd - metaInfo.validRegionStart + 1 + NUM_MESSAGING_INTS) % NUM_MESSAGING_INTS;
 //    int ind;
@@ -700,7 +1442,6 @@ public class Communicator {
 //      ind = (metaInfo.validRegionStart+i) % NUM_MESSAGING_INTS;
 //      sharedBuffer[ind] = rc.readSharedArray(ind);
 //    }
-    Utils.finishByteCodeCounting("readShared");
   }
 
   /**
@@ -754,14 +1495,14 @@ public class Communicator {
    * @throws GameActionException thrown if readMessageAt fails
    */
   public int readAndAckAllMessages() throws GameActionException {
-    Utils.startByteCodeCounting("reloadBuffer");
+    Profiler.start(Profiler.RELOAD_BUFFER);
     reloadBuffer();
 //    System.out.println("update meta - " + Clock.getBytecodeNum());
 //    if (rc.getRoundNum() == 1471) {
 //      System.out.println("Reading on round 582 -- " + metaInfo);
 //      System.out.println(Arrays.toString(readInts(metaInfo.validRegionStart, metaInfo.validRegionEnd- metaInfo.validRegionStart+1)));
 //    }
-    Utils.finishByteCodeCounting("reloadBuffer");
+    Profiler.finish(Profiler.RELOAD_BUFFER);
 //    System.out.println("\nstarting - " + metaInfo);
 
     cleanStaleMessages(); // clean out stale bois
@@ -773,8 +1514,14 @@ public class Communicator {
       ending += NUM_MESSAGING_INTS;
     }
     if (ending == MetaInfo.EMPTY_REGION_INDICATOR) { // no messages to read
+      readCursor = metaInfo.writeCursor;
       return 0;
     }
+    // skip everything already read last time (if those ints are still in the valid region)
+    int newInts = (metaInfo.writeCursor - readCursor) & MetaInfo.WRITE_CURSOR_MASK;
+    if (readCursor != NO_READ_CURSOR && newInts < ending - origin) {
+      origin = ending - newInts;
+    }
 //    System.out.println("Reading messages: " + metaInfo);
     int messages = 0;
 //    int lastAckdRound = received.isEmpty() ? 0 : getNthLastReceivedMessage(1).header.cyclicRoundNum;
@@ -787,100 +1534,104 @@ public class Communicator {
 //    System.out.println("ack messages within: (" + lastAckdRound + ", " + maxRoundNum + "]");
 //    int thisRound = rc.getRoundNum();
     while (origin < ending) {
+      if (!Budget.canAfford(Budget.COMMS_READ)) break; // cap acks if over budget - rest are read next turn
 //      System.out.println("\nBefore  read/ack message: " + Clock.getBytecodeNum());
-      Message message = readMessageAt(origin % NUM_MESSAGING_INTS);
-//      if (message == null) {
-//        int tries = 1;
-//        do {
-//          message = readMessageAt(++origin % NUM_MESSAGING_INTS);
-//        } while (--tries > 0 && message == null);
-//      }
-//      if (message != null) {
-        Global.robot.ackMessage(message);
-        messages++;
-        origin += message.size();
-////      System.out.println("\nCost to read/ack message: " + Clock.getBytecodeNum());
-//      } else {
-//        metaInfo.initializeValidRegion();
-//        metaInfo.encodeAndWrite();
-//        break;
-//      }
+      origin += ackMessageAt(origin % NUM_MESSAGING_INTS);
+      messages++;
+//      System.out.println("\nCost to read/ack message: " + Clock.getBytecodeNum());
     }
+    readCursor = (metaInfo.writeCursor - (ending - origin)) & MetaInfo.WRITE_CURSOR_MASK;
     return messages;
   }
 
   /**
-   * read a message from the shared array
+   * decode the message at the given index and pass its raw payload straight to the robot's typed handler
+   *    no Header/Message/WriteInfo objects are created (except for lead requests, which get responded to in place)
    *    ASSUMES - messageOrigin is the start of a VALID message
    * @param messageOrigin where the message starts
-   * @return the read message
+   * @return the size of the message (in ints)
+   * @throws GameActionException if reading or acking fails
    */
-  private Message readMessageAt(final int messageOrigin) throws GameActionException {
+  private int ackMessageAt(final int messageOrigin) throws GameActionException {
 //     assert messageOrigin < NUM_MESSAGING_INTS; // ensure that the message is within the messaging ints
-    int headerInt = Global.rc.readSharedArray(messageOrigin);//sharedBuffer[messageOrigin];
-    Message.Header header;
-//    try {
-//      int beforeReadHeader = Clock.getBytecodeNum();
-      header = Message.Header.fromReadInt(headerInt);
-//      System.out.println("Cost to read header: " + (Clock.getBytecodeNum() - beforeReadHeader));
-//      header.validate();
-//    } catch (Exception e) {
-//      System.out.println("Failed to parse header! at: " + messageOrigin);
-//      System.out.println("Reading bounds: " + metaInfo);
-//      System.out.println("ints: " + Arrays.toString(readInts(metaInfo.validRegionStart, (metaInfo.validRegionEnd-metaInfo.validRegionStart + NUM_MESSAGING_INTS) % NUM_MESSAGING_INTS)));
-//      System.out.println("Header int: " + headerInt);
-//      System.out.println("Header: " + header);
-////      e.printStackTrace();
-////      metaInfo.validRegionStart = metaInfo.validRegionEnd = 0;
-////      return null;
-////      if (messageOrigin < metaInfo.validRegionEnd || (metaInfo.validRegionStart < metaInfo.validRegionEnd && messageOrigin < NUM_MESSAGING_INTS)) {
-////        return readMessageAt((messageOrigin+1) % NUM_MESSAGING_INTS);
-////      }
-//      throw e;
-//    }
-
-    switch (header.type.standardSize) {
-      case 0:
-        return Message.fromHeaderAndInfo0(header,
-          headerInt
-          ).setWriteInfo(new Message.WriteInfo(messageOrigin));
-      case 1:
-        return Message.fromHeaderAndInfo1(header,
-            Global.rc.readSharedArray((messageOrigin + 1) % NUM_MESSAGING_INTS)
-          ).setWriteInfo(new Message.WriteInfo(messageOrigin));
-      case 2:
-        return Message.fromHeaderAndInfo2(header,
-            Global.rc.readSharedArray((messageOrigin + 1) % NUM_MESSAGING_INTS),
-            Global.rc.readSharedArray((messageOrigin + 2) % NUM_MESSAGING_INTS)
-          ).setWriteInfo(new Message.WriteInfo(messageOrigin));
+    int headerInt = rc.readSharedArray(messageOrigin);
+    Message.MessageType type = Message.Header.typeOf(headerInt);
+    Robot robot = Global.robot;
+    switch (type) {
+      case ARCHON_HELLO:
+        robot.onArchonHello(readField(messageOrigin, headerInt, ArchonHelloMessage.LOCATION_OFFSET, MessageSchema.LOCATION_BITS));
+        break;
+      case LEAD_FOUND:
+        robot.onLeadFound(readField(messageOrigin, headerInt, LeadFoundMessage.LOCATION_OFFSET, MessageSchema.LOCATION_BITS));
+        break;
+      case LAB_BUILT:
+        robot.onLabBuilt(readField(messageOrigin, headerInt, LabBuiltMessage.LOCATION_OFFSET, MessageSchema.LOCATION_BITS));
+        break;
+      case END_FIGHT:
+        robot.onEndFight(readField(messageOrigin, headerInt, EndFightMessage.LOCATION_OFFSET, MessageSchema.LOCATION_BITS));
+        break;
+      case SAVE_ME:
+        robot.onSaveMe(readField(messageOrigin, headerInt, SaveMeMessage.LOCATION_OFFSET, MessageSchema.LOCATION_BITS));
+        break;
+      case ARCHON_SAVED:
+        robot.onArchonSaved(readField(messageOrigin, headerInt, ArchonSavedMessage.LOCATION_OFFSET, MessageSchema.LOCATION_BITS));
+        break;
+      case RUBBLE_AT_LOCATION:
+        robot.onRubbleAt(
+            readField(messageOrigin, headerInt, RubbleAtLocationMessage.LOCATION_OFFSET, MessageSchema.LOCATION_BITS),
+            readField(messageOrigin, headerInt, RubbleAtLocationMessage.RUBBLE_OFFSET, MessageSchema.RUBBLE_BITS));
+        break;
+      case JOIN_THE_FIGHT:
+        robot.onJoinTheFight(readField(messageOrigin, headerInt, JoinTheFightMessage.LOCATION_OFFSET, MessageSchema.LOCATION_BITS));
+        break;
+      case ENEMY_FOUND:
+        robot.onEnemyFound(readField(messageOrigin, headerInt, EnemyFoundMessage.LOCATION_OFFSET, MessageSchema.LOCATION_BITS));
+        break;
+      case ENEMY_BATCH:
+        for (int i = MessageSchema.framedLengthOf(headerInt); i > 0; i--) {
+          robot.onEnemyFound(rc.readSharedArray((messageOrigin + i) % NUM_MESSAGING_INTS));
+        }
+        break;
       default:
-        throw new RuntimeException("Not enough cases for big message! - " + header);
+        throw new RuntimeException("No handler for message type! - " + type);
     }
+    return Message.Header.sizeOf(headerInt);
+  }
 
-//    int beforeMakeInfo = Clock.getBytecodeNum();
-//    int[] information = new int[header.numInformationInts];
-//    for (int i = 0; i < header.numInformationInts; i++) {
-//      information[i] = Global.rc.readSharedArray((messageOrigin + i + 1) % NUM_MESSAGING_INTS);// sharedBuffer[(messageOrigin + i + 1) % NUM_MESSAGING_INTS];
-//    }
-//    System.out.println("Cost to make info arr: " + (Clock.getBytecodeNum() - beforeMakeInfo));
-//    try {
-//      return Message.fromHeaderAndInfo(header, information).setWriteInfo(new Message.WriteInfo(messageOrigin));
-//    } catch (NoSuchMethodException | InvocationTargetException | InstantiationException | IllegalAccessException e) {
-//      System.out.println("Message instantiation failed!");
-//      System.out.println("Reading bounds: " + metaInfo);
-//      System.out.println("ints: " + Arrays.toString(readInts(metaInfo.validRegionStart, metaInfo.validRegionEnd-metaInfo.validRegionStart + 1)));
-//      System.out.printf("Read at %d\n", messageOrigin);
-//      System.out.println("Header int: " + headerInt);
-//      throw new RuntimeException("Failed to initialize message", e);
-//    }
+  /**
+   * read a single field of the message at the given index (as laid out by MessageSchema)
+   *    fields in the header int come straight from the already read header
+   * @param messageOrigin where the message starts
+   * @param headerInt the already read header int of the message
+   * @param offset the bit offset of the field within the message
+   * @param width the field width
+   * @return the field value
+   * @throws GameActionException if reading fails
+   */
+  private int readField(int messageOrigin, int headerInt, int offset, int width) throws GameActionException {
+    int index = offset / MessageSchema.INT_BITS;
+    int first = index == 0 ? headerInt : rc.readSharedArray((messageOrigin + index) % NUM_MESSAGING_INTS);
+    if (MessageSchema.fitsInOneInt(offset, width)) {
+      return MessageSchema.extract(first, 0, offset, width);
+    }
+    return MessageSchema.extract(first, rc.readSharedArray((messageOrigin + index + 1) % NUM_MESSAGING_INTS), offset, width);
   }
 
   /**
-   * add a message to the internal communicator queue
+   * add a message to the outgoing queue for its priority
+   *    the message is dropped if it can't be sent within its type's maxQueuedRounds
+   *    re-enqueueing a message that is still queued only extends its deadline
    * @param message the message to send
    */
   public void enqueueMessage(Message message) {
-    messageQueue.push(message);
+    boolean alreadyQueued = message.deadlineRound != Message.NOT_QUEUED;
+    message.deadlineRound = Cache.PerTurn.ROUND_NUM + message.header.type.maxQueuedRounds;
+    if (alreadyQueued) return;
+    MessageQueue queue = messageQueues[message.header.type.priority];
+    if (queue.isFull()) { // full -> drop the oldest
+      queue.popFront().deadlineRound = Message.NOT_QUEUED;
+    }
+    queue.push(message);
 //    if (rc.getID() == 10618) {
 //      Printer.cleanPrint();
 //      Printer.print("Enqueued message: " + messageQueue.size(), "header: " + message.header);
@@ -889,46 +1640,58 @@ public class Communicator {
   }
 
   /**
-   * reschedule a message to be sent in some number of turns
-   *    should NOT happen often
-   * @param message the message to reschedule
+   * @return the number of outgoing messages still waiting in the queues (all priorities)
    */
-  public void rescheduleMessage(Message message) {
-    if (message.header.type.shouldReschedule) {
-      enqueueMessage(message);
+  public int numQueuedMessages() {
+    int queued = 0;
+    for (MessageQueue queue : messageQueues) {
+      queued += queue.size();
     }
+    return queued;
   }
 
   /**
-   * send all messages that should be sent by now
+   * send queued messages in priority order (FIFO within a priority)
+   *    stale messages are dropped, stops at the first message that can't be afforded or doesn't fit
    * @throws GameActionException thrown if sendMessage fails
    */
   public void sendQueuedMessages() throws GameActionException {
-    while (!messageQueue.isEmpty() && sendMessage(messageQueue.popFront()));
+    for (MessageQueue queue : messageQueues) {
+      while (!queue.isEmpty()) {
+        Message message = queue.getFront();
+        if (message.deadlineRound < Cache.PerTurn.ROUND_NUM) { // stale
+          queue.popFront().deadlineRound = Message.NOT_QUEUED;
+          continue;
+        }
+        if (!sendMessage(message)) return; // stays queued for next turn
+        queue.popFront().deadlineRound = Message.NOT_QUEUED;
+      }
+    }
   }
 
   /**
    * write a certain message to the shared array
    * starts message after validRegionEnd and bumps validRegionStart as needed if ints are overwritten
    * @param message the message to write
-   * @returns true if sent, false if rescheduled
+   * @returns true if sent, false if it can't be afforded or there is no space
    * @throws GameActionException thrown if writing to array fails
    */
   private boolean sendMessage(Message message) throws GameActionException {
-    if (Clock.getBytecodesLeft() < MIN_BYTECODES_TO_SEND_MESSAGE) {
-      rescheduleMessage(message);
+    int type = message.header.type.ordinal;
+    int expectedCost = sendCosts[type] != 0 ? sendCosts[type] : Budget.cost(Budget.COMMS_SEND);
+    if (Budget.available(Budget.COMMS_SEND) < expectedCost) {
 //      System.out.println("reschedule for bc - " + message.header);
 //      System.out.printf("---\nRESCHEDULE  %s:\n%d - %s\n", message.header.type, Clock.getBytecodesLeft(), Arrays.toString(message.toEncodedInts()));
       return false;
     }
 //    System.out.println("pre-reload -- bc: " + Clock.getBytecodesLeft());
+    int startBytecodes = Clock.getBytecodeNum();
     metaInfo.reloadValidRegion();
 //    System.out.println("pre-sending -- bc: " + Clock.getBytecodesLeft());
 //    System.out.println("metaInfo: " + metaInfo);
 //    System.out.println("Current ints: " + ((metaInfo.validRegionEnd-metaInfo.validRegionStart+NUM_MESSAGING_INTS) % NUM_MESSAGING_INTS) + "\nnew ints: " + message.size() + "\nlimit: " + NUM_MESSAGING_INTS);
     if (metaInfo.validRegionEnd != MetaInfo.EMPTY_REGION_INDICATOR
         && ((metaInfo.validRegionEnd-metaInfo.validRegionStart+NUM_MESSAGING_INTS) % NUM_MESSAGING_INTS) + message.size() >= NUM_MESSAGING_INTS) { // will try to write more ints than available
-      rescheduleMessage(message);
 //      System.out.println("reschedule for out of space - " + message.header);
 //      System.out.printf("---\nRESCHEDULE  %s:\n%d - %s\n", message.header.type, Clock.getBytecodesLeft(), Arrays.toString(message.toEncodedInts()));
       return false;
@@ -966,23 +1729,27 @@ public class Communicator {
     message.setWriteInfo(new Message.WriteInfo(messageOrigin));
 //    metaInfo.dirty = true;
     metaInfo.writeValidRegion();
+    boolean caughtUp = readCursor == metaInfo.writeCursor;
+    metaInfo.advanceWriteCursor(messageBits.length);
+    if (caughtUp) readCursor = metaInfo.writeCursor; // don't re-read our own message
+    switch (message.header.type) {
+      case ENEMY_FOUND:
+        dedupeInfo.markEnemyReported(((EnemyFoundMessage) message).enemyLocation);
+        break;
+      case ENEMY_BATCH:
+        EnemyBatchMessage batch = (EnemyBatchMessage) message;
+        for (int i = batch.numEnemies; --i >= 0;) {
+          dedupeInfo.markEnemyReported(batch.enemyLocations[i]);
+        }
+        break;
+      case RUBBLE_AT_LOCATION:
+        dedupeInfo.markRubbleReported(((RubbleAtLocationMessage) message).location);
+        break;
+    }
+    sendCosts[type] = (expectedCost + Clock.getBytecodeNum() - startBytecodes) / 2; // smooth out occasional spikes
     return true;
   }
 
-  /**
-   * returns true if the integer at the specified index matches the provided message header
-   *    ASSUMES data has already been read into sharedBuffer
-   * @param headerIndex the index to check
-   * @param header the message metadata to verify
-   * @return the sameness
-   * @throws GameActionException if reading fails
-   */
-  public boolean headerMatches(int headerIndex, Message.Header header) throws GameActionException {
-//    System.out.println("Checking header at " + headerIndex + ": " + sharedBuffer[headerIndex] + " -- " + header.toInt());
-//    return sharedBuffer[headerIndex] == header.toInt();
-    return Global.rc.readSharedArray(headerIndex) == header.toInt();
-  }
-
   /**
    * reads numInts integers starting at startIndex into an integer array and sends them back for use
    *    reads from ALREADY processed sharedBuffer
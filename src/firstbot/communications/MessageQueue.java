@@ -0,0 +1,56 @@
+package firstbot.communications;
+
+import firstbot.communications.messages.Message;
+
+/**
+ * bounded FIFO of outgoing messages (typed version of the IntDeque ring, no casts from Object[])
+ *    the owner decides what to drop when it is full -- see Communicator.enqueueMessage
+ */
+public class MessageQueue {
+  public static final boolean DEBUG_CHECKS = false;
+
+  private final Message[] array;
+  private final int mask;
+  private int front;
+  private int size;
+
+  /**
+   * @param capacity the most messages that will be queued at once (rounded up to a power of two)
+   */
+  public MessageQueue(int capacity) {
+    int length = 2;
+    while (length < capacity) length <<= 1;
+    array = new Message[length];
+    mask = length - 1;
+  }
+
+  public void push(Message message) {
+    if (DEBUG_CHECKS && size == array.length) throw new RuntimeException("push() on full MessageQueue - " + message.header.type);
+    array[(front + size++) & mask] = message;
+  }
+
+  public Message popFront() {
+    if (DEBUG_CHECKS && size == 0) throw new RuntimeException("popFront() on empty MessageQueue");
+    Message message = array[front];
+    array[front] = null;
+    front = (front + 1) & mask;
+    size--;
+    return message;
+  }
+
+  public Message getFront() {
+    return array[front];
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public boolean isFull() {
+    return size == array.length;
+  }
+
+  public int size() {
+    return size;
+  }
+}
@@ -0,0 +1,203 @@
+package firstbot.communications;
+
+import battlecode.common.GameActionException;
+import battlecode.common.GameConstants;
+import firstbot.communications.messages.MessageSchema;
+import firstbot.utils.Global;
+import firstbot.utils.Memo;
+
+/**
+ * single source of truth for where everything lives in the 64-int shared array
+ *    regions are declared top-down by size, so every START is a compile-time constant derived from the sizes
+ *    ints shared by several subsystems declare their bit fields here (shift + width -> mask)
+ *    every region/field is also listed in CLAIMS so validate() can check that nothing overlaps and every bit is owned
+ *
+ * time-multiplexed claims (EVEN_ROUNDS / ODD_ROUNDS) may overlap each other,
+ *    so two subsystems can take turns on the same ints (see isActive + Communicator.MultiplexInfo)
+ *    the heatmap and the chunk bitmap share the MUX region -- without that the ring would be down to 21 ints
+ *
+ * the message ring only gets what the fixed regions leave over (28 ints, down from 53 before census/heatmap/chunks/rpc)
+ *    that still fits 14-28 of the compact (1-2 int) messages per round, and the high-volume state moved into fixed regions
+ *    if the ring starts dropping messages, RPC is the cheapest to shrink (it is written a few times a game)
+ */
+public class SharedArrayLayout {
+  public static final boolean VALIDATE = false; // costs 64-int arrays + a pass over CLAIMS -- turn on when editing the layout
+
+  // ================ REGIONS (top of the array down) ================
+  public static final int ARCHON_SIZE = 9;
+  public static final int ARCHON_START = GameConstants.SHARED_ARRAY_LENGTH - ARCHON_SIZE;
+
+  public static final int SPAWN_SIZE = 1;
+  public static final int SPAWN_START = ARCHON_START - SPAWN_SIZE;
+
+  /** two banks (even/odd rounds) of 3 ints -- 6 unit types at 8 bits each */
+  public static final int CENSUS_SIZE = 6;
+  public static final int CENSUS_START = SPAWN_START - CENSUS_SIZE;
+
+  public static final int META_SIZE = 2;
+  public static final int META_START = CENSUS_START - META_SIZE;
+
+  public static final int DEDUPE_SIZE = 5;
+  public static final int DEDUPE_START = META_START - DEDUPE_SIZE;
+
+  /** time-multiplexed -- the heatmap on even rounds, the chunk bitmap on odd rounds */
+  public static final int MUX_SIZE = 7;
+  public static final int MUX_START = DEDUPE_START - MUX_SIZE;
+
+  /** 4 bits per danger cell, up to 27 cells + the sweep stamp */
+  public static final int HEATMAP_SIZE = MUX_SIZE;
+  public static final int HEATMAP_START = MUX_START;
+
+  /** 1 explored bit per chunk -- 112 bits covers the most chunks Cache.Permanent.setupChunkBounds can make */
+  public static final int CHUNK_SIZE = MUX_SIZE;
+  public static final int CHUNK_START = MUX_START;
+
+  /** 3 request/response slots of 2 ints each */
+  public static final int RPC_SIZE = 6;
+  public static final int RPC_START = MUX_START - RPC_SIZE;
+
+  /** the message ring gets whatever is left at the bottom */
+  public static final int MESSAGE_RING_START = 0;
+  public static final int MESSAGE_RING_SIZE = RPC_START - MESSAGE_RING_START;
+
+  // ================ PACKED INTS ================
+  // META_START -- valid region [15,4] | symmetry [3,1] | loaded MUX bank [0]
+  public static final int VALID_REGION_MASK = 0xFFFE;
+  /** round parity of the bank currently in the MUX region (0 -> EVEN_ROUNDS) */
+  public static final int MUX_TAG_IND = META_START;
+  public static final int MUX_TAG_MASK = 1;
+
+  // META_START+1 -- write cursor [15,6] | dedupe round stamp [5,0]
+  public static final int WRITE_CURSOR_IND = META_START + 1;
+  public static final int WRITE_CURSOR_SHIFT = 6;
+  public static final int WRITE_CURSOR_WIDTH = 10;
+  public static final int WRITE_CURSOR_MASK = ((1 << WRITE_CURSOR_WIDTH) - 1) << WRITE_CURSOR_SHIFT;
+
+  public static final int DEDUPE_STAMP_IND = META_START + 1;
+  public static final int DEDUPE_STAMP_SHIFT = 0;
+  public static final int DEDUPE_STAMP_WIDTH = 6;
+  public static final int DEDUPE_STAMP_MASK = ((1 << DEDUPE_STAMP_WIDTH) - 1) << DEDUPE_STAMP_SHIFT;
+
+  // ================ MULTIPLEXING ================
+  public static final int ALWAYS = 0;
+  public static final int EVEN_ROUNDS = 1;
+  public static final int ODD_ROUNDS = 2;
+
+  /**
+   * @param round a round number
+   * @return the MUX_TAG of the bank that should be loaded on that round
+   */
+  public static int muxTagOf(int round) {
+    return round & MUX_TAG_MASK;
+  }
+
+  /**
+   * the MUX_TAG decides, not the round parity -- the archons do the swapping, so with none left the loaded bank just stays
+   *    the tag only changes at the start of the first archon's turn (which re-stores the memo), so it is read once a round
+   * @param phase the multiplexing phase of a claim
+   * @return true if a claim with that phase owns its bits right now
+   * @throws GameActionException if reading the tag fails
+   */
+  public static boolean isActive(int phase) throws GameActionException {
+    if (phase == ALWAYS) return true;
+    int tag = Memo.isValid(Memo.LOADED_MUX_TAG)
+        ? Memo.intValue(Memo.LOADED_MUX_TAG)
+        : Memo.store(Memo.LOADED_MUX_TAG, Global.rc.readSharedArray(MUX_TAG_IND) & MUX_TAG_MASK);
+    return tag == (phase == ODD_ROUNDS ? 1 : 0);
+  }
+
+  // ================ CLAIMS ================
+  private static final int FULL_INT = 0xFFFF;
+  private static final String[] CLAIM_NAMES = {
+      "archon",
+      "spawn",
+      "census",
+      "meta:validRegion",
+      "meta:muxTag",
+      "meta:writeCursor",
+      "dedupe:stamp",
+      "dedupe:cells",
+      "heatmap",
+      "chunks",
+      "rpc",
+      "messageRing",
+  };
+  // start, size, mask (of each int), phase
+  private static final int[] CLAIMS = {
+      ARCHON_START, ARCHON_SIZE, FULL_INT, ALWAYS,
+      SPAWN_START, SPAWN_SIZE, FULL_INT, ALWAYS,
+      CENSUS_START, CENSUS_SIZE, FULL_INT, ALWAYS,
+      META_START, 1, VALID_REGION_MASK, ALWAYS,
+      MUX_TAG_IND, 1, MUX_TAG_MASK, ALWAYS,
+      WRITE_CURSOR_IND, 1, WRITE_CURSOR_MASK, ALWAYS,
+      DEDUPE_STAMP_IND, 1, DEDUPE_STAMP_MASK, ALWAYS,
+      DEDUPE_START, DEDUPE_SIZE, FULL_INT, ALWAYS,
+      HEATMAP_START, HEATMAP_SIZE, FULL_INT, EVEN_ROUNDS,
+      CHUNK_START, CHUNK_SIZE, FULL_INT, ODD_ROUNDS,
+      RPC_START, RPC_SIZE, FULL_INT, ALWAYS,
+      MESSAGE_RING_START, MESSAGE_RING_SIZE, FULL_INT, ALWAYS,
+  };
+  private static final int CLAIM_SIZE = 4;
+
+  /**
+   * check the layout if VALIDATE is on (see checkLayout)
+   *    only needs to run once per game (the layout is all compile-time constants)
+   */
+  public static void validate() {
+    if (VALIDATE) checkLayout();
+  }
+
+  /**
+   * check that the message schemas agree with their offset constants and that CLAIMS is a valid layout
+   *    runs regardless of VALIDATE (tests call this directly)
+   */
+  static void checkLayout() {
+    MessageSchema.validate();
+    checkClaims(CLAIMS, CLAIM_NAMES);
+  }
+
+  /**
+   * check that all claims are inside the array, no two claims share a bit in the same phase,
+   *    and every bit of the array is owned by something in both phases
+   * @param claims [start, size, mask, phase] per claim
+   * @param names a name per claim (for the error message)
+   */
+  static void checkClaims(int[] claims, String[] names) {
+    int[] always = new int[GameConstants.SHARED_ARRAY_LENGTH];
+    int[] even = new int[GameConstants.SHARED_ARRAY_LENGTH];
+    int[] odd = new int[GameConstants.SHARED_ARRAY_LENGTH];
+    for (int claim = 0; claim < claims.length; claim += CLAIM_SIZE) {
+      int start = claims[claim];
+      int end = start + claims[claim+1];
+      int mask = claims[claim+2];
+      int phase = claims[claim+3];
+      String name = names[claim / CLAIM_SIZE];
+      if (start < 0 || claims[claim+1] <= 0 || end > GameConstants.SHARED_ARRAY_LENGTH || (mask & ~FULL_INT) != 0) {
+        throw new RuntimeException("Shared array claim out of bounds! - " + name + " [" + start + "," + end + ")");
+      }
+      for (int i = start; i < end; i++) {
+        int taken = always[i] | (phase != ODD_ROUNDS ? even[i] : 0) | (phase != EVEN_ROUNDS ? odd[i] : 0);
+        if ((taken & mask) != 0) {
+          throw new RuntimeException("Shared array overlap! - " + name + " at " + i + " mask " + Integer.toBinaryString(taken & mask));
+        }
+        switch (phase) {
+          case ALWAYS:
+            always[i] |= mask;
+            break;
+          case EVEN_ROUNDS:
+            even[i] |= mask;
+            break;
+          case ODD_ROUNDS:
+            odd[i] |= mask;
+            break;
+        }
+      }
+    }
+    for (int i = 0; i < GameConstants.SHARED_ARRAY_LENGTH; i++) {
+      if ((always[i] | even[i]) != FULL_INT || (always[i] | odd[i]) != FULL_INT) {
+        throw new RuntimeException("Shared array gap! - nothing owns " + i + " mask "
+            + Integer.toBinaryString(FULL_INT & ~((always[i] | even[i]) & (always[i] | odd[i]))));
+      }
+    }
+  }
+}
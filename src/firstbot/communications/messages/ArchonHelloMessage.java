@@ -9,7 +9,10 @@ import firstbot.utils.Utils;
  */
 public class ArchonHelloMessage extends Message {
   public static final MessageType TYPE = MessageType.ARCHON_HELLO;
-  public static final int MESSAGE_LENGTH = 1;
+  static final int[] FIELDS = {MessageSchema.LOCATION_BITS, MessageSchema.SYMMETRY_BITS};
+  public static final int LOCATION_OFFSET = MessageSchema.PAYLOAD_START;
+  public static final int SYMMETRY_OFFSET = LOCATION_OFFSET + MessageSchema.LOCATION_BITS;
+  public static final int MESSAGE_LENGTH = (SYMMETRY_OFFSET + MessageSchema.SYMMETRY_BITS - 1) / MessageSchema.INT_BITS;
 
   private static final int HORIZ_MASK = 0b100;
   private static final int VERT_MASK = 0b10;
@@ -28,24 +31,12 @@ public class ArchonHelloMessage extends Message {
     this.notRotSym = notRotSym;
   }
 
-  public ArchonHelloMessage(Header header, int information) {
-    super(header);
-    this.location = Utils.decodeLocation(information);
-    this.decodeSymmetryData(information);
-  }
-
   public int[] toEncodedInts() {
-    return new int[]{getHeaderInt(), Utils.encodeLocation(location) | encodeSymmetryData()};
+    return MessageSchema.encode(TYPE, FIELDS, Utils.encodeLocationLower(location), encodeSymmetryData());
   }
 
   private int encodeSymmetryData() {
     return (notHorizSym ? HORIZ_MASK : 0) | (notVertSym ? VERT_MASK : 0) | (notRotSym ? ROT_MASK : 0);
   }
 
-  private void decodeSymmetryData(int encoded) {
-    this.notHorizSym = (encoded & HORIZ_MASK) > 0;
-    this.notVertSym  = (encoded & VERT_MASK)  > 0;
-    this.notRotSym   = (encoded & ROT_MASK)   > 0;
-  }
-
 }
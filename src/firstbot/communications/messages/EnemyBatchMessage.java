@@ -0,0 +1,36 @@
+package firstbot.communications.messages;
+
+import battlecode.common.MapLocation;
+import firstbot.utils.Utils;
+
+/**
+ * A framed message with several enemy locations seen in one turn
+ *    one location per payload int (Utils.encodeLocationLower)
+ */
+public class EnemyBatchMessage extends FramedMessage {
+  public static final MessageType TYPE = MessageType.ENEMY_BATCH;
+  public static final int MAX_ENEMIES = 4;
+  public final MapLocation[] enemyLocations;
+  public final int numEnemies;
+
+  /**
+   * @param enemyLocations the enemies to report - copied, so the caller can reuse the array (the message may wait in the queue)
+   * @param numEnemies how many of enemyLocations to report
+   */
+  public EnemyBatchMessage(MapLocation[] enemyLocations, int numEnemies) {
+    super(TYPE);
+    this.enemyLocations = new MapLocation[numEnemies];
+    System.arraycopy(enemyLocations, 0, this.enemyLocations, 0, numEnemies);
+    this.numEnemies = numEnemies;
+  }
+
+  protected int payloadLength() {
+    return numEnemies;
+  }
+
+  protected void writePayload(int[] ints) {
+    for (int i = 0; i < numEnemies; i++) {
+      ints[i+1] = Utils.encodeLocationLower(enemyLocations[i]);
+    }
+  }
+}
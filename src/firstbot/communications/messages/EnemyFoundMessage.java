@@ -6,20 +6,21 @@ import firstbot.utils.Utils;
 
 public class EnemyFoundMessage extends Message {
     public static final MessageType TYPE = MessageType.ENEMY_FOUND;
-    public static final int MESSAGE_LENGTH = 0;
+    static final int[] FIELDS = {MessageSchema.LOCATION_BITS};
+    public static final int LOCATION_OFFSET = MessageSchema.PAYLOAD_START;
+    public static final int MESSAGE_LENGTH = (LOCATION_OFFSET + MessageSchema.LOCATION_BITS - 1) / MessageSchema.INT_BITS;
     public MapLocation enemyLocation;
 
     public EnemyFoundMessage(RobotInfo enemy) {
-        super(TYPE);
-        this.enemyLocation = enemy.location;
+        this(enemy.location);
     }
 
-    public EnemyFoundMessage(Header header, int headerInt) {
-        super(header);
-        this.enemyLocation = Utils.decodeLocationLower(headerInt);
+    public EnemyFoundMessage(MapLocation enemyLocation) {
+        super(TYPE);
+        this.enemyLocation = enemyLocation;
     }
 
     public int[] toEncodedInts() {
-        return new int[]{getHeaderInt() | Utils.encodeLocationLower(enemyLocation)};
+        return MessageSchema.encode(TYPE, FIELDS, Utils.encodeLocationLower(enemyLocation));
     }
 }
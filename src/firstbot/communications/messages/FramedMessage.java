@@ -0,0 +1,34 @@
+package firstbot.communications.messages;
+
+/**
+ * base for variable-length messages (see MessageSchema framing)
+ *    subclasses only provide their payload length + fill in the payload ints
+ */
+public abstract class FramedMessage extends Message {
+
+  public FramedMessage(MessageType type) {
+    super(type);
+  }
+
+  /**
+   * @return the number of payload ints (excluding the header)
+   */
+  protected abstract int payloadLength();
+
+  /**
+   * write the payload into the message ints
+   * @param ints the message ints - payload starts at index 1
+   */
+  protected abstract void writePayload(int[] ints);
+
+  public int[] toEncodedInts() {
+    int[] ints = MessageSchema.encodeFramed(header.type, payloadLength());
+    writePayload(ints);
+    return ints;
+  }
+
+  @Override
+  public int size() {
+    return payloadLength() + 1;
+  }
+}
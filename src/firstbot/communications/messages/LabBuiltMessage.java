@@ -8,7 +8,9 @@ import firstbot.utils.Utils;
  */
 public class LabBuiltMessage extends Message {
   public static final MessageType TYPE = MessageType.LAB_BUILT;
-  public static final int MESSAGE_LENGTH = 0;
+  static final int[] FIELDS = {MessageSchema.LOCATION_BITS};
+  public static final int LOCATION_OFFSET = MessageSchema.PAYLOAD_START;
+  public static final int MESSAGE_LENGTH = (LOCATION_OFFSET + MessageSchema.LOCATION_BITS - 1) / MessageSchema.INT_BITS;
   public MapLocation location;
 
   public LabBuiltMessage(MapLocation location) {
@@ -16,12 +18,7 @@ public class LabBuiltMessage extends Message {
     this.location = location;
   }
 
-  public LabBuiltMessage(Header header, int headerInt) {
-    super(header);
-    this.location = Utils.decodeLocationLower(headerInt);
-  }
-
   public int[] toEncodedInts() {
-    return new int[]{getHeaderInt() | Utils.encodeLocationLower(location)};
+    return MessageSchema.encode(TYPE, FIELDS, Utils.encodeLocationLower(location));
   }
 }
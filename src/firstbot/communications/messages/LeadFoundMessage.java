@@ -8,7 +8,9 @@ import firstbot.utils.Utils;
  */
 public class LeadFoundMessage extends Message {
   public static final MessageType TYPE = MessageType.LEAD_FOUND;
-  public static final int MESSAGE_LENGTH = 1;
+  static final int[] FIELDS = {MessageSchema.LOCATION_BITS};
+  public static final int LOCATION_OFFSET = MessageSchema.PAYLOAD_START;
+  public static final int MESSAGE_LENGTH = (LOCATION_OFFSET + MessageSchema.LOCATION_BITS - 1) / MessageSchema.INT_BITS;
   public MapLocation location;
 
   public LeadFoundMessage(MapLocation location) {
@@ -16,12 +18,7 @@ public class LeadFoundMessage extends Message {
     this.location = location;
   }
 
-  public LeadFoundMessage(Header header, int information) {
-    super(header);
-    this.location = Utils.decodeLocation(information);
-  }
-
   public int[] toEncodedInts() {
-    return new int[]{getHeaderInt(), Utils.encodeLocation(location)};
+    return MessageSchema.encode(TYPE, FIELDS, Utils.encodeLocationLower(location));
   }
 }
@@ -11,29 +11,38 @@ public abstract class Message {
 
   /**
    * enum for the different message types that will be sent
-   * MAX OF 8 types
+   * fixed-size types are sent compactly and need ordinal < MessageSchema.FRAMED_ESCAPE (15)
+   * FRAMED types carry their own length and can use any ordinal < 64 (see MessageSchema)
    */
   public enum MessageType {
-    ARCHON_HELLO(ArchonHelloMessage.MESSAGE_LENGTH),
-    LEAD_FOUND(LeadFoundMessage.MESSAGE_LENGTH),
-    LEAD_REQUEST(LeadRequestMessage.MESSAGE_LENGTH),
-    LAB_BUILT(LabBuiltMessage.MESSAGE_LENGTH),
-    END_FIGHT(EndFightMessage.MESSAGE_LENGTH),
-    SAVE_ME(SaveMeMessage.MESSAGE_LENGTH),
-    ARCHON_SAVED(ArchonSavedMessage.MESSAGE_LENGTH),
-    RUBBLE_AT_LOCATION(RubbleAtLocationMessage.MESSAGE_LENGTH),
-    JOIN_THE_FIGHT(JoinTheFightMessage.MESSAGE_LENGTH),
-    ENEMY_FOUND(EnemyFoundMessage.MESSAGE_LENGTH);
+    //                                              priority, maxQueuedRounds
+    ARCHON_HELLO(ArchonHelloMessage.MESSAGE_LENGTH,             0, 5),
+    LEAD_FOUND(LeadFoundMessage.MESSAGE_LENGTH,                 2, 3),
+    LAB_BUILT(LabBuiltMessage.MESSAGE_LENGTH,                   1, 20),
+    END_FIGHT(EndFightMessage.MESSAGE_LENGTH,                   1, 1),
+    SAVE_ME(SaveMeMessage.MESSAGE_LENGTH,                       0, 0), // re-raised every turn while under attack
+    ARCHON_SAVED(ArchonSavedMessage.MESSAGE_LENGTH,             0, 5),
+    RUBBLE_AT_LOCATION(RubbleAtLocationMessage.MESSAGE_LENGTH,  3, 10),
+    JOIN_THE_FIGHT(JoinTheFightMessage.MESSAGE_LENGTH,          1, 1),
+    ENEMY_FOUND(EnemyFoundMessage.MESSAGE_LENGTH,               1, 0), // re-sensed every turn
+    ENEMY_BATCH(MessageSchema.FRAMED_LENGTH,                    1, 0);
+
+    public static final int NUM_PRIORITIES = 4;
 
     public final int standardSize;
     public final int ordinal;
+    /** sender-side only (not written to the shared array) -- 0 is sent first */
+    public final int priority;
+    /** how many rounds after being enqueued the message may still be sent before it is dropped */
+    public final int maxQueuedRounds;
 
     public static final MessageType[] values = MessageType.values();
-    public boolean shouldReschedule;
 
-    MessageType(int standardSize) {
+    MessageType(int standardSize, int priority, int maxQueuedRounds) {
       this.standardSize = standardSize;
       this.ordinal = ordinal();
+      this.priority = priority;
+      this.maxQueuedRounds = maxQueuedRounds;
     }
   }
 
@@ -43,15 +52,16 @@ public abstract class Message {
   public static class Header {
     private static final int TOTAL_BITS_PER_INT = 16;
 
+    // priority only orders the sender's own queue (MessageType.priority) so it takes no header bits
     private static final int PRIORITY_SIZE = 0;
     private static final int PRIORITY_START = TOTAL_BITS_PER_INT - PRIORITY_SIZE;
     private static final int PRIORITY_MAX = (1 << PRIORITY_SIZE) - 1;
 //    public final int priority; // 0-3             -- 2 bits [15,14]
 
-    private static final int TYPE_SIZE = 4;
+    private static final int TYPE_SIZE = MessageSchema.TYPE_BITS;
     private static final int TYPE_START = PRIORITY_START - TYPE_SIZE;
     private static final int TYPE_MAX = (1 << TYPE_SIZE) - 1;
-    public final MessageType type; // 0-7         -- 3 bits [13,11]
+    public final MessageType type; // 0-14 (15 = framed) -- 4 bits [15,12]
 
     private static final int NUM_INTS_SIZE = 0;
     private static final int NUM_INTS_START = TYPE_START - NUM_INTS_SIZE;
@@ -69,10 +79,28 @@ public abstract class Message {
 //      this.numInformationInts = numInformationInts;
     }
 
+    /**
+     * decode only the message type from a raw header int (no allocation)
+     * @param readInt the header int read from the shared array
+     * @return the type of the message
+     */
+    public static MessageType typeOf(int readInt) {
+      int type = (readInt >>> TYPE_START) & TYPE_MAX;
+      return MessageType.values[type == MessageSchema.FRAMED_ESCAPE ? MessageSchema.framedTypeOf(readInt) : type];
+    }
+
+    /**
+     * @param readInt the header int read from the shared array
+     * @return the total size of the message (in ints) -- works for framed messages too
+     */
+    public static int sizeOf(int readInt) {
+      return MessageSchema.isFramed(readInt)
+          ? MessageSchema.framedLengthOf(readInt) + 1
+          : MessageType.values[(readInt >>> TYPE_START) & TYPE_MAX].standardSize + 1;
+    }
+
     public static Header fromReadInt(int readInt) {
-      return new Header(
-          MessageType.values[(readInt >>> TYPE_START) & TYPE_MAX]
-          );
+      return new Header(typeOf(readInt));
     }
 
     public int toInt() {
@@ -114,6 +142,12 @@ public abstract class Message {
    */
   public WriteInfo writeInfo;
 
+  public static final int NOT_QUEUED = -1;
+  /**
+   * last round this message may be sent on (NOT_QUEUED if not in the outgoing queue)
+   */
+  public int deadlineRound;
+
   /**
    * create a message with the given header
    * @param header the message meta-information
@@ -121,6 +155,7 @@ public abstract class Message {
   public Message(Header header) {
     this.header = header;
     this.writeInfo = null;
+    this.deadlineRound = NOT_QUEUED;
   }
 
   /**
@@ -132,34 +167,6 @@ public abstract class Message {
   }
 
 
-  public static Message fromHeaderAndInfo0(Header header, int headerInt) {
-    switch (header.type) {
-      case ENEMY_FOUND: return new EnemyFoundMessage(header, headerInt);
-      case LAB_BUILT: return new LabBuiltMessage(header, headerInt);
-      default: throw new RuntimeException("Provided message type has length != 0 : " + header.type);
-    }
-  }
-
-  public static Message fromHeaderAndInfo1(Header header, int information) {
-    switch (header.type) {
-      case ARCHON_HELLO: return new ArchonHelloMessage(header, information);
-      case LEAD_FOUND: return new LeadFoundMessage(header, information);
-      case END_FIGHT: return new EndFightMessage(header, information);
-      case SAVE_ME: return new SaveMeMessage(header, information);
-      case ARCHON_SAVED: return new ArchonSavedMessage(header, information);
-      case JOIN_THE_FIGHT: return new JoinTheFightMessage(header, information);
-      default: throw new RuntimeException("Provided message type has length != 1 : " + header.type);
-    }
-  }
-
-  public static Message fromHeaderAndInfo2(Header header, int information, int information2) {
-    switch (header.type) {
-      case LEAD_REQUEST: return new LeadRequestMessage(header, information, information2);
-      case RUBBLE_AT_LOCATION: return new RubbleAtLocationMessage(header, information, information2);
-      default: throw new RuntimeException("Provided message type has length != 2 : " + header.type);
-    }
-  }
-
   public Message setWriteInfo(WriteInfo writeInfo) {
     this.writeInfo = writeInfo;
     return this;
@@ -0,0 +1,181 @@
+package firstbot.communications.messages;
+
+/**
+ * declarative bit layout shared by all messages
+ *    a message is a bit stream packed msb-first into 16-bit shared array ints: [type | field0 | field1 | ...]
+ *    each message class declares its field widths (FIELDS) and chains its field offsets + MESSAGE_LENGTH from them
+ *    as compile-time constants, so nothing is computed at runtime (validate() checks that the two still agree)
+ *    fields may straddle int boundaries - payloads fill the spare header bits before spilling into extra ints
+ *
+ * variable-length (framed) messages use the all-ones type as an escape:
+ *    header int: [FRAMED_ESCAPE(4) | extended type(6) | payload length in ints(6)], followed by the payload ints
+ *    any MessageType can be framed, so the type space is 64 even though compact types only get 4 bits
+ */
+public class MessageSchema {
+  public static final int INT_BITS = 16;
+  public static final int INT_MASK = (1 << INT_BITS) - 1;
+
+  // ================ FIELD WIDTHS ================
+  public static final int TYPE_BITS = 4;
+  public static final int LOCATION_BITS = 12;  // x(6) | y(6) -- Utils.encodeLocationLower
+  public static final int RUBBLE_BITS = 7;     // 0-100
+  public static final int FLAG_BITS = 1;
+  public static final int SYMMETRY_BITS = 3;
+
+  /** bit offset of the first field of any message (right after the type) */
+  public static final int PAYLOAD_START = TYPE_BITS;
+
+  // ================ FRAMING ================
+  /** compact type value that marks a framed message (so compact types must have ordinal < FRAMED_ESCAPE) */
+  public static final int FRAMED_ESCAPE = (1 << TYPE_BITS) - 1;
+  public static final int EXTENDED_TYPE_BITS = 6;
+  public static final int FRAME_LENGTH_BITS = 6;
+  public static final int MAX_FRAME_LENGTH = (1 << FRAME_LENGTH_BITS) - 1;
+  /** MESSAGE_LENGTH (standardSize) of framed message types */
+  public static final int FRAMED_LENGTH = -1;
+  private static final int EXTENDED_TYPE_SHIFT = INT_BITS - TYPE_BITS - EXTENDED_TYPE_BITS;
+  private static final int EXTENDED_TYPE_MASK = (1 << EXTENDED_TYPE_BITS) - 1;
+
+  /*
+   * MESSAGE_LENGTH (ints after the header int) for a message whose last field ends at bit END is:
+   *    (END - 1) / INT_BITS
+   */
+
+  /**
+   * check that every message's hand-chained *_OFFSET constants and MESSAGE_LENGTH agree with its FIELDS
+   *    (the offsets have to stay compile-time constants, so they can't be computed from the array directly)
+   *    only needs to run once per game -- called from SharedArrayLayout.validate
+   */
+  public static void validate() {
+    checkLayout(Message.MessageType.ARCHON_HELLO, ArchonHelloMessage.FIELDS,
+        ArchonHelloMessage.LOCATION_OFFSET, ArchonHelloMessage.SYMMETRY_OFFSET);
+    checkLayout(Message.MessageType.LEAD_FOUND, LeadFoundMessage.FIELDS, LeadFoundMessage.LOCATION_OFFSET);
+    checkLayout(Message.MessageType.LAB_BUILT, LabBuiltMessage.FIELDS, LabBuiltMessage.LOCATION_OFFSET);
+    checkLayout(Message.MessageType.END_FIGHT, EndFightMessage.FIELDS, EndFightMessage.LOCATION_OFFSET);
+    checkLayout(Message.MessageType.SAVE_ME, SaveMeMessage.FIELDS, SaveMeMessage.LOCATION_OFFSET);
+    checkLayout(Message.MessageType.ARCHON_SAVED, ArchonSavedMessage.FIELDS, ArchonSavedMessage.LOCATION_OFFSET);
+    checkLayout(Message.MessageType.RUBBLE_AT_LOCATION, RubbleAtLocationMessage.FIELDS,
+        RubbleAtLocationMessage.LOCATION_OFFSET, RubbleAtLocationMessage.RUBBLE_OFFSET);
+    checkLayout(Message.MessageType.JOIN_THE_FIGHT, JoinTheFightMessage.FIELDS, JoinTheFightMessage.LOCATION_OFFSET);
+    checkLayout(Message.MessageType.ENEMY_FOUND, EnemyFoundMessage.FIELDS, EnemyFoundMessage.LOCATION_OFFSET);
+  }
+
+  /**
+   * @param type the message type (provides the declared MESSAGE_LENGTH)
+   * @param fieldWidths the declared FIELDS of the message
+   * @param offsets the declared *_OFFSET constants (same order as fieldWidths)
+   */
+  static void checkLayout(Message.MessageType type, int[] fieldWidths, int... offsets) {
+    if (offsets.length != fieldWidths.length) {
+      throw new RuntimeException("Message schema mismatch! - " + type + " has " + fieldWidths.length + " fields but " + offsets.length + " offsets");
+    }
+    int offset = PAYLOAD_START;
+    for (int i = 0; i < fieldWidths.length; i++) {
+      if (offsets[i] != offset) {
+        throw new RuntimeException("Message schema mismatch! - " + type + " field " + i + " at bit " + offsets[i] + " should be at " + offset);
+      }
+      offset += fieldWidths[i];
+    }
+    if (type.standardSize != (offset - 1) / INT_BITS) {
+      throw new RuntimeException("Message schema mismatch! - " + type + " MESSAGE_LENGTH " + type.standardSize + " should be " + (offset - 1) / INT_BITS);
+    }
+  }
+
+  /**
+   * pack the type + field values of a message as described by its schema
+   * @param type the message type (provides the ordinal + total length)
+   * @param fieldWidths the declared widths of the message fields
+   * @param values the field values (same order as fieldWidths)
+   * @return the encoded ints - length == type.standardSize + 1
+   */
+  public static int[] encode(Message.MessageType type, int[] fieldWidths, int... values) {
+    int[] ints = new int[type.standardSize + 1];
+    int offset = put(ints, 0, TYPE_BITS, type.ordinal);
+    for (int i = 0; i < fieldWidths.length; i++) {
+      offset = put(ints, offset, fieldWidths[i], values[i]);
+    }
+    return ints;
+  }
+
+  /**
+   * @param headerInt the first int of a message
+   * @return true if the message is framed (variable-length)
+   */
+  public static boolean isFramed(int headerInt) {
+    return headerInt >>> (INT_BITS - TYPE_BITS) == FRAMED_ESCAPE;
+  }
+
+  /**
+   * @param headerInt the first int of a framed message
+   * @return the ordinal of the message type
+   */
+  public static int framedTypeOf(int headerInt) {
+    return (headerInt >>> EXTENDED_TYPE_SHIFT) & EXTENDED_TYPE_MASK;
+  }
+
+  /**
+   * @param headerInt the first int of a framed message
+   * @return the number of payload ints after the header
+   */
+  public static int framedLengthOf(int headerInt) {
+    return headerInt & MAX_FRAME_LENGTH;
+  }
+
+  /**
+   * allocate the ints for a framed message and fill in its header
+   * @param type the message type
+   * @param payloadLength the number of payload ints (at most MAX_FRAME_LENGTH)
+   * @return the message ints with only the header set - length == payloadLength + 1
+   */
+  public static int[] encodeFramed(Message.MessageType type, int payloadLength) {
+    if (payloadLength > MAX_FRAME_LENGTH) throw new RuntimeException("Framed message too long! - " + type + ": " + payloadLength);
+    int[] ints = new int[payloadLength + 1];
+    ints[0] = FRAMED_ESCAPE << (INT_BITS - TYPE_BITS) | type.ordinal << EXTENDED_TYPE_SHIFT | payloadLength;
+    return ints;
+  }
+
+  /**
+   * write a single field into the int array
+   * @return the offset right after the field
+   */
+  private static int put(int[] ints, int offset, int width, int value) {
+    value &= (1 << width) - 1;
+    int index = offset / INT_BITS;
+    int bitsLeftInInt = INT_BITS - offset % INT_BITS;
+    if (width <= bitsLeftInInt) {
+      ints[index] |= value << (bitsLeftInInt - width);
+    } else { // straddles into the next int
+      int spill = width - bitsLeftInInt;
+      ints[index] |= value >>> spill;
+      ints[index + 1] |= (value << (INT_BITS - spill)) & INT_MASK;
+    }
+    return offset + width;
+  }
+
+  /**
+   * check if a field is completely contained in the int it starts in
+   * @param offset the bit offset of the field within the message
+   * @param width the field width
+   * @return true if no second int is needed to extract the field
+   */
+  public static boolean fitsInOneInt(int offset, int width) {
+    return offset % INT_BITS + width <= INT_BITS;
+  }
+
+  /**
+   * extract a single field of a message
+   * @param first the message int that the field starts in
+   * @param second the int after that (only used if the field straddles)
+   * @param offset the bit offset of the field within the message
+   * @param width the field width
+   * @return the field value
+   */
+  public static int extract(int first, int second, int offset, int width) {
+    int bitsLeftInInt = INT_BITS - offset % INT_BITS;
+    if (width <= bitsLeftInInt) {
+      return (first >>> (bitsLeftInInt - width)) & ((1 << width) - 1);
+    }
+    int spill = width - bitsLeftInInt;
+    return ((first & ((1 << bitsLeftInInt) - 1)) << spill) | (second >>> (INT_BITS - spill));
+  }
+}
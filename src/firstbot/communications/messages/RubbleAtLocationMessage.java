@@ -9,7 +9,10 @@ import firstbot.utils.Utils;
  */
 public class RubbleAtLocationMessage extends Message {
   public static final MessageType TYPE = MessageType.RUBBLE_AT_LOCATION;
-  public static final int MESSAGE_LENGTH = 2;
+  static final int[] FIELDS = {MessageSchema.LOCATION_BITS, MessageSchema.RUBBLE_BITS};
+  public static final int LOCATION_OFFSET = MessageSchema.PAYLOAD_START;
+  public static final int RUBBLE_OFFSET = LOCATION_OFFSET + MessageSchema.LOCATION_BITS;
+  public static final int MESSAGE_LENGTH = (RUBBLE_OFFSET + MessageSchema.RUBBLE_BITS - 1) / MessageSchema.INT_BITS;
 
   public MapLocation location;
   public int rubble;
@@ -20,22 +23,7 @@ public class RubbleAtLocationMessage extends Message {
     this.rubble = rubble;
   }
 
-  public RubbleAtLocationMessage(Header header, int information, int information2) {
-    super(header);
-    processInformation(information, information2);
-  }
-
-  /**
-   * read the information ints into the data of the message
-   * @param information the ints
-   */
-  private void processInformation(int information, int information2) {
-    location = Utils.decodeLocation(information);
-    rubble = information2;
-  }
-
-
   public int[] toEncodedInts() {
-    return new int[]{getHeaderInt(), Utils.encodeLocation(location), rubble};
+    return MessageSchema.encode(TYPE, FIELDS, Utils.encodeLocationLower(location), rubble);
   }
 }
@@ -0,0 +1,115 @@
+package firstbot.containers;
+
+import battlecode.common.MapLocation;
+
+/**
+ * set of map locations as one long per row (bit x of rows[y] == (x,y)) -- fits any map up to 64 wide
+ *    clearAll() just bumps a generation counter, rows stamped with an older generation read as empty
+ *    so nothing is allocated or looped over to reset it
+ *    word-level ops (union/intersect/shift) cost one step per row
+ */
+public class Bitboard {
+    public static final int MAX_SIZE = 64;
+
+    private final long[] rows;
+    private final int[] rowGeneration;
+    private int generation = 1;
+    private final int height;
+    private final long widthMask;
+
+    /**
+     * @param width the map width (at most MAX_SIZE)
+     * @param height the map height
+     */
+    public Bitboard(int width, int height) {
+        if (width > MAX_SIZE) throw new RuntimeException("Bitboard too wide! - " + width);
+        this.height = height;
+        this.widthMask = width == MAX_SIZE ? -1L : (1L << width) - 1;
+        rows = new long[height];
+        rowGeneration = new int[height];
+    }
+
+    /**
+     * @param y the row
+     * @return the bits of the row (bit x set == (x,y) in the set)
+     */
+    public long row(int y) {
+        return rowGeneration[y] == generation ? rows[y] : 0;
+    }
+
+    private void setRow(int y, long bits) {
+        rows[y] = bits;
+        rowGeneration[y] = generation;
+    }
+
+    public void set(int x, int y) {
+        if (rowGeneration[y] != generation) {
+            rows[y] = 1L << x;
+            rowGeneration[y] = generation;
+        } else {
+            rows[y] |= 1L << x;
+        }
+    }
+
+    public void set(MapLocation loc) {
+        set(loc.x, loc.y);
+    }
+
+    public boolean test(int x, int y) {
+        return rowGeneration[y] == generation && (rows[y] & (1L << x)) != 0;
+    }
+
+    public boolean test(MapLocation loc) {
+        return test(loc.x, loc.y);
+    }
+
+    public void unset(int x, int y) {
+        if (rowGeneration[y] == generation) rows[y] &= ~(1L << x);
+    }
+
+    public void clearAll() {
+        generation++;
+    }
+
+    /**
+     * this |= other
+     */
+    public void union(Bitboard other) {
+        for (int y = height; --y >= 0; ) {
+            long bits = other.row(y);
+            if (bits != 0) setRow(y, row(y) | bits);
+        }
+    }
+
+    /**
+     * this &= other
+     */
+    public void intersect(Bitboard other) {
+        for (int y = height; --y >= 0; ) {
+            if (rowGeneration[y] == generation) rows[y] &= other.row(y);
+        }
+    }
+
+    /**
+     * move every location by (dx, dy) -- locations pushed off the map are dropped
+     * @param dx x offset (|dx| < MAX_SIZE)
+     * @param dy y offset
+     */
+    public void shift(int dx, int dy) {
+        if (dy >= 0) { // fill from the top so each source row is read before it is overwritten
+            for (int y = height; --y >= 0; ) {
+                int src = y - dy;
+                setRow(y, src >= 0 ? shiftBits(row(src), dx) : 0);
+            }
+        } else {
+            for (int y = 0; y < height; y++) {
+                int src = y - dy;
+                setRow(y, src < height ? shiftBits(row(src), dx) : 0);
+            }
+        }
+    }
+
+    private long shiftBits(long bits, int dx) {
+        return dx >= 0 ? (bits << dx) & widthMask : bits >>> -dx;
+    }
+}
@@ -0,0 +1,101 @@
+package firstbot.containers;
+
+/**
+ * ring buffer of ints that can be pushed/popped at both ends (power-of-two capacity, index by masking)
+ *    meant for encoded locations / message ints so flood fills + frontiers don't allocate
+ *    a push onto a full deque grows it (one compare per push) -- size it for the worst case so that never happens
+ *    emptiness is only checked when DEBUG_CHECKS is on -- popping an empty deque returns garbage otherwise
+ */
+public class IntDeque {
+  public static final boolean DEBUG_CHECKS = false;
+
+  private int[] array;
+  private int mask;
+  private int front;
+  private int size;
+  private int iter;
+
+  /**
+   * @param capacity the most ints that will ever be stored at once (rounded up to a power of two)
+   */
+  public IntDeque(int capacity) {
+    int length = 2;
+    while (length < capacity) length <<= 1;
+    array = new int[length];
+    mask = length - 1;
+  }
+
+  public void pushBack(int item) {
+    if (size == array.length) grow();
+    array[(front + size++) & mask] = item;
+  }
+
+  public void pushFront(int item) {
+    if (size == array.length) grow();
+    front = (front - 1) & mask;
+    array[front] = item;
+    size++;
+  }
+
+  public int popFront() {
+    if (DEBUG_CHECKS && size == 0) throw new RuntimeException("popFront() on empty IntDeque");
+    int item = array[front];
+    front = (front + 1) & mask;
+    size--;
+    return item;
+  }
+
+  public int popBack() {
+    if (DEBUG_CHECKS && size == 0) throw new RuntimeException("popBack() on empty IntDeque");
+    return array[(front + --size) & mask];
+  }
+
+  public int getFront() {
+    return array[front];
+  }
+
+  public int getBack() {
+    return array[(front + size - 1) & mask];
+  }
+
+  /**
+   * @param i index from the front (0 == front)
+   */
+  public int get(int i) {
+    return array[(front + i) & mask];
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public void clear() {
+    front = 0;
+    size = 0;
+  }
+
+  public int startIter() {
+    iter = front;
+    return size;
+  }
+
+  public int next() {
+    int item = array[iter];
+    iter = (iter + 1) & mask;
+    return item;
+  }
+
+  private void grow() {
+    int[] bigger = new int[array.length << 1];
+    for (int i = 0; i < size; i++) {
+      bigger[i] = array[(front + i) & mask];
+    }
+    array = bigger;
+    mask = bigger.length - 1;
+    front = 0;
+  }
+}
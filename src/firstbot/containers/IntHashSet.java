@@ -0,0 +1,119 @@
+package firstbot.containers;
+
+/**
+ * open-addressing set of ints (linear probing, power-of-two table, backward-shift removal)
+ *    no boxing and no allocation after construction (unless it has to grow)
+ *    keys are stored xor'd with NO_KEY so a fresh (all 0) table is empty -- NO_KEY itself can't be stored
+ */
+public class IntHashSet {
+    public static final int NO_KEY = Integer.MIN_VALUE;
+
+    int[] keys;
+    int mask;
+    public int size = 0;
+    int iterIndex = 0;
+
+    /**
+     * @param capacity the number of keys expected (the table is sized to stay at most half full)
+     */
+    public IntHashSet(int capacity) {
+        int tableSize = 2;
+        while (tableSize < capacity * 2) tableSize <<= 1;
+        keys = new int[tableSize];
+        mask = tableSize - 1;
+    }
+
+    static int slotOf(int key, int mask) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    public boolean add(int key) {
+        int stored = key ^ NO_KEY;
+        int i = slotOf(key, mask);
+        int k;
+        while ((k = keys[i]) != 0) {
+            if (k == stored) return false;
+            i = (i + 1) & mask;
+        }
+        keys[i] = stored;
+        if (++size > (mask >>> 1) + (mask >>> 2)) grow();
+        return true;
+    }
+
+    public boolean contains(int key) {
+        int stored = key ^ NO_KEY;
+        int i = slotOf(key, mask);
+        int k;
+        while ((k = keys[i]) != 0) {
+            if (k == stored) return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    public boolean remove(int key) {
+        int stored = key ^ NO_KEY;
+        int i = slotOf(key, mask);
+        int k;
+        while ((k = keys[i]) != 0) {
+            if (k == stored) {
+                shiftBack(i);
+                size--;
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * close the gap at a removed slot by pulling back later keys of the same probe run
+     */
+    private void shiftBack(int gap) {
+        int i = gap;
+        int k;
+        while ((k = keys[i = (i + 1) & mask]) != 0) {
+            int home = slotOf(k ^ NO_KEY, mask);
+            if (((i - home) & mask) >= ((i - gap) & mask)) { // home is at or before the gap
+                keys[gap] = k;
+                gap = i;
+            }
+        }
+        keys[gap] = 0;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        keys = new int[oldKeys.length << 1];
+        mask = keys.length - 1;
+        for (int j = oldKeys.length; --j >= 0; ) {
+            int k = oldKeys[j];
+            if (k == 0) continue;
+            int i = slotOf(k ^ NO_KEY, mask);
+            while (keys[i] != 0) i = (i + 1) & mask;
+            keys[i] = k;
+        }
+    }
+
+    public void clear() {
+        if (size == 0) return;
+        for (int i = keys.length; --i >= 0; ) {
+            keys[i] = 0;
+        }
+        size = 0;
+    }
+
+    public void resetIterator() {
+        iterIndex = keys.length;
+    }
+
+    // returns NO_KEY if no elements exist or iterator exhausted
+    public int next() {
+        while (--iterIndex >= 0) {
+            int k = keys[iterIndex];
+            if (k != 0) return k ^ NO_KEY;
+        }
+        return NO_KEY;
+    }
+}
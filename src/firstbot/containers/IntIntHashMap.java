@@ -0,0 +1,155 @@
+package firstbot.containers;
+
+/**
+ * open-addressing int -> int map (same table scheme as IntHashSet, values in a parallel array)
+ *    no boxing and no allocation after construction (unless it has to grow)
+ *    NO_KEY can't be used as a key
+ */
+public class IntIntHashMap {
+    public static final int NO_KEY = IntHashSet.NO_KEY;
+
+    int[] keys;
+    int[] vals;
+    int mask;
+    public int size = 0;
+    int iterIndex = 0;
+
+    /**
+     * @param capacity the number of keys expected (the table is sized to stay at most half full)
+     */
+    public IntIntHashMap(int capacity) {
+        int tableSize = 2;
+        while (tableSize < capacity * 2) tableSize <<= 1;
+        keys = new int[tableSize];
+        vals = new int[tableSize];
+        mask = tableSize - 1;
+    }
+
+    /**
+     * @return the slot holding key, or the empty slot where it would go (as ~slot)
+     */
+    private int find(int key) {
+        int stored = key ^ NO_KEY;
+        int i = IntHashSet.slotOf(key, mask);
+        int k;
+        while ((k = keys[i]) != 0) {
+            if (k == stored) return i;
+            i = (i + 1) & mask;
+        }
+        return ~i;
+    }
+
+    private void insertAt(int emptySlot, int key, int val) {
+        keys[emptySlot] = key ^ NO_KEY;
+        vals[emptySlot] = val;
+        if (++size > (mask >>> 1) + (mask >>> 2)) grow();
+    }
+
+    // only adds if not already contained (does not overwrite)
+    public boolean put(int key, int val) {
+        int i = find(key);
+        if (i >= 0) return false;
+        insertAt(~i, key, val);
+        return true;
+    }
+
+    // insert or overwrite
+    public void set(int key, int val) {
+        int i = find(key);
+        if (i >= 0) {
+            vals[i] = val;
+        } else {
+            insertAt(~i, key, val);
+        }
+    }
+
+    // ASSUMING ALREADY CONTAINED (does nothing otherwise)
+    public void setAlreadyContainedValue(int key, int val) {
+        int i = find(key);
+        if (i >= 0) vals[i] = val;
+    }
+
+    // returns 0 if not contained
+    public int get(int key) {
+        int i = find(key);
+        return i >= 0 ? vals[i] : 0;
+    }
+
+    public int getOrDefault(int key, int defaultVal) {
+        int i = find(key);
+        return i >= 0 ? vals[i] : defaultVal;
+    }
+
+    public boolean contains(int key) {
+        return find(key) >= 0;
+    }
+
+    // adds valToAdd to the value (a missing key counts as 0)
+    public void increment(int key, int valToAdd) {
+        int i = find(key);
+        if (i >= 0) {
+            vals[i] += valToAdd;
+        } else {
+            insertAt(~i, key, valToAdd);
+        }
+    }
+
+    public boolean remove(int key) {
+        int gap = find(key);
+        if (gap < 0) return false;
+        int i = gap;
+        int k;
+        while ((k = keys[i = (i + 1) & mask]) != 0) {
+            int home = IntHashSet.slotOf(k ^ NO_KEY, mask);
+            if (((i - home) & mask) >= ((i - gap) & mask)) { // home is at or before the gap
+                keys[gap] = k;
+                vals[gap] = vals[i];
+                gap = i;
+            }
+        }
+        keys[gap] = 0;
+        size--;
+        return true;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldVals = vals;
+        keys = new int[oldKeys.length << 1];
+        vals = new int[keys.length];
+        mask = keys.length - 1;
+        for (int j = oldKeys.length; --j >= 0; ) {
+            int k = oldKeys[j];
+            if (k == 0) continue;
+            int i = IntHashSet.slotOf(k ^ NO_KEY, mask);
+            while (keys[i] != 0) i = (i + 1) & mask;
+            keys[i] = k;
+            vals[i] = oldVals[j];
+        }
+    }
+
+    public void clear() {
+        if (size == 0) return;
+        for (int i = keys.length; --i >= 0; ) {
+            keys[i] = 0;
+        }
+        size = 0;
+    }
+
+    public void resetIterator() {
+        iterIndex = keys.length;
+    }
+
+    // returns NO_KEY if no elements exist or iterator exhausted -- value() gives the value of the returned key
+    public int next() {
+        while (--iterIndex >= 0) {
+            int k = keys[iterIndex];
+            if (k != 0) return k ^ NO_KEY;
+        }
+        return NO_KEY;
+    }
+
+    public int value() {
+        return vals[iterIndex];
+    }
+}
@@ -4,12 +4,11 @@ import battlecode.common.Clock;
 import battlecode.common.Direction;
 import battlecode.common.MapLocation;
 import battlecode.common.RobotController;
+import firstbot.utils.Budget;
 import firstbot.utils.Cache;
 
 public abstract class BFS {
 
-  final int BYTECODE_REMAINING = 1000;
-  final int BYTECODE_REMAINING_NON_SLAND = 2500;
   //static final int BYTECODE_BFS = 5000;
   final int GREEDY_TURNS = 4;
 
@@ -62,10 +61,10 @@ public abstract class BFS {
 
     update(target);
 
-    if (!greedy && turnsGreedy <= 0){
+    if (!greedy && turnsGreedy <= 0 && Budget.canAfford(Budget.PATHFINDING)){
 
       //System.err.println("Using bfs");
-      Direction dir = getBestDir(target);
+      Direction dir = measuredBestDir(target);
       if (dir != null && !mapTracker.check(rc.getLocation().add(dir))){
         exploreMove(dir);
         return;
@@ -73,7 +72,7 @@ public abstract class BFS {
     }
 
 //    if (rc.getType() == RobotType.SLANDERER) {
-    if (Clock.getBytecodesLeft() >= BYTECODE_REMAINING) {
+    if (Budget.available(Budget.PATHFINDING) >= Budget.GREEDY_PATHFINDING_COST) {
       //System.err.println("Using greedy");
       //System.out.println("Before pathfinding " + Clock.getBytecodeNum());
       path.move(target);
@@ -98,17 +97,17 @@ public abstract class BFS {
 
     update(target);
 
-    if (!greedy && turnsGreedy <= 0){
+    if (!greedy && turnsGreedy <= 0 && Budget.canAfford(Budget.PATHFINDING)){
 
       //System.err.println("Using bfs");
-      Direction dir = getBestDir(target);
+      Direction dir = measuredBestDir(target);
       if (dir != null && !mapTracker.check(Cache.PerTurn.CURRENT_LOCATION.add(dir))){
         return exploreMoveDirOnly(dir);
       } else activateGreedy();
     }
 
 //    if (rc.getType() == RobotType.SLANDERER) {
-    if (Clock.getBytecodesLeft() >= BYTECODE_REMAINING) {
+    if (Budget.available(Budget.PATHFINDING) >= Budget.GREEDY_PATHFINDING_COST) {
       //System.err.println("Using greedy");
       //System.out.println("Before pathfinding " + Clock.getBytecodeNum());
       Direction dir = path.moveDirOnly(target);
@@ -150,6 +149,16 @@ public abstract class BFS {
   }
 //  }
 
+  /**
+   * run one full BFS pass and feed its cost back into the PATHFINDING budget
+   */
+  private Direction measuredBestDir(MapLocation target) {
+    int start = Clock.getBytecodeNum();
+    Direction dir = getBestDir(target);
+    Budget.recordCost(Budget.PATHFINDING, Clock.getBytecodeNum() - start);
+    return dir;
+  }
+
   abstract Direction getBestDir(MapLocation target);
 
 
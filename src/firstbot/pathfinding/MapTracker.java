@@ -1,32 +1,27 @@
 package firstbot.pathfinding;
 
 import battlecode.common.MapLocation;
+import firstbot.containers.Bitboard;
+import firstbot.utils.Cache;
 
 public class MapTracker {
 
-  final static int MAX_MAP_SIZE = 64;
-  final static int INT_BITS = 32;
-  final static int ARRAY_SIZE = 128;
-
-  static int[] visitedLocations = new int[ARRAY_SIZE];
+  final Bitboard visitedLocations;
 
 
   MapTracker(){
+    visitedLocations = new Bitboard(Cache.Permanent.MAP_WIDTH, Cache.Permanent.MAP_HEIGHT);
   }
 
   void reset(){
-    visitedLocations = new int[ARRAY_SIZE];
+    visitedLocations.clearAll();
   }
 
   void add(MapLocation loc){
-    int arrayPos = (loc.x%MAX_MAP_SIZE)*(1 + (loc.y%MAX_MAP_SIZE)/INT_BITS);
-    int bitPos = loc.y%INT_BITS;
-    visitedLocations[arrayPos] |= (1 << bitPos);
+    visitedLocations.set(loc);
   }
 
   boolean check(MapLocation loc){
-    int arrayPos = (loc.x%MAX_MAP_SIZE)*(1 + (loc.y%MAX_MAP_SIZE)/INT_BITS);
-    int bitPos = loc.y%INT_BITS;
-    return ((visitedLocations[arrayPos] & (1 << bitPos)) > 0);
+    return visitedLocations.test(loc);
   }
-}
\ No newline at end of file
+}
@@ -2,14 +2,13 @@ package firstbot.pathfinding;
 
 
 import battlecode.common.Direction;
-import battlecode.common.GameConstants;
 import battlecode.common.MapLocation;
 import battlecode.common.RobotController;
+import firstbot.containers.Bitboard;
 import firstbot.utils.Cache;
+import firstbot.utils.TerrainMemory;
 import firstbot.utils.Utils;
 
-import java.util.HashSet;
-
 public class Pathfinding {
 
   RobotController rc;
@@ -47,7 +46,7 @@ public class Pathfinding {
       if (loc.distanceSquaredTo(target) == 0) return 0;
       int d = Utils.maxSingleAxisDist(target, loc);
 //      double p = rc.sensePassability(loc);
-      return 10+rc.senseRubble(loc) + (d - 1)*avgImpassabilityInv;
+      return 10+TerrainMemory.rubbleAt(loc) + (d - 1)*avgImpassabilityInv;
     } catch (Throwable e){
       e.printStackTrace();
     }
@@ -83,16 +82,16 @@ public class Pathfinding {
       MapLocation myLoc = Cache.PerTurn.CURRENT_LOCATION;
       Direction bestDir = null;
       double bestEstimation = 0;
-      double firstStep = 10+rc.senseRubble(myLoc);
+      double firstStep = 10+TerrainMemory.rubbleAt(myLoc);
       int contPassability = 0;
       int bestEstimationDist = 0;
       double avgP = 0;
       for (Direction dir : Utils.directions) {
         MapLocation newLoc = myLoc.add(dir);
-        if (!rc.onTheMap(newLoc)) continue;
+        if (!TerrainMemory.onTheMap(newLoc)) continue;
 
         //pass
-        avgP += 10+rc.senseRubble(newLoc);
+        avgP += 10+TerrainMemory.rubbleAt(newLoc);
         ++contPassability;
 
 
@@ -130,13 +129,14 @@ public class Pathfinding {
     BugNav(){}
 
     final int INF = 1000000;
-    final int MAX_MAP_SIZE = GameConstants.MAP_MAX_HEIGHT;
 
     boolean rotateRight = true; //if I should rotate right or left
     MapLocation lastObstacleFound = null; //latest obstacle I've found in my way
     int minDistToEnemy = INF; //minimum distance I've been to the enemy while going around an obstacle
     MapLocation prevTarget = null; //previous target
-    HashSet<Integer> visited = new HashSet<>();
+    // tiles visited while going around the current obstacle, one board per rotation direction
+    Bitboard visitedRight = new Bitboard(Cache.Permanent.MAP_WIDTH, Cache.Permanent.MAP_HEIGHT);
+    Bitboard visitedLeft = new Bitboard(Cache.Permanent.MAP_WIDTH, Cache.Permanent.MAP_HEIGHT);
 
     boolean move() {
       try{
@@ -149,10 +149,9 @@ public class Pathfinding {
         int d = myLoc.distanceSquaredTo(target);
         if (d <= minDistToEnemy) resetPathfinding();
 
-        int code = getCode();
-
-        if (visited.contains(code)) resetPathfinding();
-        visited.add(code);
+        Bitboard visited = rotateRight ? visitedRight : visitedLeft;
+        if (visited.test(myLoc)) resetPathfinding();
+        visited.set(myLoc);
 
         //Update data
         prevTarget = target;
@@ -174,7 +173,7 @@ public class Pathfinding {
             return true;
           }
           MapLocation newLoc = myLoc.add(dir);
-          if (!rc.onTheMap(newLoc)) rotateRight = !rotateRight;
+          if (!TerrainMemory.onTheMap(newLoc)) rotateRight = !rotateRight;
             //If I could not go in that direction and it was not outside of the map, then this is the latest obstacle found
           else lastObstacleFound = myLoc.add(dir);
           if (rotateRight) dir = dir.rotateRight();
@@ -200,10 +199,9 @@ public class Pathfinding {
         int d = myLoc.distanceSquaredTo(target);
         if (d <= minDistToEnemy) resetPathfinding();
 
-        int code = getCode();
-
-        if (visited.contains(code)) resetPathfinding();
-        visited.add(code);
+        Bitboard visited = rotateRight ? visitedRight : visitedLeft;
+        if (visited.test(myLoc)) resetPathfinding();
+        visited.set(myLoc);
 
         //Update data
         prevTarget = target;
@@ -226,7 +224,7 @@ public class Pathfinding {
             return dir;
           }
           MapLocation newLoc = myLoc.add(dir);
-          if (!rc.onTheMap(newLoc)) rotateRight = !rotateRight;
+          if (!TerrainMemory.onTheMap(newLoc)) rotateRight = !rotateRight;
             //If I could not go in that direction and it was not outside of the map, then this is the latest obstacle found
           else lastObstacleFound = myLoc.add(dir);
           if (rotateRight) dir = dir.rotateRight();
@@ -245,16 +243,8 @@ public class Pathfinding {
     void resetPathfinding(){
       lastObstacleFound = null;
       minDistToEnemy = INF;
-      visited.clear();
-    }
-
-    int getCode(){
-      int x = Cache.PerTurn.CURRENT_LOCATION.x % MAX_MAP_SIZE;
-      int y = Cache.PerTurn.CURRENT_LOCATION.y % MAX_MAP_SIZE;
-      Direction obstacleDir = Cache.PerTurn.CURRENT_LOCATION.directionTo(target);
-      if (lastObstacleFound != null) obstacleDir = Cache.PerTurn.CURRENT_LOCATION.directionTo(lastObstacleFound);
-      int bit = rotateRight ? 1 : 0;
-      return (((((x << 6) | y) << 4) | obstacleDir.ordinal()) << 1) | bit;
+      visitedRight.clearAll();
+      visitedLeft.clearAll();
     }
   }
 
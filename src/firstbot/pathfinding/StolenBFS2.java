@@ -3,6 +3,7 @@ package firstbot.pathfinding;
 import battlecode.common.Direction;
 import battlecode.common.MapLocation;
 import battlecode.common.RobotController;
+import firstbot.utils.TerrainMemory;
 
 public class StolenBFS2 extends BFS {
 
@@ -667,7 +668,7 @@ public class StolenBFS2 extends BFS {
     try {
       if (rc.canSenseLocation(l71)) {
         if (!rc.isLocationOccupied(l71)) {
-          p71 = 10+10+rc.senseRubble(l71);
+          p71 = 10+10+TerrainMemory.rubbleAt(l71);
           if (v71 > v84 + p71) {
             v71 = v84 + p71;
             d71 = Direction.WEST;
@@ -676,7 +677,7 @@ public class StolenBFS2 extends BFS {
       }
       if (rc.canSenseLocation(l83)) {
         if (!rc.isLocationOccupied(l83)) {
-          p83 = 10+10+rc.senseRubble(l83);
+          p83 = 10+10+TerrainMemory.rubbleAt(l83);
           if (v83 > v84 + p83) {
             v83 = v84 + p83;
             d83 = Direction.SOUTH;
@@ -689,7 +690,7 @@ public class StolenBFS2 extends BFS {
       }
       if (rc.canSenseLocation(l85)) {
         if (!rc.isLocationOccupied(l85)) {
-          p85 = 10+10+rc.senseRubble(l85);
+          p85 = 10+10+TerrainMemory.rubbleAt(l85);
           if (v85 > v84 + p85) {
             v85 = v84 + p85;
             d85 = Direction.NORTH;
@@ -702,7 +703,7 @@ public class StolenBFS2 extends BFS {
       }
       if (rc.canSenseLocation(l97)) {
         if (!rc.isLocationOccupied(l97)) {
-          p97 = 10+10+rc.senseRubble(l97);
+          p97 = 10+10+TerrainMemory.rubbleAt(l97);
           if (v97 > v84 + p97) {
             v97 = v84 + p97;
             d97 = Direction.EAST;
@@ -719,7 +720,7 @@ public class StolenBFS2 extends BFS {
       }
       if (rc.canSenseLocation(l70)) {
         if (!rc.isLocationOccupied(l70)) {
-          p70 = 10+10+rc.senseRubble(l70);
+          p70 = 10+10+TerrainMemory.rubbleAt(l70);
           if (v70 > v84 + p70) {
             v70 = v84 + p70;
             d70 = Direction.SOUTHWEST;
@@ -736,7 +737,7 @@ public class StolenBFS2 extends BFS {
       }
       if (rc.canSenseLocation(l72)) {
         if (!rc.isLocationOccupied(l72)) {
-          p72 = 10+10+rc.senseRubble(l72);
+          p72 = 10+10+TerrainMemory.rubbleAt(l72);
           if (v72 > v84 + p72) {
             v72 = v84 + p72;
             d72 = Direction.NORTHWEST;
@@ -753,7 +754,7 @@ public class StolenBFS2 extends BFS {
       }
       if (rc.canSenseLocation(l96)) {
         if (!rc.isLocationOccupied(l96)) {
-          p96 = 10+rc.senseRubble(l96);
+          p96 = 10+TerrainMemory.rubbleAt(l96);
           if (v96 > v84 + p96) {
             v96 = v84 + p96;
             d96 = Direction.SOUTHEAST;
@@ -770,7 +771,7 @@ public class StolenBFS2 extends BFS {
       }
       if (rc.canSenseLocation(l98)) {
         if (!rc.isLocationOccupied(l98)) {
-          p98 = 10+rc.senseRubble(l98);
+          p98 = 10+TerrainMemory.rubbleAt(l98);
           if (v98 > v84 + p98) {
             v98 = v84 + p98;
             d98 = Direction.NORTHEAST;
@@ -786,7 +787,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l58)) {
-        p58 = 10+rc.senseRubble(l58);
+        p58 = 10+TerrainMemory.rubbleAt(l58);
         if (v58 > v71 + p58) {
           v58 = v71 + p58;
           d58 = d71;
@@ -801,7 +802,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l82)) {
-        p82 = 10+rc.senseRubble(l82);
+        p82 = 10+TerrainMemory.rubbleAt(l82);
         if (v82 > v83 + p82) {
           v82 = v83 + p82;
           d82 = d83;
@@ -816,7 +817,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l86)) {
-        p86 = 10+rc.senseRubble(l86);
+        p86 = 10+TerrainMemory.rubbleAt(l86);
         if (v86 > v85 + p86) {
           v86 = v85 + p86;
           d86 = d85;
@@ -831,7 +832,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l110)) {
-        p110 = 10+rc.senseRubble(l110);
+        p110 = 10+TerrainMemory.rubbleAt(l110);
         if (v110 > v97 + p110) {
           v110 = v97 + p110;
           d110 = d97;
@@ -846,7 +847,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l57)) {
-        p57 = 10+rc.senseRubble(l57);
+        p57 = 10+TerrainMemory.rubbleAt(l57);
         if (v57 > v71 + p57) {
           v57 = v71 + p57;
           d57 = d71;
@@ -861,7 +862,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l59)) {
-        p59 = 10+rc.senseRubble(l59);
+        p59 = 10+TerrainMemory.rubbleAt(l59);
         if (v59 > v71 + p59) {
           v59 = v71 + p59;
           d59 = d71;
@@ -876,7 +877,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l69)) {
-        p69 = 10+rc.senseRubble(l69);
+        p69 = 10+TerrainMemory.rubbleAt(l69);
         if (v69 > v83 + p69) {
           v69 = v83 + p69;
           d69 = d83;
@@ -895,7 +896,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l73)) {
-        p73 = 10+rc.senseRubble(l73);
+        p73 = 10+TerrainMemory.rubbleAt(l73);
         if (v73 > v85 + p73) {
           v73 = v85 + p73;
           d73 = d85;
@@ -914,7 +915,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l95)) {
-        p95 = 10+rc.senseRubble(l95);
+        p95 = 10+TerrainMemory.rubbleAt(l95);
         if (v95 > v83 + p95) {
           v95 = v83 + p95;
           d95 = d83;
@@ -929,7 +930,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l99)) {
-        p99 = 10+rc.senseRubble(l99);
+        p99 = 10+TerrainMemory.rubbleAt(l99);
         if (v99 > v85 + p99) {
           v99 = v85 + p99;
           d99 = d85;
@@ -944,7 +945,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l109)) {
-        p109 = 10+rc.senseRubble(l109);
+        p109 = 10+TerrainMemory.rubbleAt(l109);
         if (v109 > v97 + p109) {
           v109 = v97 + p109;
           d109 = d97;
@@ -963,7 +964,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l111)) {
-        p111 = 10+rc.senseRubble(l111);
+        p111 = 10+TerrainMemory.rubbleAt(l111);
         if (v111 > v97 + p111) {
           v111 = v97 + p111;
           d111 = d97;
@@ -982,7 +983,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l56)) {
-        p56 = 10+rc.senseRubble(l56);
+        p56 = 10+TerrainMemory.rubbleAt(l56);
         if (v56 > v70 + p56) {
           v56 = v70 + p56;
           d56 = d70;
@@ -997,7 +998,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l60)) {
-        p60 = 10+rc.senseRubble(l60);
+        p60 = 10+TerrainMemory.rubbleAt(l60);
         if (v60 > v72 + p60) {
           v60 = v72 + p60;
           d60 = d72;
@@ -1012,7 +1013,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l108)) {
-        p108 = 10+rc.senseRubble(l108);
+        p108 = 10+TerrainMemory.rubbleAt(l108);
         if (v108 > v96 + p108) {
           v108 = v96 + p108;
           d108 = d96;
@@ -1027,7 +1028,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l112)) {
-        p112 = 10+rc.senseRubble(l112);
+        p112 = 10+TerrainMemory.rubbleAt(l112);
         if (v112 > v98 + p112) {
           v112 = v98 + p112;
           d112 = d98;
@@ -1042,7 +1043,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l45)) {
-        p45 = 10+rc.senseRubble(l45);
+        p45 = 10+TerrainMemory.rubbleAt(l45);
         if (v45 > v58 + p45) {
           v45 = v58 + p45;
           d45 = d58;
@@ -1057,7 +1058,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l81)) {
-        p81 = 10+rc.senseRubble(l81);
+        p81 = 10+TerrainMemory.rubbleAt(l81);
         if (v81 > v82 + p81) {
           v81 = v82 + p81;
           d81 = d82;
@@ -1072,7 +1073,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l87)) {
-        p87 = 10+rc.senseRubble(l87);
+        p87 = 10+TerrainMemory.rubbleAt(l87);
         if (v87 > v86 + p87) {
           v87 = v86 + p87;
           d87 = d86;
@@ -1087,7 +1088,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l123)) {
-        p123 = 10+rc.senseRubble(l123);
+        p123 = 10+TerrainMemory.rubbleAt(l123);
         if (v123 > v110 + p123) {
           v123 = v110 + p123;
           d123 = d110;
@@ -1102,7 +1103,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l44)) {
-        p44 = 10+rc.senseRubble(l44);
+        p44 = 10+TerrainMemory.rubbleAt(l44);
         if (v44 > v58 + p44) {
           v44 = v58 + p44;
           d44 = d58;
@@ -1121,7 +1122,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l46)) {
-        p46 = 10+rc.senseRubble(l46);
+        p46 = 10+TerrainMemory.rubbleAt(l46);
         if (v46 > v58 + p46) {
           v46 = v58 + p46;
           d46 = d58;
@@ -1140,7 +1141,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l68)) {
-        p68 = 10+rc.senseRubble(l68);
+        p68 = 10+TerrainMemory.rubbleAt(l68);
         if (v68 > v82 + p68) {
           v68 = v82 + p68;
           d68 = d82;
@@ -1159,7 +1160,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l74)) {
-        p74 = 10+rc.senseRubble(l74);
+        p74 = 10+TerrainMemory.rubbleAt(l74);
         if (v74 > v86 + p74) {
           v74 = v86 + p74;
           d74 = d86;
@@ -1178,7 +1179,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l94)) {
-        p94 = 10+rc.senseRubble(l94);
+        p94 = 10+TerrainMemory.rubbleAt(l94);
         if (v94 > v82 + p94) {
           v94 = v82 + p94;
           d94 = d82;
@@ -1197,7 +1198,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l100)) {
-        p100 = 10+rc.senseRubble(l100);
+        p100 = 10+TerrainMemory.rubbleAt(l100);
         if (v100 > v86 + p100) {
           v100 = v86 + p100;
           d100 = d86;
@@ -1216,7 +1217,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l122)) {
-        p122 = 10+rc.senseRubble(l122);
+        p122 = 10+TerrainMemory.rubbleAt(l122);
         if (v122 > v110 + p122) {
           v122 = v110 + p122;
           d122 = d110;
@@ -1235,7 +1236,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l124)) {
-        p124 = 10+rc.senseRubble(l124);
+        p124 = 10+TerrainMemory.rubbleAt(l124);
         if (v124 > v110 + p124) {
           v124 = v110 + p124;
           d124 = d110;
@@ -1254,7 +1255,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l43)) {
-        p43 = 10+rc.senseRubble(l43);
+        p43 = 10+TerrainMemory.rubbleAt(l43);
         if (v43 > v57 + p43) {
           v43 = v57 + p43;
           d43 = d57;
@@ -1269,7 +1270,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l47)) {
-        p47 = 10+rc.senseRubble(l47);
+        p47 = 10+TerrainMemory.rubbleAt(l47);
         if (v47 > v59 + p47) {
           v47 = v59 + p47;
           d47 = d59;
@@ -1284,7 +1285,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l55)) {
-        p55 = 10+rc.senseRubble(l55);
+        p55 = 10+TerrainMemory.rubbleAt(l55);
         if (v55 > v69 + p55) {
           v55 = v69 + p55;
           d55 = d69;
@@ -1303,7 +1304,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l61)) {
-        p61 = 10+rc.senseRubble(l61);
+        p61 = 10+TerrainMemory.rubbleAt(l61);
         if (v61 > v73 + p61) {
           v61 = v73 + p61;
           d61 = d73;
@@ -1322,7 +1323,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l107)) {
-        p107 = 10+rc.senseRubble(l107);
+        p107 = 10+TerrainMemory.rubbleAt(l107);
         if (v107 > v95 + p107) {
           v107 = v95 + p107;
           d107 = d95;
@@ -1337,7 +1338,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l113)) {
-        p113 = 10+rc.senseRubble(l113);
+        p113 = 10+TerrainMemory.rubbleAt(l113);
         if (v113 > v99 + p113) {
           v113 = v99 + p113;
           d113 = d99;
@@ -1352,7 +1353,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l121)) {
-        p121 = 10+rc.senseRubble(l121);
+        p121 = 10+TerrainMemory.rubbleAt(l121);
         if (v121 > v109 + p121) {
           v121 = v109 + p121;
           d121 = d109;
@@ -1371,7 +1372,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l125)) {
-        p125 = 10+rc.senseRubble(l125);
+        p125 = 10+TerrainMemory.rubbleAt(l125);
         if (v125 > v111 + p125) {
           v125 = v111 + p125;
           d125 = d111;
@@ -1390,7 +1391,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l32)) {
-        p32 = 10+rc.senseRubble(l32);
+        p32 = 10+TerrainMemory.rubbleAt(l32);
         if (v32 > v45 + p32) {
           v32 = v45 + p32;
           d32 = d45;
@@ -1405,7 +1406,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l80)) {
-        p80 = 10+rc.senseRubble(l80);
+        p80 = 10+TerrainMemory.rubbleAt(l80);
         if (v80 > v81 + p80) {
           v80 = v81 + p80;
           d80 = d81;
@@ -1420,7 +1421,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l88)) {
-        p88 = 10+rc.senseRubble(l88);
+        p88 = 10+TerrainMemory.rubbleAt(l88);
         if (v88 > v87 + p88) {
           v88 = v87 + p88;
           d88 = d87;
@@ -1435,7 +1436,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l136)) {
-        p136 = 10+rc.senseRubble(l136);
+        p136 = 10+TerrainMemory.rubbleAt(l136);
         if (v136 > v123 + p136) {
           v136 = v123 + p136;
           d136 = d123;
@@ -1450,7 +1451,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l31)) {
-        p31 = 10+rc.senseRubble(l31);
+        p31 = 10+TerrainMemory.rubbleAt(l31);
         if (v31 > v45 + p31) {
           v31 = v45 + p31;
           d31 = d45;
@@ -1469,7 +1470,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l33)) {
-        p33 = 10+rc.senseRubble(l33);
+        p33 = 10+TerrainMemory.rubbleAt(l33);
         if (v33 > v45 + p33) {
           v33 = v45 + p33;
           d33 = d45;
@@ -1488,7 +1489,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l67)) {
-        p67 = 10+rc.senseRubble(l67);
+        p67 = 10+TerrainMemory.rubbleAt(l67);
         if (v67 > v81 + p67) {
           v67 = v81 + p67;
           d67 = d81;
@@ -1507,7 +1508,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l75)) {
-        p75 = 10+rc.senseRubble(l75);
+        p75 = 10+TerrainMemory.rubbleAt(l75);
         if (v75 > v87 + p75) {
           v75 = v87 + p75;
           d75 = d87;
@@ -1526,7 +1527,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l93)) {
-        p93 = 10+rc.senseRubble(l93);
+        p93 = 10+TerrainMemory.rubbleAt(l93);
         if (v93 > v81 + p93) {
           v93 = v81 + p93;
           d93 = d81;
@@ -1545,7 +1546,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l101)) {
-        p101 = 10+rc.senseRubble(l101);
+        p101 = 10+TerrainMemory.rubbleAt(l101);
         if (v101 > v87 + p101) {
           v101 = v87 + p101;
           d101 = d87;
@@ -1564,7 +1565,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l135)) {
-        p135 = 10+rc.senseRubble(l135);
+        p135 = 10+TerrainMemory.rubbleAt(l135);
         if (v135 > v123 + p135) {
           v135 = v123 + p135;
           d135 = d123;
@@ -1583,7 +1584,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l137)) {
-        p137 = 10+rc.senseRubble(l137);
+        p137 = 10+TerrainMemory.rubbleAt(l137);
         if (v137 > v123 + p137) {
           v137 = v123 + p137;
           d137 = d123;
@@ -1602,7 +1603,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l42)) {
-        p42 = 10+rc.senseRubble(l42);
+        p42 = 10+TerrainMemory.rubbleAt(l42);
         if (v42 > v56 + p42) {
           v42 = v56 + p42;
           d42 = d56;
@@ -1617,7 +1618,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l48)) {
-        p48 = 10+rc.senseRubble(l48);
+        p48 = 10+TerrainMemory.rubbleAt(l48);
         if (v48 > v60 + p48) {
           v48 = v60 + p48;
           d48 = d60;
@@ -1632,7 +1633,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l120)) {
-        p120 = 10+rc.senseRubble(l120);
+        p120 = 10+TerrainMemory.rubbleAt(l120);
         if (v120 > v108 + p120) {
           v120 = v108 + p120;
           d120 = d108;
@@ -1647,7 +1648,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l126)) {
-        p126 = 10+rc.senseRubble(l126);
+        p126 = 10+TerrainMemory.rubbleAt(l126);
         if (v126 > v112 + p126) {
           v126 = v112 + p126;
           d126 = d112;
@@ -1662,7 +1663,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l30)) {
-        p30 = 10+rc.senseRubble(l30);
+        p30 = 10+TerrainMemory.rubbleAt(l30);
         if (v30 > v44 + p30) {
           v30 = v44 + p30;
           d30 = d44;
@@ -1681,7 +1682,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l34)) {
-        p34 = 10+rc.senseRubble(l34);
+        p34 = 10+TerrainMemory.rubbleAt(l34);
         if (v34 > v46 + p34) {
           v34 = v46 + p34;
           d34 = d46;
@@ -1700,7 +1701,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l54)) {
-        p54 = 10+rc.senseRubble(l54);
+        p54 = 10+TerrainMemory.rubbleAt(l54);
         if (v54 > v68 + p54) {
           v54 = v68 + p54;
           d54 = d68;
@@ -1719,7 +1720,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l62)) {
-        p62 = 10+rc.senseRubble(l62);
+        p62 = 10+TerrainMemory.rubbleAt(l62);
         if (v62 > v74 + p62) {
           v62 = v74 + p62;
           d62 = d74;
@@ -1738,7 +1739,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l106)) {
-        p106 = 10+rc.senseRubble(l106);
+        p106 = 10+TerrainMemory.rubbleAt(l106);
         if (v106 > v94 + p106) {
           v106 = v94 + p106;
           d106 = d94;
@@ -1757,7 +1758,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l114)) {
-        p114 = 10+rc.senseRubble(l114);
+        p114 = 10+TerrainMemory.rubbleAt(l114);
         if (v114 > v100 + p114) {
           v114 = v100 + p114;
           d114 = d100;
@@ -1776,7 +1777,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l134)) {
-        p134 = 10+rc.senseRubble(l134);
+        p134 = 10+TerrainMemory.rubbleAt(l134);
         if (v134 > v122 + p134) {
           v134 = v122 + p134;
           d134 = d122;
@@ -1795,7 +1796,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l138)) {
-        p138 = 10+rc.senseRubble(l138);
+        p138 = 10+TerrainMemory.rubbleAt(l138);
         if (v138 > v124 + p138) {
           v138 = v124 + p138;
           d138 = d124;
@@ -1814,7 +1815,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l19)) {
-        p19 = 10+rc.senseRubble(l19);
+        p19 = 10+TerrainMemory.rubbleAt(l19);
         if (v19 > v32 + p19) {
           v19 = v32 + p19;
           d19 = d32;
@@ -1829,7 +1830,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l29)) {
-        p29 = 10+rc.senseRubble(l29);
+        p29 = 10+TerrainMemory.rubbleAt(l29);
         if (v29 > v43 + p29) {
           v29 = v43 + p29;
           d29 = d43;
@@ -1844,7 +1845,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l35)) {
-        p35 = 10+rc.senseRubble(l35);
+        p35 = 10+TerrainMemory.rubbleAt(l35);
         if (v35 > v47 + p35) {
           v35 = v47 + p35;
           d35 = d47;
@@ -1859,7 +1860,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l41)) {
-        p41 = 10+rc.senseRubble(l41);
+        p41 = 10+TerrainMemory.rubbleAt(l41);
         if (v41 > v55 + p41) {
           v41 = v55 + p41;
           d41 = d55;
@@ -1878,7 +1879,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l49)) {
-        p49 = 10+rc.senseRubble(l49);
+        p49 = 10+TerrainMemory.rubbleAt(l49);
         if (v49 > v61 + p49) {
           v49 = v61 + p49;
           d49 = d61;
@@ -1897,7 +1898,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l79)) {
-        p79 = 10+rc.senseRubble(l79);
+        p79 = 10+TerrainMemory.rubbleAt(l79);
         if (v79 > v80 + p79) {
           v79 = v80 + p79;
           d79 = d80;
@@ -1912,7 +1913,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l89)) {
-        p89 = 10+rc.senseRubble(l89);
+        p89 = 10+TerrainMemory.rubbleAt(l89);
         if (v89 > v88 + p89) {
           v89 = v88 + p89;
           d89 = d88;
@@ -1927,7 +1928,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l119)) {
-        p119 = 10+rc.senseRubble(l119);
+        p119 = 10+TerrainMemory.rubbleAt(l119);
         if (v119 > v107 + p119) {
           v119 = v107 + p119;
           d119 = d107;
@@ -1942,7 +1943,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l127)) {
-        p127 = 10+rc.senseRubble(l127);
+        p127 = 10+TerrainMemory.rubbleAt(l127);
         if (v127 > v113 + p127) {
           v127 = v113 + p127;
           d127 = d113;
@@ -1957,7 +1958,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l133)) {
-        p133 = 10+rc.senseRubble(l133);
+        p133 = 10+TerrainMemory.rubbleAt(l133);
         if (v133 > v121 + p133) {
           v133 = v121 + p133;
           d133 = d121;
@@ -1976,7 +1977,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l139)) {
-        p139 = 10+rc.senseRubble(l139);
+        p139 = 10+TerrainMemory.rubbleAt(l139);
         if (v139 > v125 + p139) {
           v139 = v125 + p139;
           d139 = d125;
@@ -1995,7 +1996,7 @@ public class StolenBFS2 extends BFS {
         }
       }
       if (rc.canSenseLocation(l149)) {
-        p149 = 10+rc.senseRubble(l149);
+        p149 = 10+TerrainMemory.rubbleAt(l149);
         if (v149 > v136 + p149) {
           v149 = v136 + p149;
           d149 = d136;
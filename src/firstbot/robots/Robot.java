@@ -2,9 +2,11 @@ package firstbot.robots;
 
 import battlecode.common.*;
 import firstbot.communications.Communicator;
+import firstbot.communications.SharedArrayLayout;
+import firstbot.communications.messages.EnemyBatchMessage;
 import firstbot.communications.messages.EnemyFoundMessage;
-import firstbot.communications.messages.Message;
 import firstbot.communications.messages.RubbleAtLocationMessage;
+import firstbot.containers.IntIntHashMap;
 import firstbot.pathfinding.BFS;
 import firstbot.pathfinding.StolenBFS2;
 import firstbot.robots.buildings.Archon;
@@ -14,9 +16,14 @@ import firstbot.robots.droids.Builder;
 import firstbot.robots.droids.Miner;
 import firstbot.robots.droids.Sage;
 import firstbot.robots.droids.Soldier;
+import firstbot.utils.Budget;
 import firstbot.utils.Cache;
 import firstbot.utils.Global;
+import firstbot.utils.Memo;
+import firstbot.utils.OverrunRecorder;
 import firstbot.utils.Printer;
+import firstbot.utils.Profiler;
+import firstbot.utils.TerrainMemory;
 import firstbot.utils.Utils;
 
 public abstract class Robot {
@@ -24,6 +31,7 @@ public abstract class Robot {
   private static final boolean RESIGN_ON_RUNTIME_EXCEPTION = false;
 
   private static final int MAX_TURNS_FIGURE_SYMMETRY = 200;
+  private static final int MAX_TERRAIN_FILL_BYTECODES = 1500;
 
   protected final RobotController rc;
   protected final Communicator communicator;
@@ -35,6 +43,9 @@ public abstract class Robot {
   protected MapLocation closestCommedEnemy;
   protected int distToClosestCommedEnemy;
 
+  /** the chunk this robot was in when it last marked the exploration bitmap */
+  private int lastMarkedChunk;
+
   public static final boolean USE_STOLEN_BFS = true;
   protected final BFS bfs;
 
@@ -47,9 +58,13 @@ public abstract class Robot {
     Global.setupGlobals(rc, this);
     Utils.setUpStatics();
     Cache.setup();
-    Printer.cleanPrint();
+    Budget.setup();
+    TerrainMemory.setup();
     this.rc = rc;
     this.communicator = Global.communicator;
+    communicator.heatmap.setupGeometry();
+    lastMarkedChunk = communicator.chunkInfo.chunkOf(Cache.PerTurn.CURRENT_LOCATION);
+    communicator.chunkInfo.markExplored(Cache.PerTurn.CURRENT_LOCATION);
 
     bfs = new StolenBFS2(rc);
 
@@ -80,7 +95,7 @@ public abstract class Robot {
   }
 
   public boolean noFriendlyTurretModeBuildingsNearby() throws GameActionException {
-    for (RobotInfo friend : Cache.PerTurn.ALL_NEARBY_FRIENDLY_ROBOTS) {
+    for (RobotInfo friend : Cache.PerTurn.allNearbyFriendlyRobots()) {
       if (friend.type.isBuilding() && friend.mode == RobotMode.TURRET) return false;
     }
     return true;
@@ -100,6 +115,7 @@ public abstract class Robot {
         this.runTurnWrapper();
 //        Printer.cleanPrint();
         Printer.submitPrint();
+        Profiler.endTurn();
       } catch (GameActionException e) {
         // something illegal in the Battlecode world
         System.out.println(rc.getType() + " GameActionException");
@@ -115,21 +131,19 @@ public abstract class Robot {
         rc.setIndicatorDot(Cache.PerTurn.CURRENT_LOCATION, 255,255,255);
         if (RESIGN_ON_GAME_EXCEPTION || RESIGN_ON_RUNTIME_EXCEPTION) rc.resign();
       } finally {
+        OverrunRecorder.endTurn();
         // end turn - make code wait until next turn
         if (!dontYield) Clock.yield();
         else {
           if (Clock.getBytecodesLeft() < 0.9 * Cache.Permanent.ROBOT_TYPE.bytecodeLimit) { // if don't have 90% of limit, still yield
             dontYield = false;
-            if (this instanceof Miner) {
-              communicator.spawnInfo.incrMinerLiveCount();
-            }
+            communicator.census.countSelf(rc.getRoundNum()); // still alive for the round we are skipping
             Clock.yield();
 //          } else {
 //            System.out.println("Skipping turn yeild!!");
           }
         }
       }
-      Printer.cleanPrint();
     }
   }
 
@@ -142,6 +156,11 @@ public abstract class Robot {
 //    stolenbfs.initTurn();
 
     Cache.updateOnTurn();
+    OverrunRecorder.beginTurn();
+    if (Cache.Permanent.ROBOT_TYPE == RobotType.ARCHON) communicator.multiplex.swapIfDue(); // before anyone touches heatmap/chunks
+    communicator.census.countSelf(Cache.PerTurn.ROUND_NUM);
+    communicator.heatmap.sweepIfDue();
+    communicator.chunkInfo.flushPending();
     if (!dontYield) {
       rc.setIndicatorString("ac: " + rc.getActionCooldownTurns() + " mc: " + rc.getMovementCooldownTurns());
     }
@@ -155,20 +174,23 @@ public abstract class Robot {
 
 //    System.out.println("Update cache -- " + Clock.getBytecodeNum());
 //    communicator.cleanStaleMessages();
-    Utils.startByteCodeCounting("reading");
+    Profiler.start(Profiler.READING);
     pendingMessages = communicator.readAndAckAllMessages();
+    communicator.rpc.dispatchOpenRequests();
 //    System.out.println("# messages: " + pendingMessages + " -- " + Clock.getBytecodeNum());
 //    while (pendingMessages > 0) {
 //      Message message = communicator.getNthLastReceivedMessage(pendingMessages);
 //      ackMessage(message);
 //      pendingMessages--;
 //    }
-    Utils.finishByteCodeCounting("reading");
+    Profiler.finish(Profiler.READING);
+    OverrunRecorder.afterPhase(OverrunRecorder.ACK);
 //    if (pendingMessages > 0) System.out.println("Got " + pendingMessages + " messages!");
 
 //    System.out.println("After acking: " + Clock.getBytecodeNum());
     MapLocation initial = Cache.PerTurn.CURRENT_LOCATION;
     runTurnTypeWrapper();
+    OverrunRecorder.afterPhase(OverrunRecorder.TURN);
 
     // if the bot moved on its turn
     if (!initial.equals(Cache.PerTurn.CURRENT_LOCATION)) {
@@ -179,6 +201,7 @@ public abstract class Robot {
 //    updateVisibleChunks();
     //      System.out.println("updateVisibleChunks(" + updatedChunks + ") cost: " + (Clock.getBytecodeNum() - b));
     commNearbyEnemies();
+    OverrunRecorder.afterPhase(OverrunRecorder.COMM_ENEMIES);
 
 
     if (++turnCount != rc.getRoundNum() - Cache.Permanent.ROUND_SPAWNED) { // took too much bytecode
@@ -187,30 +210,45 @@ public abstract class Robot {
       dontYield = true;
     } else { // still on our turn logic
 //    if (Clock.getBytecodesLeft() >= MIN_BYTECODES_TO_SEND) {
-      Utils.startByteCodeCounting("sending");
+      Profiler.start(Profiler.SENDING);
 //      System.out.println("Bytecodes before send all messages: " + (Clock.getBytecodeNum()));
       communicator.sendQueuedMessages();
 //      communicator.updateMetaIntsIfNeeded();
 //      System.out.println("Bytecodes after send all messages: " + (Clock.getBytecodeNum()));
-      Utils.finishByteCodeCounting("sending");
+      Profiler.finish(Profiler.SENDING);
+      OverrunRecorder.afterPhase(OverrunRecorder.SEND);
 //    }
+      // spend some of what's left remembering the rubble in vision so later turns don't have to sense it
+      TerrainMemory.useSymmetry(communicator.metaInfo.knownSymmetry);
+      TerrainMemory.fillVision(Math.min(MAX_TERRAIN_FILL_BYTECODES, Budget.available(Budget.COMMS_SEND)));
+      TerrainMemory.mirrorKnown(Math.min(MAX_TERRAIN_FILL_BYTECODES, Budget.available(Budget.COMMS_SEND)));
     }
 //    System.out.println("\nvery end - " + rc.readSharedArray(Communicator.MetaInfo.META_INT_START));
   }
 
+  /*
+   * message handlers (happen at turn start)
+   *    the communicator decodes the raw ints and calls these directly - no message objects are created
+   *    locations are passed encoded (Utils.encodeLocationLower)
+   *    default is to ignore the message, robots override the ones they care about
+   */
+
+  public void onArchonHello(int encodedLoc) throws GameActionException {}
+  public void onLeadFound(int encodedLoc) throws GameActionException {}
+  public void onLabBuilt(int encodedLoc) throws GameActionException {}
+  public void onEndFight(int encodedLoc) throws GameActionException {}
+  public void onSaveMe(int encodedLoc) throws GameActionException {}
+  public void onArchonSaved(int encodedLoc) throws GameActionException {}
+  public void onJoinTheFight(int encodedLoc) throws GameActionException {}
+
   /**
-   * acknowledge the provided message (happens at turn start)
-   * @param message the message received
+   * called for every open request in the shared rpc slots (see Communicator.RpcInfo)
+   *    answer with communicator.rpc.respond(slot, kind, response)
+   * @param slot the slot holding the request
+   * @param kind the request kind (RpcInfo.KIND_*)
+   * @param arg the request argument
    */
-  public void ackMessage(Message message) throws GameActionException {
-    switch (message.header.type) {
-      case RUBBLE_AT_LOCATION:
-        ackRubbleAtLocationMessage((RubbleAtLocationMessage) message);
-        break;
-      case ENEMY_FOUND:
-        ackEnemyFound((EnemyFoundMessage) message);
-    }
-  }
+  public void onRpcRequest(int slot, int kind, int arg) throws GameActionException {}
 
   /**
    * Run a single turn for the robot
@@ -235,7 +273,11 @@ public abstract class Robot {
    */
   protected void afterTurnWhenMoved() throws GameActionException {
     updateSymmetryComms();
-
+    int chunk = communicator.chunkInfo.chunkOf(Cache.PerTurn.CURRENT_LOCATION);
+    if (chunk != lastMarkedChunk) {
+      communicator.chunkInfo.markExplored(Cache.PerTurn.CURRENT_LOCATION);
+      lastMarkedChunk = chunk;
+    }
   }
 
   /**
@@ -246,9 +288,11 @@ public abstract class Robot {
   protected void updateSymmetryComms() throws GameActionException {
     // TODO: do it based on how many robots we have spawned (or total friends alive) or something
     if (Cache.PerTurn.HEALTH > 20 && communicator.metaInfo.knownSymmetry == null && Cache.PerTurn.ROUND_NUM < MAX_TURNS_FIGURE_SYMMETRY) {
-      RubbleAtLocationMessage rubbleAtLocationMessage = new RubbleAtLocationMessage(Cache.PerTurn.CURRENT_LOCATION, rc.senseRubble(Cache.PerTurn.CURRENT_LOCATION));
-      ackRubbleAtLocationMessage(rubbleAtLocationMessage);
-      if (communicator.metaInfo.knownSymmetry == null) communicator.enqueueMessage(rubbleAtLocationMessage);
+      int rubble = TerrainMemory.rubbleAt(Cache.PerTurn.CURRENT_LOCATION);
+      onRubbleAt(Utils.encodeLocationLower(Cache.PerTurn.CURRENT_LOCATION), rubble);
+      if (communicator.metaInfo.knownSymmetry == null && !communicator.dedupeInfo.rubbleAlreadyReported(Cache.PerTurn.CURRENT_LOCATION)) {
+        communicator.enqueueMessage(new RubbleAtLocationMessage(Cache.PerTurn.CURRENT_LOCATION, rubble));
+      }
 //      if (communicator.metaInfo.knownSymmetry == null) communicator.enqueueMessage(rubbleAtLocationMessage);
     }
   }
@@ -258,9 +302,10 @@ public abstract class Robot {
    * @throws GameActionException if sending the message fails
    */
   protected void commNearbyEnemies() throws GameActionException {
-    if (Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS.length > 0) {
-      RobotInfo enemy = Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS[0];
-      for (RobotInfo enemyInfo : Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS) { // look for archons
+    if (Cache.PerTurn.allNearbyEnemyRobots().length > 0) {
+      updateHeatmap();
+      RobotInfo enemy = Cache.PerTurn.allNearbyEnemyRobots()[0];
+      for (RobotInfo enemyInfo : Cache.PerTurn.allNearbyEnemyRobots()) { // look for archons
         if (enemyInfo.type == RobotType.ARCHON) {
           enemy = enemyInfo;
           int nearestEnemyIndex = communicator.archonInfo.getNearestEnemyArchonIndex(enemyInfo.location);
@@ -294,53 +339,109 @@ public abstract class Robot {
 //      Printer.submitPrint();
       if (closestCommedEnemy == null
           || !closestCommedEnemy.isWithinDistanceSquared(Cache.PerTurn.CURRENT_LOCATION, Cache.Permanent.VISION_RADIUS_SQUARED)) {
-        communicator.enqueueMessage(new EnemyFoundMessage(enemy));
+        commEnemies(enemy);
+      }
+    }
+  }
+
+  private static final int MAX_HEATMAP_CELLS_PER_TURN = 4;
+  private static final int MAX_ENEMIES_FOR_HEATMAP = 8;
+  /** heatmap cell -> number of enemies seen in it this turn */
+  private final IntIntHashMap heatCounts = new IntIntHashMap(MAX_HEATMAP_CELLS_PER_TURN);
+  private final MapLocation[] toComm = new MapLocation[EnemyBatchMessage.MAX_ENEMIES];
+
+  /**
+   * bump the shared heatmap cells of the enemies we can see (strength = number of enemies seen in the cell)
+   *    skipped on rounds the heatmap isn't loaded (observe would drop everything anyway)
+   * @throws GameActionException if reading/writing the heatmap fails
+   */
+  private void updateHeatmap() throws GameActionException {
+    if (!Budget.canAfford(Budget.COMMS_SEND) || !SharedArrayLayout.isActive(SharedArrayLayout.EVEN_ROUNDS)) return;
+    int toCheck = Math.min(Cache.PerTurn.allNearbyEnemyRobots().length, MAX_ENEMIES_FOR_HEATMAP);
+    for (int e = 0; e < toCheck; e++) {
+      int cell = communicator.heatmap.cellOf(Cache.PerTurn.allNearbyEnemyRobots()[e].location);
+      if (heatCounts.size < MAX_HEATMAP_CELLS_PER_TURN || heatCounts.contains(cell)) heatCounts.increment(cell, 1);
+    }
+    heatCounts.resetIterator();
+    for (int cell = heatCounts.next(); cell != IntIntHashMap.NO_KEY; cell = heatCounts.next()) {
+      communicator.heatmap.observe(cell, heatCounts.value());
+    }
+    heatCounts.clear();
+  }
+
+  /**
+   * comm the given enemy + any others nearby that are in different (unreported) dedupe cells
+   *    a single enemy goes out as a compact EnemyFoundMessage, several as one framed EnemyBatchMessage
+   * @param enemy the most important enemy to comm
+   * @throws GameActionException if reading the dedupe cells fails
+   */
+  private void commEnemies(RobotInfo enemy) throws GameActionException {
+    int numEnemies = 0;
+    if (!communicator.dedupeInfo.enemyAlreadyReported(enemy.location)) toComm[numEnemies++] = enemy.location;
+    for (RobotInfo enemyInfo : Cache.PerTurn.allNearbyEnemyRobots()) {
+      if (numEnemies == EnemyBatchMessage.MAX_ENEMIES || !Budget.canAfford(Budget.COMMS_SEND)) break;
+      MapLocation location = enemyInfo.location;
+      boolean newCell = true;
+      for (int i = 0; i < numEnemies; i++) {
+        if (Communicator.DedupeInfo.sameEnemyCell(location, toComm[i])) {
+          newCell = false;
+          break;
+        }
       }
+      if (newCell && !communicator.dedupeInfo.enemyAlreadyReported(location)) toComm[numEnemies++] = location;
+    }
+    if (numEnemies == 1) {
+      communicator.enqueueMessage(new EnemyFoundMessage(toComm[0]));
+    } else if (numEnemies > 1) {
+      communicator.enqueueMessage(new EnemyBatchMessage(toComm, numEnemies));
     }
   }
 
   /**
    * receive the rubble location of anoter robot
    *    check if that helps us determine symmetry
-   * @param message the rubble/location message
+   * @param encodedLoc the encoded location the rubble was seen at
+   * @param rubble the rubble at that location
    * @throws GameActionException if sensing fails
    */
-  private void ackRubbleAtLocationMessage(RubbleAtLocationMessage message) throws GameActionException {
+  public void onRubbleAt(int encodedLoc, int rubble) throws GameActionException {
+    MapLocation location = Utils.decodeLocationLower(encodedLoc);
     if (!communicator.metaInfo.notHorizontal) { // might be horizontal, check
-      MapLocation xFlip = Utils.flipLocationX(message.location);
-      if (rc.canSenseLocation(xFlip)) {
-        int rubble = rc.senseRubble(xFlip);
-        if (message.rubble != rubble) communicator.metaInfo.setSymmetryCantBe(Utils.MapSymmetry.HORIZONTAL);
+      MapLocation xFlip = Utils.flipLocationX(location);
+      int mirrored = TerrainMemory.rubbleOr(xFlip, -1); // remembered tiles count even when out of vision
+      if (mirrored != -1 && rubble != mirrored) {
+        communicator.metaInfo.setSymmetryCantBe(Utils.MapSymmetry.HORIZONTAL);
       }
     }
     if (!communicator.metaInfo.notVertical) { // might be horizontal, check
-      MapLocation yFlip = Utils.flipLocationY(message.location);
-      if (rc.canSenseLocation(yFlip)) {
-        int rubble = rc.senseRubble(yFlip);
-        if (message.rubble != rubble) communicator.metaInfo.setSymmetryCantBe(Utils.MapSymmetry.VERTICAL);
+      MapLocation yFlip = Utils.flipLocationY(location);
+      int mirrored = TerrainMemory.rubbleOr(yFlip, -1);
+      if (mirrored != -1 && rubble != mirrored) {
+        communicator.metaInfo.setSymmetryCantBe(Utils.MapSymmetry.VERTICAL);
       }
     }
     if (!communicator.metaInfo.notRotational) { // might be horizontal, check
-      MapLocation rot = Utils.rotateLocation180(message.location);
-      if (rc.canSenseLocation(rot)) {
-        int rubble = rc.senseRubble(rot);
-        if (message.rubble != rubble) communicator.metaInfo.setSymmetryCantBe(Utils.MapSymmetry.ROTATIONAL);
+      MapLocation rot = Utils.rotateLocation180(location);
+      int mirrored = TerrainMemory.rubbleOr(rot, -1);
+      if (mirrored != -1 && rubble != mirrored) {
+        communicator.metaInfo.setSymmetryCantBe(Utils.MapSymmetry.ROTATIONAL);
       }
     }
   }
 
   /**
    * acknowledge a message about a seen enemy
-   * @param message the message about the seen enemy
+   * @param encodedLoc the location of the seen enemy
    * @throws GameActionException if acking fails
    */
-  private void ackEnemyFound(EnemyFoundMessage message) throws GameActionException {
+  public void onEnemyFound(int encodedLoc) throws GameActionException {
 //    Printer.cleanPrint();
 //    Printer.print("ackEnemyFound: " + message.enemyLocation, "dist: " + message.enemyLocation.distanceSquaredTo(Cache.PerTurn.CURRENT_LOCATION));
 //    Printer.submitPrint();
-    if (message.enemyLocation.isWithinDistanceSquared(Cache.PerTurn.CURRENT_LOCATION, distToClosestCommedEnemy-1)) {
-      closestCommedEnemy = message.enemyLocation;
-      distToClosestCommedEnemy = message.enemyLocation.distanceSquaredTo(Cache.PerTurn.CURRENT_LOCATION);
+    MapLocation enemyLocation = Utils.decodeLocationLower(encodedLoc);
+    if (enemyLocation.isWithinDistanceSquared(Cache.PerTurn.CURRENT_LOCATION, distToClosestCommedEnemy-1)) {
+      closestCommedEnemy = enemyLocation;
+      distToClosestCommedEnemy = enemyLocation.distanceSquaredTo(Cache.PerTurn.CURRENT_LOCATION);
     }
   }
 
@@ -351,7 +452,7 @@ public abstract class Robot {
    * @throws GameActionException if movement failed
    */
   public boolean move(Direction dir) throws GameActionException {
-    if (Clock.getBytecodesLeft() < 25) Clock.yield(); // todo: this should be larger? whenMoved takes a bit longer...
+    if (Clock.getBytecodesLeft() < Budget.MOVE_RESERVE) Clock.yield(); // todo: this should be larger? whenMoved takes a bit longer...
     if (rc.canMove(dir)) {
       rc.move(dir);
       Cache.PerTurn.whenMoved();
@@ -420,9 +521,9 @@ public abstract class Robot {
     MapLocation a = Cache.PerTurn.CURRENT_LOCATION.add(goalDir);
     MapLocation b = Cache.PerTurn.CURRENT_LOCATION.add(goalDir.rotateRight());
     MapLocation c = Cache.PerTurn.CURRENT_LOCATION.add(goalDir.rotateLeft());
-    int costA = rc.canSenseLocation(a) ? rc.senseRubble(a) : 101;
-    int costB = rc.canSenseLocation(b) ? rc.senseRubble(b) : 101;
-    int costC = rc.canSenseLocation(c) ? rc.senseRubble(c) : 101;
+    int costA = TerrainMemory.rubbleOr(a, 101);
+    int costB = TerrainMemory.rubbleOr(b, 101);
+    int costC = TerrainMemory.rubbleOr(c, 101);
 
     if (costA <= costB && costA <= costC && rc.canMove(goalDir)) return goalDir;
     if (costB <= costC && rc.canMove(goalDir.rotateRight())) return goalDir.rotateRight();
@@ -443,9 +544,9 @@ public abstract class Robot {
     MapLocation a = Cache.PerTurn.CURRENT_LOCATION.add(goalDir);
     MapLocation b = Cache.PerTurn.CURRENT_LOCATION.add(goalDir.rotateRight());
     MapLocation c = Cache.PerTurn.CURRENT_LOCATION.add(goalDir.rotateLeft());
-    int costA = rc.canSenseLocation(a) ? rc.senseRubble(a) : 101;
-    int costB = rc.canSenseLocation(b) ? rc.senseRubble(b) : 101;
-    int costC = rc.canSenseLocation(c) ? rc.senseRubble(c) : 101;
+    int costA = TerrainMemory.rubbleOr(a, 101);
+    int costB = TerrainMemory.rubbleOr(b, 101);
+    int costC = TerrainMemory.rubbleOr(c, 101);
 
     return (costA <= costB && costA <= costC && move(goalDir))
         || (costB <= costC && move(goalDir.rotateRight()))
@@ -487,7 +588,7 @@ public abstract class Robot {
       newLocDist = newLoc.distanceSquaredTo(target);
       if (rc.canMove(candidateDir) && newLocDist <= dToLoc) {
         if (rc.canSenseLocation(newLoc)) {
-          int rubble = rc.senseRubble(newLoc);
+          int rubble = TerrainMemory.rubbleAt(newLoc);
           if (rubble < bestPosRubble || (rubble == bestPosRubble && newLocDist < bestPosDist)) {
             bestDirection = candidateDir;
             bestPosRubble = rubble;
@@ -523,7 +624,9 @@ public abstract class Robot {
 
   protected boolean moveBFS(MapLocation target) throws GameActionException {
     MapLocation curr = Cache.PerTurn.CURRENT_LOCATION;
+    Profiler.start(Profiler.PATHFINDING);
     bfs.move(target, false);
+    Profiler.finish(Profiler.PATHFINDING);
     return !Cache.PerTurn.CURRENT_LOCATION.equals(curr);
   }
 
@@ -548,7 +651,7 @@ public abstract class Robot {
       newLocDist = newLoc.distanceSquaredTo(source);
       if ((rc.canMove(candidateDir) && newLocDist >= dToLoc)) {
         if (rc.canSenseLocation(newLoc)) {
-          int rubble = rc.senseRubble(newLoc);
+          int rubble = TerrainMemory.rubbleAt(newLoc);
           if (rubble < bestPosRubble || (rubble == bestPosRubble && newLocDist > bestPosDist)) {
             bestDirection = candidateDir;
             bestPosRubble = rubble;
@@ -625,7 +728,7 @@ public abstract class Robot {
     int rubbleOfBest = 9999;
     for (Direction dir : Utils.directions) {
       if (!rc.canSenseLocation(Cache.PerTurn.CURRENT_LOCATION.add(dir))) continue;
-      int rubble = rc.senseRubble(Cache.PerTurn.CURRENT_LOCATION.add(dir));
+      int rubble = TerrainMemory.rubbleAt(Cache.PerTurn.CURRENT_LOCATION.add(dir));
       if (rubble < rubbleOfBest) {
         best = dir;
         rubbleOfBest = rubble;
@@ -640,7 +743,7 @@ public abstract class Robot {
     for (Direction dir : Utils.directions) {
       MapLocation loc = Cache.PerTurn.CURRENT_LOCATION.add(dir);
       if (!rc.canSenseLocation(loc) || rc.isLocationOccupied(loc)) continue;
-      int rubble = rc.senseRubble(loc);
+      int rubble = TerrainMemory.rubbleAt(loc);
       if (rubble < rubbleOfBest) {
         best = dir;
         rubbleOfBest = rubble;
@@ -658,7 +761,7 @@ public abstract class Robot {
    */
   protected MapLocation getWeightedAvgLeadLoc() throws GameActionException {
     final int MIN_LEAD = 1; // making this 2 causes us to do slightly worse lol weird
-    final int MAX_LOCS = Clock.getBytecodesLeft() >> (Cache.Permanent.ROBOT_TYPE.isBuilding() ? 8 : 9); // div by 256 = *0.78/100 -- allowed to use 78% of bytecode on this
+    final int MAX_LOCS = Budget.available(Budget.SENSING) / Budget.cost(Budget.SENSING);
 //    int[] leadInDirection = new int[Utils.directions.length];
     int avgX = 0;
     int avgY = 0;
@@ -681,8 +784,8 @@ public abstract class Robot {
 //      }
 //      if (minersThere > leadSeen / Utils.LEAD_PER_MINER_CLAIM) continue;
 
-      int rubbleThere = rc.senseRubble(loc);
-      int rubbleOnPath = rc.senseRubble(myLoc.add(myLoc.directionTo(loc)));
+      int rubbleThere = TerrainMemory.rubbleAt(loc);
+      int rubbleOnPath = TerrainMemory.rubbleAt(myLoc.add(myLoc.directionTo(loc)));
 
       leadSeen *= 100 - rubbleThere;
       leadSeen *= 100 - rubbleOnPath;
@@ -717,57 +820,67 @@ public abstract class Robot {
     return buildRobot(type, dir) || buildRobot(type, dir.rotateRight()) || buildRobot(type, dir.rotateLeft());
   }
 
+  /**
+   * @return the closest friendly archon to our current location (memoized until we move or archon locations change)
+   * @throws GameActionException if reading archon locations fails
+   */
+  protected MapLocation nearestFriendlyArchon() throws GameActionException {
+    if (Memo.isValid(Memo.NEAREST_FRIENDLY_ARCHON)) return (MapLocation) Memo.object(Memo.NEAREST_FRIENDLY_ARCHON);
+    return (MapLocation) Memo.store(Memo.NEAREST_FRIENDLY_ARCHON, communicator.archonInfo.getNearestFriendlyArchon(Cache.PerTurn.CURRENT_LOCATION));
+  }
+
+  /**
+   * @return the closest (known or guessed) enemy archon to our current location (memoized until we move or archon locations change)
+   * @throws GameActionException if reading archon locations fails
+   */
+  protected MapLocation nearestEnemyArchon() throws GameActionException {
+    if (Memo.isValid(Memo.NEAREST_ENEMY_ARCHON)) return (MapLocation) Memo.object(Memo.NEAREST_ENEMY_ARCHON);
+    return (MapLocation) Memo.store(Memo.NEAREST_ENEMY_ARCHON, communicator.archonInfo.getNearestEnemyArchon(Cache.PerTurn.CURRENT_LOCATION));
+  }
+
   /**
    * check if there are any enemy (soldiers) to run away from
    * @return the map location where there are offensive enemies (null if none)
    */
-  private MapLocation cachedEnemyCentroid;
-  private int cacheStateOnCalcOffensiveEnemyCentroid = -1;
-  protected MapLocation offensiveEnemyCentroid() {
-    if (cacheStateOnCalcOffensiveEnemyCentroid == Cache.PerTurn.cacheState) return cachedEnemyCentroid;
-    cacheStateOnCalcOffensiveEnemyCentroid = Cache.PerTurn.cacheState;
-    if (Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS.length == 0) return (cachedEnemyCentroid = null);
+  protected MapLocation offensiveEnemyCentroid() throws GameActionException {
+    if (Memo.isValid(Memo.OFFENSIVE_ENEMY_CENTROID)) return (MapLocation) Memo.object(Memo.OFFENSIVE_ENEMY_CENTROID);
     int avgX = 0;
     int avgY = 0;
     int count = 0;
-    for (RobotInfo enemy : Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS) {
-      if (enemy.type.damage > 0) { // enemy can hurt me
-        avgX += enemy.location.x * enemy.type.damage;
-        avgY += enemy.location.y * enemy.type.damage;
-        count += enemy.type.damage;
-      }
+    for (int enemy = Cache.PerTurn.snapshotEnemies(); --enemy >= 0; ) { // non-offensive enemies add 0
+      int damage = Cache.PerTurn.ENEMY_DAMAGE[enemy];
+      avgX += Cache.PerTurn.ENEMY_X[enemy] * damage;
+      avgY += Cache.PerTurn.ENEMY_Y[enemy] * damage;
+      count += damage;
     }
-    return (cachedEnemyCentroid = (count == 0 ? null : new MapLocation(avgX / count, avgY / count)));
+    return (MapLocation) Memo.store(Memo.OFFENSIVE_ENEMY_CENTROID, count == 0 ? null : new MapLocation(avgX / count, avgY / count));
   }
 
   /**
    * calculate the average location of friendly soldiers
    * @return the map location where there are offensive enemies (null if none)
    */
-  private MapLocation cachedFriendlyCentroid;
-  private int cacheStateOnCalcFriendlySoldierCentroid = -1;
   public MapLocation friendlySoldierCentroid() {
-    if (cacheStateOnCalcFriendlySoldierCentroid == Cache.PerTurn.cacheState) return cachedFriendlyCentroid;
-    cacheStateOnCalcFriendlySoldierCentroid = Cache.PerTurn.cacheState;
-    if (Cache.PerTurn.ALL_NEARBY_FRIENDLY_ROBOTS.length == 0) return (cachedFriendlyCentroid = null);
+    if (Memo.isValid(Memo.FRIENDLY_SOLDIER_CENTROID)) return (MapLocation) Memo.object(Memo.FRIENDLY_SOLDIER_CENTROID);
+    if (Cache.PerTurn.numFriendly(RobotType.SOLDIER) == 0) return (MapLocation) Memo.store(Memo.FRIENDLY_SOLDIER_CENTROID, null);
     int avgX = 0;
     int avgY = 0;
     int count = 0;
-    for (RobotInfo friend : Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS) {
+    for (RobotInfo friend : Cache.PerTurn.allNearbyFriendlyRobots()) {
       if (friend.type == RobotType.SOLDIER) { // friend can hurt me
         avgX += friend.location.x;
         avgY += friend.location.y;
         count++;
       }
     }
-    return (cachedFriendlyCentroid = (count == 0 ? null : new MapLocation(avgX / count, avgY / count)));
+    return (MapLocation) Memo.store(Memo.FRIENDLY_SOLDIER_CENTROID, count == 0 ? null : new MapLocation(avgX / count, avgY / count));
   }
 
   /**
    * checks if there are offensive enemies nearby
    * @return true if there are enemies in vision
    */
-  protected boolean offensiveEnemiesNearby() {
+  protected boolean offensiveEnemiesNearby() throws GameActionException {
     return offensiveEnemyCentroid() != null;
   }
 
@@ -780,7 +893,7 @@ public abstract class Robot {
     RobotInfo weakestEnemy = null;
     int minHealth = Integer.MAX_VALUE;
 
-    for (RobotInfo enemy : Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS) {
+    for (RobotInfo enemy : Cache.PerTurn.allNearbyEnemyRobots()) {
       if (enemy.type == enemyType && enemy.health < minHealth) {
         minHealth = enemy.health;
         weakestEnemy = enemy;
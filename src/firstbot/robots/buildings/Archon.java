@@ -1,8 +1,13 @@
 package firstbot.robots.buildings;
 
 import battlecode.common.*;
+import firstbot.communications.SharedArrayLayout;
 import firstbot.communications.messages.*;
 import firstbot.utils.Cache;
+import firstbot.utils.OverrunRecorder;
+import firstbot.utils.Profiler;
+import firstbot.utils.RadiusOffsets;
+import firstbot.utils.TerrainMemory;
 import firstbot.utils.Utils;
 
 public class Archon extends Building {
@@ -48,6 +53,11 @@ public class Archon extends Building {
 
 
   private int minimumDistanceToEdge = 60;
+
+  /** scratch coords for RadiusOffsets.clip while picking a low-rubble spot to move to */
+  private final int[] scanXs = new int[RadiusOffsets.COUNT_8];
+  private final int[] scanYs = new int[RadiusOffsets.COUNT_8];
+
   private int bestArchonToSpawnBuilderForLab = -1;
   private boolean labBuilderSpawned;
   private boolean saveUpForBuilderAndLab;
@@ -127,6 +137,8 @@ public class Archon extends Building {
     }
 
     if (rc.getRoundNum() == SUICIDE_ROUND) {
+      Profiler.flush();
+      OverrunRecorder.report();
       rc.resign();
     }
   }
@@ -139,10 +151,7 @@ public class Archon extends Building {
 
 //    Printer.print("num miners in live count: " + communicator.spawnInfo.getMinerLiveCount());
 //    Printer.print("num miners in main count: " + communicator.spawnInfo.getMinerMainCount());
-    if (communicator.spawnInfo.checkFirstArchonToUseArchonInfo()) {
-      // live count gets shifted to main
-//      Printer.print("Archon #" + whichArchonAmI + ": first run");
-    }
+    communicator.spawnInfo.checkFirstArchonToUseArchonInfo();
 //    Printer.print("num miners in live count: " + communicator.spawnInfo.getMinerLiveCount());
 //    Printer.print("num miners in main count: " + communicator.spawnInfo.getMinerMainCount());
 
@@ -236,7 +245,7 @@ public class Archon extends Building {
           communicator.archonInfo.setOurArchonLoc(whichArchonAmI, Cache.PerTurn.CURRENT_LOCATION);
         }
       } else {
-        if (rc.senseRubble(Cache.PerTurn.CURRENT_LOCATION) < MAX_RUBBLE_TO_STOP) {
+        if (TerrainMemory.rubbleAt(Cache.PerTurn.CURRENT_LOCATION) < MAX_RUBBLE_TO_STOP) {
           stopMoving();
         } else {
           MapLocation lowestRubbleLoc = null;
@@ -245,9 +254,14 @@ public class Archon extends Building {
           if (closestCommedEnemy != null) {
             distToClosestCurr = Math.min(distToClosestCurr, distToClosestCommedEnemy);
           }
-          for (MapLocation loc : rc.getAllLocationsWithinRadiusSquared(Cache.PerTurn.CURRENT_LOCATION, Utils.DSQ_2by2)) {
-            if (!rc.isLocationOccupied(loc) && !loc.isWithinDistanceSquared(whereToGo, distToClosestCurr-1)) {
-              int rubble = rc.senseRubble(loc);
+          int numLocs = RadiusOffsets.clip(Cache.PerTurn.CURRENT_LOCATION, RadiusOffsets.COUNT_8, scanXs, scanYs);
+          for (int i = 0; i < numLocs; i++) {
+            int dx = scanXs[i] - whereToGo.x;
+            int dy = scanYs[i] - whereToGo.y;
+            if (dx*dx + dy*dy <= distToClosestCurr-1) continue;
+            MapLocation loc = new MapLocation(scanXs[i], scanYs[i]);
+            if (!rc.isLocationOccupied(loc)) {
+              int rubble = TerrainMemory.rubbleAt(loc);
               if (rubble < lowestRubble) {
                 lowestRubbleLoc = loc;
                 lowestRubble = rubble;
@@ -280,7 +294,7 @@ public class Archon extends Building {
 //    }
 
 //    if (!shouldStop) {
-    for (RobotInfo friend : Cache.PerTurn.ALL_NEARBY_FRIENDLY_ROBOTS) {
+    for (RobotInfo friend : Cache.PerTurn.allNearbyFriendlyRobots()) {
       if (friend.type.damage > 0 && friend.health < CRITICAL_HEALTH_TO_HEAL_LOWEST && Cache.PerTurn.CURRENT_LOCATION.isWithinDistanceSquared(friend.location, Cache.Permanent.ACTION_RADIUS_SQUARED)) { //todo: maybe consider changing to a threshold
 //        shouldStop = true;
         return false;
@@ -293,7 +307,7 @@ public class Archon extends Building {
     if (closestCommedEnemy != null) {
       distToClosestEnemy = Utils.maxSingleAxisDist(closestCommedEnemy, Cache.PerTurn.CURRENT_LOCATION);
     }
-    for (RobotInfo enemy : Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS) {
+    for (RobotInfo enemy : Cache.PerTurn.allNearbyEnemyRobots()) {
       if (enemy.type.damage > 0 || enemy.type == RobotType.ARCHON) {
         distToClosestEnemy = Math.min(distToClosestEnemy, Utils.maxSingleAxisDist(enemy.location, Cache.PerTurn.CURRENT_LOCATION));
       }
@@ -303,7 +317,7 @@ public class Archon extends Building {
       return true;
     }
 
-//    for (RobotInfo ri : Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS) {
+//    for (RobotInfo ri : Cache.PerTurn.allNearbyEnemyRobots()) {
 //      if (ri.type.damage > 0 || ri.type == RobotType.ARCHON) {
 //        shouldStop = true;
 //        return;
@@ -340,7 +354,7 @@ public class Archon extends Building {
     if (closestCommedEnemy != null) {
       distToClosestEnemy = Utils.maxSingleAxisDist(closestCommedEnemy, Cache.PerTurn.CURRENT_LOCATION);
     }
-    for (RobotInfo enemy : Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS) {
+    for (RobotInfo enemy : Cache.PerTurn.allNearbyEnemyRobots()) {
       if (enemy.type.damage > 0 || enemy.type == RobotType.ARCHON) {
         distToClosestEnemy = Math.min(distToClosestEnemy, Utils.maxSingleAxisDist(enemy.location, Cache.PerTurn.CURRENT_LOCATION));
       }
@@ -350,7 +364,7 @@ public class Archon extends Building {
       return true;
     }
 
-//    for (RobotInfo ri : Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS) {
+//    for (RobotInfo ri : Cache.PerTurn.allNearbyEnemyRobots()) {
 //      if (ri.type.damage > 0 || ri.type == RobotType.ARCHON) {
 //        shouldStop = true;
 //        return;
@@ -358,7 +372,7 @@ public class Archon extends Building {
 //    }
 
 //    if (!shouldStop) {
-    for (RobotInfo friend : Cache.PerTurn.ALL_NEARBY_FRIENDLY_ROBOTS) {
+    for (RobotInfo friend : Cache.PerTurn.allNearbyFriendlyRobots()) {
       if (friend.type.damage > 0 && friend.health < CRITICAL_HEALTH_TO_HEAL_LOWEST && Cache.PerTurn.CURRENT_LOCATION.isWithinDistanceSquared(friend.location, Cache.Permanent.ACTION_RADIUS_SQUARED)) { //todo: maybe consider changing to a threshold
 //        shouldStop = true;
         return true;
@@ -407,6 +421,7 @@ public class Archon extends Building {
     communicator.archonInfo.setOurArchonLoc(whichArchonAmI, Cache.PerTurn.CURRENT_LOCATION);
 
     if (whichArchonAmI == 1) {
+      SharedArrayLayout.validate();
       communicator.metaInfo.initializeValidRegion();
     }
 
@@ -422,11 +437,11 @@ public class Archon extends Building {
 
   private void runTeamStartupLogic() throws GameActionException {
 
-    int rubbleHere = rc.senseRubble(Cache.PerTurn.CURRENT_LOCATION);
+    int rubbleHere = TerrainMemory.rubbleAt(Cache.PerTurn.CURRENT_LOCATION);
     int leastRubble = rubbleHere;
     MapLocation leastRubbleLocation = Cache.PerTurn.CURRENT_LOCATION;
     for (MapLocation loc : rc.getAllLocationsWithinRadiusSquared(Cache.PerTurn.CURRENT_LOCATION, Cache.Permanent.VISION_RADIUS_SQUARED)) {
-      int candidateRubble = rc.senseRubble(loc);
+      int candidateRubble = TerrainMemory.rubbleAt(loc);
       if (candidateRubble < leastRubble) {
         leastRubble = candidateRubble;
         leastRubbleLocation = loc;
@@ -460,7 +475,7 @@ public class Archon extends Building {
     int totalRubble = 0;
     int numRubble = 0;
     for (MapLocation loc : rc.getAllLocationsWithinRadiusSquared(Cache.PerTurn.CURRENT_LOCATION, Cache.Permanent.VISION_RADIUS_SQUARED)) {
-      totalRubble += rc.senseRubble(loc);
+      totalRubble += TerrainMemory.rubbleAt(loc);
       numRubble++;
     }
     int avgRubble = totalRubble / numRubble;
@@ -506,23 +521,12 @@ public class Archon extends Building {
     return new ArchonHelloMessage(Cache.PerTurn.CURRENT_LOCATION, false, false, false);
   }
 
-  @Override
-  public void ackMessage(Message message) throws GameActionException {
-    super.ackMessage(message);
-    if (message instanceof ArchonHelloMessage) {
-      ackArchonHello((ArchonHelloMessage) message);
-    } else if (message instanceof ArchonSavedMessage) {
-      ackArchonSaved((ArchonSavedMessage) message);
-    } else if (message instanceof LabBuiltMessage) {
-      ackLabBuilt((LabBuiltMessage) message);
-    }
-  }
-
   /**
    * acknowledge a hello from another archon
-   * @param message the hello
+   * @param encodedLoc the location of the other archon
    */
-  public void ackArchonHello(ArchonHelloMessage message) {
+  @Override
+  public void onArchonHello(int encodedLoc) {
     if (Cache.PerTurn.ROUND_NUM == 1) {
       whichArchonAmI++;
     }
@@ -533,10 +537,11 @@ public class Archon extends Building {
   /**
    * acknowledge save message
    * if saved self, then stop requesting saving
-   * @param message the location of the archon that was saved
+   * @param encodedLoc the location of the archon that was saved
    */
-  private void ackArchonSaved(ArchonSavedMessage message) {
-    if (saveMeRequest != null && message.location.equals(saveMeRequest.location)) {
+  @Override
+  public void onArchonSaved(int encodedLoc) {
+    if (saveMeRequest != null && encodedLoc == Utils.encodeLocationLower(saveMeRequest.location)) {
       saveMeRequest = null;
 //    } else {
 //      System.out.println("Ignore archon saved message: " + (saveMeRequest != null ? saveMeRequest.location : "null") + " vs " + message.location);
@@ -545,9 +550,10 @@ public class Archon extends Building {
 
   /**
    * acknowledge that a lab has been built, stop saving lead
-   * @param message the location of the built lab
+   * @param encodedLoc the location of the built lab
    */
-  private void ackLabBuilt(LabBuiltMessage message) {
+  @Override
+  public void onLabBuilt(int encodedLoc) {
     saveUpForBuilderAndLab = false;
     labBuilderSpawned = true;
 //    System.out.println("ack lab has been built!");
@@ -561,7 +567,7 @@ public class Archon extends Building {
   private void broadcastSaveMe() throws GameActionException {
     MapLocation toSave = offensiveEnemyCentroid();
     int advantage = 0;
-    for (RobotInfo ri : Cache.PerTurn.ALL_NEARBY_ROBOTS) {
+    for (RobotInfo ri : Cache.PerTurn.allNearbyRobots()) {
       if (ri.type.damage > 0) {
         if (ri.team == Cache.Permanent.OUR_TEAM) advantage += ri.health;
         else advantage -= ri.health;
@@ -586,6 +592,7 @@ public class Archon extends Building {
     if (buildRobotInDirLoose(RobotType.BUILDER, dirToCorner) || buildRobot(RobotType.BUILDER, getLeastRubbleUnoccupiedDir())) {
       rc.setIndicatorString("Spawn builder!");
       buildersSpawned++;
+      communicator.census.countSpawned(RobotType.BUILDER);
       leadSpent += RobotType.BUILDER.buildCostLead;
       return true;
     }
@@ -620,7 +627,7 @@ public class Archon extends Building {
           rc.setIndicatorString("Spawn miner!");
           minersSpawned++;
           leadSpent += RobotType.MINER.buildCostLead;
-          communicator.spawnInfo.incrMinerMainAndLiveCount();
+          communicator.census.countSpawned(RobotType.MINER);
           return true;
         }
         break;
@@ -628,6 +635,7 @@ public class Archon extends Building {
         if (buildRobot(RobotType.BUILDER, Utils.randomDirection()) || buildRobot(RobotType.BUILDER, getLeastRubbleUnoccupiedDir())) {
           rc.setIndicatorString("Spawn builder!");
           buildersSpawned++;
+          communicator.census.countSpawned(RobotType.BUILDER);
           leadSpent += RobotType.BUILDER.buildCostLead;
           return true;
         }
@@ -636,6 +644,7 @@ public class Archon extends Building {
         if (buildRobot(RobotType.SOLDIER, Utils.randomDirection()) || buildRobot(RobotType.SOLDIER, getLeastRubbleUnoccupiedDir())) {
           rc.setIndicatorString("Spawn soldier!");
           soldiersSpawned++;
+          communicator.census.countSpawned(RobotType.SOLDIER);
           leadSpent += RobotType.SOLDIER.buildCostLead;
           return true;
         }
@@ -644,6 +653,7 @@ public class Archon extends Building {
         if (buildRobot(RobotType.SAGE, Utils.randomDirection()) || buildRobot(RobotType.SAGE, getLeastRubbleUnoccupiedDir())) {
           rc.setIndicatorString("Spawn sage!");
           sagesSpawned++;
+          communicator.census.countSpawned(RobotType.SAGE);
 //          leadSpent += RobotType.SAGE.buildCostLead;
           return true;
         }
@@ -676,7 +686,7 @@ public class Archon extends Building {
     // TODO: something based on lead income
 
     return labBuilderSpawned
-            ? communicator.spawnInfo.getMinerMainCount() < communicator.spawnInfo.getNumMinersNeeded()
+            ? communicator.census.getCount(RobotType.MINER) < communicator.spawnInfo.getNumMinersNeeded()
             : minersSpawned < initialMinersToSpawn;
 
 //    return minersSpawned < initialMinersToSpawn
@@ -725,7 +735,7 @@ public class Archon extends Building {
     RobotInfo lowestOtherHealthFriend = null;
     RobotInfo higherOtherHealthFriend = null;
 
-    for (RobotInfo friend : Cache.PerTurn.ALL_NEARBY_FRIENDLY_ROBOTS) {
+    for (RobotInfo friend : Cache.PerTurn.allNearbyFriendlyRobots()) {
       if (RobotType.ARCHON.canRepair(friend.type) && Cache.PerTurn.CURRENT_LOCATION.isWithinDistanceSquared(friend.location, Cache.Permanent.ACTION_RADIUS_SQUARED)) {
         if (friend.type.damage > 0) {
           if ((lowestHealthFriend == null || friend.health < lowestHealthFriend.health) && friend.health < CRITICAL_HEALTH_TO_HEAL_LOWEST) {
@@ -4,7 +4,10 @@ import battlecode.common.GameActionException;
 import battlecode.common.MapLocation;
 import battlecode.common.RobotController;
 import battlecode.common.RobotMode;
+import battlecode.common.RobotType;
 import firstbot.utils.Cache;
+import firstbot.utils.RadiusOffsets;
+import firstbot.utils.TerrainMemory;
 import firstbot.utils.Utils;
 
 public class Laboratory extends Building {
@@ -44,7 +47,7 @@ public class Laboratory extends Building {
 //    }
 
 
-    if (!moving && rc.senseRubble(Cache.PerTurn.CURRENT_LOCATION) > 0) shouldMoveToBetterLocation(); // only run if we aren't moving yet
+    if (!moving && TerrainMemory.rubbleAt(Cache.PerTurn.CURRENT_LOCATION) > 0) shouldMoveToBetterLocation(); // only run if we aren't moving yet
 
     if (whereToGo != null && Cache.PerTurn.CURRENT_LOCATION.equals(whereToGo) && rc.getMode() == RobotMode.PORTABLE) {
       if (rc.canTransform()) {
@@ -52,7 +55,7 @@ public class Laboratory extends Building {
       }
     }
 
-    if (!moving && rc.getTeamLeadAmount(Cache.Permanent.OUR_TEAM) >= MIN_LEAD_TO_TRANSMUTE && communicator.spawnInfo.getMinerMainCount() >= MIN_MINERS_TO_TRANSMUTE && rc.canTransmute()) {
+    if (!moving && rc.getTeamLeadAmount(Cache.Permanent.OUR_TEAM) >= MIN_LEAD_TO_TRANSMUTE && communicator.census.getCount(RobotType.MINER) >= MIN_MINERS_TO_TRANSMUTE && rc.canTransmute()) {
       rc.transmute();
     }
 
@@ -81,6 +84,9 @@ public class Laboratory extends Building {
 
   private boolean moving;
   private MapLocation whereToGo;
+  /** scratch coords for RadiusOffsets.clip in findBetterRubbleSquare */
+  private final int[] scanXs = new int[RadiusOffsets.COUNT_34];
+  private final int[] scanYs = new int[RadiusOffsets.COUNT_34];
 
   // only called if we are not movings
   private boolean shouldMoveToBetterLocation() throws GameActionException {
@@ -106,18 +112,20 @@ public class Laboratory extends Building {
             Cache.PerTurn.CURRENT_LOCATION.x <= Cache.Permanent.MAP_WIDTH / 2 ? 0 : (Cache.Permanent.MAP_WIDTH-1),
             Cache.PerTurn.CURRENT_LOCATION.y <= Cache.Permanent.MAP_HEIGHT / 2 ? 0 : (Cache.Permanent.MAP_HEIGHT-1));
 
-    int currentRubbleSquare = rc.senseRubble(Cache.PerTurn.CURRENT_LOCATION);
+    int currentRubbleSquare = TerrainMemory.rubbleAt(Cache.PerTurn.CURRENT_LOCATION);
 
     MapLocation bestLabLocation = null;
     int bestRubbleAtLocation = 101;
     int bestDistance = 101;
     int bestDistanceToCorner = 101;
 
-    for (MapLocation loc : rc.getAllLocationsWithinRadiusSquared(Cache.PerTurn.CURRENT_LOCATION, 34)) {
+    int numLocs = RadiusOffsets.clip(Cache.PerTurn.CURRENT_LOCATION, RadiusOffsets.COUNT_34, scanXs, scanYs);
+    for (int i = 0; i < numLocs; i++) {
+      MapLocation loc = new MapLocation(scanXs[i], scanYs[i]);
       if (!rc.canSenseLocation(loc) || rc.isLocationOccupied(loc)) continue;
 
       int candidateDistance = Utils.maxSingleAxisDist(loc, Cache.PerTurn.CURRENT_LOCATION);
-      int candidateRubble = rc.senseRubble(loc);
+      int candidateRubble = TerrainMemory.rubbleAt(loc);
       int candidateDistanceToCorner = loc.distanceSquaredTo(corner);//.maxSingleAxisDist(loc, corner);
       if (currentRubbleSquare <= candidateRubble) continue;
       if (candidateRubble < bestRubbleAtLocation) {
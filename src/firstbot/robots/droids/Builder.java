@@ -3,6 +3,8 @@ package firstbot.robots.droids;
 import battlecode.common.*;
 import firstbot.communications.messages.LabBuiltMessage;
 import firstbot.utils.Cache;
+import firstbot.utils.RadiusOffsets;
+import firstbot.utils.TerrainMemory;
 import firstbot.utils.Utils;
 
 public class Builder extends Droid {
@@ -23,6 +25,10 @@ public class Builder extends Droid {
   MapLocation corner;
   int archonDistanceToCorner;
 
+  /** scratch coords for RadiusOffsets.clip2 in findBestBuildSpot */
+  private final int[] spotXs = new int[RadiusOffsets.COUNT_2];
+  private final int[] spotYs = new int[RadiusOffsets.COUNT_2];
+
   public Builder(RobotController rc) throws GameActionException {
     super(rc);
     MapLocation myLoc = Cache.PerTurn.CURRENT_LOCATION;
@@ -40,7 +46,7 @@ public class Builder extends Droid {
     if (archonDistanceToCorner < MIN_LAB_CORNER_DIST) archonDistanceToCorner = MIN_LAB_CORNER_DIST;
     bestLocationToSpawnLab = findBestLabSpawnLocation();
 
-    IS_FARMER = communicator.spawnInfo.getMinerMainCount() >= communicator.spawnInfo.getNumMinersNeeded()
+    IS_FARMER = communicator.census.getCount(RobotType.MINER) >= communicator.spawnInfo.getNumMinersNeeded()
             && rc.getTeamGoldAmount(Cache.Permanent.OUR_TEAM) >= 5
             && Utils.rng.nextInt(15) < 14;
   }
@@ -61,7 +67,7 @@ public class Builder extends Droid {
       int candidateDistanceToCorner = Utils.maxSingleAxisDist(loc, corner);
 //      Printer.print("candidateDistanceToCorner " + candidateDistanceToCorner, "archonDistanceToCorner: " + archonDistanceToCorner);
       if (candidateDistanceToCorner <= archonDistanceToCorner) {
-        int candidateRubble = rc.senseRubble(loc);
+        int candidateRubble = TerrainMemory.rubbleAt(loc);
 //        Printer.print("candidateRubble " + candidateRubble, "bestRubbleAtLocation: " + bestRubbleAtLocation);
         if (candidateRubble < bestRubbleAtLocation) {
           bestLabLocation = loc;
@@ -81,9 +87,11 @@ public class Builder extends Droid {
   private MapLocation findBestBuildSpot(MapLocation spawnLocation) throws GameActionException {
     MapLocation bestBuildSpot = null;
     int rubbleAtBest = 9999;
-    for (MapLocation loc : rc.getAllLocationsWithinRadiusSquared(spawnLocation, Utils.DSQ_1by1)) {
-      if (!rc.canSenseLocation(loc) || (rc.isLocationOccupied(loc) && !Cache.PerTurn.CURRENT_LOCATION.equals(loc)) || spawnLocation.equals(loc)) continue;
-      int rubble = rc.senseRubble(loc);
+    int numSpots = RadiusOffsets.clip2(spawnLocation, spotXs, spotYs);
+    for (int i = 1; i < numSpots; i++) { // skip the first coord (the spawn location itself)
+      MapLocation loc = new MapLocation(spotXs[i], spotYs[i]);
+      if (!rc.canSenseLocation(loc) || (rc.isLocationOccupied(loc) && !Cache.PerTurn.CURRENT_LOCATION.equals(loc))) continue;
+      int rubble = TerrainMemory.rubbleAt(loc);
       if (rubble < rubbleAtBest) {
         bestBuildSpot = loc;
         rubbleAtBest = rubble;
@@ -97,7 +105,7 @@ public class Builder extends Droid {
     int rubbleAtBest = 9999;
     for (MapLocation loc : rc.getAllLocationsWithinRadiusSquared(buildingToRepair, Cache.Permanent.ACTION_RADIUS_SQUARED)) {
       if (!rc.canSenseLocation(loc) || (rc.isLocationOccupied(loc) && !Cache.PerTurn.CURRENT_LOCATION.equals(loc))) continue;
-      int rubble = rc.senseRubble(loc);
+      int rubble = TerrainMemory.rubbleAt(loc);
       if (rubble < rubbleAtBest) {
         bestRepairSpot = loc;
         rubbleAtBest = rubble;
@@ -113,7 +121,7 @@ public class Builder extends Droid {
     for (MapLocation location : rc.getAllLocationsWithinRadiusSquared(Cache.PerTurn.CURRENT_LOCATION, Cache.Permanent.VISION_RADIUS_SQUARED)) {
       // if there is an unoccupied location with 0 lead
       if (rc.canSenseLocation(location) && !rc.isLocationOccupied(location) && rc.senseLead(location) == 0) {
-        int candidateRubble = rc.senseRubble(location);
+        int candidateRubble = TerrainMemory.rubbleAt(location);
         int candidateDistance = Utils.maxSingleAxisDist(location, corner);
         if (candidateRubble < bestRubbleAtLocation) {
           bestFarmLocation = location;
@@ -215,7 +223,7 @@ public class Builder extends Droid {
     }
 
     if (Clock.getBytecodesLeft() > 4000 && myBuilding == null) {
-      for (RobotInfo friend : Cache.PerTurn.ALL_NEARBY_FRIENDLY_ROBOTS) {
+      for (RobotInfo friend : Cache.PerTurn.allNearbyFriendlyRobots()) {
         if (friend.type.isBuilding() && friend.mode == RobotMode.PROTOTYPE) {
           myBuilding = friend.location;
           IS_FARMER = false;
@@ -226,10 +234,7 @@ public class Builder extends Droid {
   }
 
   private boolean hasBuildersNearby() {
-    for (RobotInfo friend : Cache.PerTurn.ALL_NEARBY_FRIENDLY_ROBOTS) {
-      if (friend.type == RobotType.BUILDER) return true;
-    }
-    return false;
+    return Cache.PerTurn.numFriendly(RobotType.BUILDER) > 0;
   }
 
   /**
@@ -238,7 +243,7 @@ public class Builder extends Droid {
    * @return true if enough space to build around self
    */
   private boolean checkSpaceToBuild() throws GameActionException {
-    for (RobotInfo friend : Cache.PerTurn.ALL_NEARBY_FRIENDLY_ROBOTS) {
+    for (RobotInfo friend : Cache.PerTurn.allNearbyFriendlyRobots()) {
       if (friend.type.isBuilding() && friend.location.isWithinDistanceSquared(Cache.PerTurn.CURRENT_LOCATION, Utils.DSQ_1by1)) {
         return false;
       }
@@ -1,9 +1,14 @@
 package firstbot.robots.droids;
 
 import battlecode.common.*;
+import firstbot.communications.Communicator;
 import firstbot.robots.Robot;
+import firstbot.utils.Budget;
 import firstbot.utils.Cache;
+import firstbot.utils.OverrunRecorder;
 import firstbot.utils.Printer;
+import firstbot.utils.Profiler;
+import firstbot.utils.TerrainMemory;
 import firstbot.utils.Utils;
 
 public abstract class Droid extends Robot {
@@ -23,6 +28,8 @@ public abstract class Droid extends Robot {
   protected int turnsExploring;
   /** true if the exploration target is set to random location instead of unexplored lands */
   protected boolean exploringRandomly = false;
+  /** the chunk center picked from the exploration bitmap (null if the target came from somewhere else) */
+  private MapLocation unexploredChunkTarget;
 
   protected boolean needToRunHomeForSaving;
   protected boolean needToRunHomeForSuicide;
@@ -49,7 +56,7 @@ public abstract class Droid extends Robot {
   protected void runTurnTypeWrapper() throws GameActionException {
 
 //    needToRunHomeForSaving = false;
-    int distance = Utils.maxSingleAxisDist(Cache.PerTurn.CURRENT_LOCATION, communicator.archonInfo.getNearestFriendlyArchon(Cache.PerTurn.CURRENT_LOCATION));
+    int distance = Utils.maxSingleAxisDist(Cache.PerTurn.CURRENT_LOCATION, nearestFriendlyArchon());
 
     if (this instanceof Soldier) {
 //      rc.setIndicatorString(Cache.PerTurn.HEALTH + "/" + Cache.Permanent.MAX_HEALTH);
@@ -87,14 +94,14 @@ public abstract class Droid extends Robot {
       leaveArchon = false;
     }
 
-    isMovementDisabled = (needToRunHomeForSaving || needToRunHomeForSuicide) && !Cache.PerTurn.CURRENT_LOCATION.isWithinDistanceSquared(communicator.archonInfo.getNearestFriendlyArchon(Cache.PerTurn.CURRENT_LOCATION), RobotType.ARCHON.actionRadiusSquared/2);
+    isMovementDisabled = (needToRunHomeForSaving || needToRunHomeForSuicide) && !Cache.PerTurn.CURRENT_LOCATION.isWithinDistanceSquared(nearestFriendlyArchon(), RobotType.ARCHON.actionRadiusSquared/2);
 
 //    Printer.print("needToRunHomeForSaving: " + needToRunHomeForSaving, "needToRunHomeForSuicide: " + needToRunHomeForSuicide);
 //    Printer.print("parentArchonLoc: " + parentArchonLoc, "distance: " + distance);
     runTurn();
 //    Printer.print("aCD: " + rc.getActionCooldownTurns(), "mCD: " + rc.getMovementCooldownTurns());
     if (needToRunHomeForSaving || needToRunHomeForSuicide) {
-      MapLocation whereToRun = communicator.archonInfo.getNearestFriendlyArchon(Cache.PerTurn.CURRENT_LOCATION);
+      MapLocation whereToRun = nearestFriendlyArchon();
       whereToRun = checkMovingArchonToRunTowards(whereToRun);
       runHome(whereToRun);
     }
@@ -102,7 +109,8 @@ public abstract class Droid extends Robot {
   }
 
   protected MapLocation checkMovingArchonToRunTowards(MapLocation currentTarget) {
-    for (RobotInfo friend : Cache.PerTurn.ALL_NEARBY_FRIENDLY_ROBOTS) {
+    if (Cache.PerTurn.numFriendly(RobotType.ARCHON) == 0) return currentTarget;
+    for (RobotInfo friend : Cache.PerTurn.allNearbyFriendlyRobots()) {
       if (friend.type == RobotType.ARCHON && friend.mode == RobotMode.PORTABLE) return friend.location;
     }
     return currentTarget;
@@ -117,7 +125,7 @@ public abstract class Droid extends Robot {
    */
   public boolean runHome(MapLocation archonLocation) throws GameActionException {
     if (rc.canSenseRobotAtLocation(archonLocation) && rc.senseRobotAtLocation(archonLocation).type != RobotType.ARCHON) {
-      Printer.print("ERROR: archonLocation is not an archon " + archonLocation, "archon probably dead, replacing wit nearest...");
+      if (Printer.LOG_ERROR) Printer.log(Printer.EVENT_OUR_ARCHON_MISSING, archonLocation.x, archonLocation.y);
       archonLocation = communicator.archonInfo.replaceOurArchon(archonLocation);
     }
 //    Printer.print("RUNNING runHome():", "archonLocation: " + archonLocation);
@@ -128,7 +136,11 @@ public abstract class Droid extends Robot {
       }
       return moveOptimalTowards(archonLocation);
     } else {
-      if (needToRunHomeForSuicide && rc.senseLead(Cache.PerTurn.CURRENT_LOCATION) == 0) rc.disintegrate();
+      if (needToRunHomeForSuicide && rc.senseLead(Cache.PerTurn.CURRENT_LOCATION) == 0) {
+        Profiler.flush();
+        OverrunRecorder.report();
+        rc.disintegrate();
+      }
 
       if (!rc.isMovementReady()) return false;
 
@@ -275,6 +287,13 @@ public abstract class Droid extends Robot {
 //    Printer.print("RUNNING randomizeExplorationTarget(): ");
     switch (Cache.Permanent.ROBOT_TYPE) {
       case MINER:
+        unexploredChunkTarget = communicator.chunkInfo.centerOfClosestUnexploredChunk(Cache.PerTurn.CURRENT_LOCATION,
+            Math.min(Communicator.ChunkInfo.MAX_SEARCH_BYTECODES, Budget.available(Budget.SENSING)));
+        if (unexploredChunkTarget != null) {
+          explorationTarget = unexploredChunkTarget;
+          exploringRandomly = false;
+          return;
+        }
         if (Utils.rng.nextInt(5)<2) {
 //          MapLocation oldTarget = explorationTarget;
 //          int tries = 10;
@@ -292,10 +311,13 @@ public abstract class Droid extends Robot {
         break;
       case SOLDIER:
       case SAGE:
-        explorationTarget = communicator.archonInfo.getNearestEnemyArchon(Cache.PerTurn.CURRENT_LOCATION);
-        if (rc.canSenseRobotAtLocation(explorationTarget) && rc.senseRobotAtLocation(explorationTarget).type != RobotType.ARCHON) {
-          Printer.print("ERROR: archonLocation is not an archon " + explorationTarget, "archon probably dead, replacing with nearest...");
-          explorationTarget = communicator.archonInfo.replaceEnemyArchon(explorationTarget);
+        explorationTarget = communicator.heatmap.hottestCell(Cache.PerTurn.CURRENT_LOCATION); // go where the team has seen enemies recently
+        if (explorationTarget == null) {
+          explorationTarget = nearestEnemyArchon();
+          if (rc.canSenseRobotAtLocation(explorationTarget) && rc.senseRobotAtLocation(explorationTarget).type != RobotType.ARCHON) {
+            if (Printer.LOG_ERROR) Printer.log(Printer.EVENT_ENEMY_ARCHON_MISSING, explorationTarget.x, explorationTarget.y);
+            explorationTarget = communicator.archonInfo.replaceEnemyArchon(explorationTarget);
+          }
         }
         if (((Soldier)this).checkNeedToStayOnSafeSide()) {
           MapLocation friendly = communicator.archonInfo.getNearestFriendlyArchon(explorationTarget);
@@ -390,8 +412,8 @@ public abstract class Droid extends Robot {
   protected boolean checkTooMuchRubbleOnPathToExploration(Direction desired) throws GameActionException {
     if (!exploringRandomly) return false;
     MapLocation newLoc = Cache.PerTurn.CURRENT_LOCATION.add(desired);
-    int rubbleThere = rc.senseRubble(newLoc);
-    int myRubble1p5 = (int) (1.5 * rc.senseRubble(Cache.PerTurn.CURRENT_LOCATION));
+    int rubbleThere = TerrainMemory.rubbleAt(newLoc);
+    int myRubble1p5 = (int) (1.5 * TerrainMemory.rubbleAt(Cache.PerTurn.CURRENT_LOCATION));
     if (((this instanceof Soldier && rubbleThere >= 25 && rubbleThere > myRubble1p5)
             || (this instanceof Miner && rubbleThere >= 50 && rubbleThere > myRubble1p5)
     )) {
@@ -449,6 +471,9 @@ public abstract class Droid extends Robot {
     // if we are explorating smartly and the chunk has been explored already
 //    System.out.println("  " + Cache.PerTurn.CURRENT_LOCATION + " - \nexploringRandomly: " + exploringRandomly + "\nExploration target: " + explorationTarget + "\nalready explored: " + !communicator.chunkInfo.chunkIsGoodForMinerExploration(explorationTarget));
 //    Printer.print("explorationTarget: " + explorationTarget);
+    if (explorationTarget == unexploredChunkTarget && explorationTarget != null && communicator.chunkInfo.chunkHasBeenExplored(explorationTarget)) {
+      randomizeExplorationTarget(true); // someone else got there first
+    }
     if (goToExplorationTarget()) {
       MapLocation oldTarget = explorationTarget;
       randomizeExplorationTarget(true);
@@ -4,7 +4,7 @@ import battlecode.common.*;
 import firstbot.utils.Cache;
 import firstbot.utils.Global;
 import firstbot.utils.Printer;
-import firstbot.utils.Utils;
+import firstbot.utils.TerrainMemory;
 
 public abstract class MicroInfo<T extends MicroInfo<T, U>, U extends Soldier> {
 
@@ -13,6 +13,8 @@ public abstract class MicroInfo<T extends MicroInfo<T, U>, U extends Soldier> {
   public final Direction direction;
   public final boolean isMovement;
 
+  static final int NO_ENEMY = -1;
+
   public static int getPriority(RobotType type) {
     switch (type) {
       case SAGE:
@@ -43,10 +45,10 @@ public abstract class MicroInfo<T extends MicroInfo<T, U>, U extends Soldier> {
   /**
    * update the microinfo option with the provided enemy within current vision radius
    *    info should decide if this enemy is relevant to it or not
-   * @param nextEnemy the enemy to register with the microinfo
+   * @param enemy index of the enemy in the Cache.PerTurn enemy snapshot (must be taken this cacheState)
    * @throws GameActionException if updating fails
    */
-  public abstract void update(RobotInfo nextEnemy) throws GameActionException;
+  public abstract void update(int enemy) throws GameActionException;
 
   /**
    * finalize any information that was collected from the updates
@@ -78,10 +80,12 @@ public abstract class MicroInfo<T extends MicroInfo<T, U>, U extends Soldier> {
     double enemyDPS;
     double friendlyDPS;
 
+    int closestOffensiveIndex = NO_ENEMY;
     RobotInfo closestOffensive;
     int distToClosestOffensive = 9999;
     boolean shouldMoveInAnyways;
 
+    int bestTargetIndex = NO_ENEMY;
     RobotInfo bestTarget;
     int distToTarget = 9999;
     boolean hasTarget;
@@ -102,7 +106,7 @@ public abstract class MicroInfo<T extends MicroInfo<T, U>, U extends Soldier> {
 
     public MicroInfoSoldiers(Soldier soldier, Direction direction) throws GameActionException {
       super(soldier, direction);
-      this.rubble = Global.rc.senseRubble(location);
+      this.rubble = TerrainMemory.rubbleAt(location);
       this.distanceToEnemyArchon = this.distanceToFriendlyArchon = 0;
 //      this.distanceToFriendlyArchon = Global.communicator.archonInfo.getNearestFriendlyArchon(location).distanceSquaredTo(location);
 //      this.distanceToEnemyArchon = Global.communicator.archonInfo.getNearestEnemyArchon(location).distanceSquaredTo(location);
@@ -111,66 +115,64 @@ public abstract class MicroInfo<T extends MicroInfo<T, U>, U extends Soldier> {
     }
 
     @Override
-    public void update(RobotInfo nextEnemy) throws GameActionException {
-      if (nextEnemy.type.damage > 0) {
-        totalOffensiveEnemies++;
-        if (nextEnemy.location.isWithinDistanceSquared(location, distToClosestOffensive - 1)) {
-          closestOffensive = nextEnemy;
-          distToClosestOffensive = nextEnemy.location.distanceSquaredTo(location);
-        }
-        if (location.isWithinDistanceSquared(nextEnemy.location, nextEnemy.type.actionRadiusSquared)) {
-          numOffendingEnemies++;
-          if (nextEnemy.type == RobotType.SAGE) {
-            numOffendingSages++;
-          }
-          double turnsTillNextCooldown = Utils.turnsTillNextCooldown(nextEnemy.type.actionCooldown, Global.rc.senseRubble(nextEnemy.location));
-          enemyDPS += (nextEnemy.type.damage / turnsTillNextCooldown);
-        }
-      } else { // TODO remove and make it work for any enemy
-        return;
+    public void update(int enemy) throws GameActionException {
+      if (Cache.PerTurn.ENEMY_DAMAGE[enemy] <= 0) return; // TODO remove and make it work for any enemy
+      totalOffensiveEnemies++;
+      int dx = Cache.PerTurn.ENEMY_X[enemy] - location.x;
+      int dy = Cache.PerTurn.ENEMY_Y[enemy] - location.y;
+      int dist = dx * dx + dy * dy;
+      if (dist < distToClosestOffensive) {
+        closestOffensiveIndex = enemy;
+        distToClosestOffensive = dist;
       }
-      if (!nextEnemy.location.isWithinDistanceSquared(location, Cache.Permanent.ACTION_RADIUS_SQUARED)
-              && !nextEnemy.location.isWithinDistanceSquared(Cache.PerTurn.CURRENT_LOCATION, Cache.Permanent.ACTION_RADIUS_SQUARED)) {
-        return;
+      if (dist <= Cache.PerTurn.ENEMY_ACTION_RADIUS[enemy]) {
+        numOffendingEnemies++;
+        if (Cache.PerTurn.ENEMY_TYPE[enemy] == RobotType.SAGE) {
+          numOffendingSages++;
+        }
+        enemyDPS += Cache.PerTurn.ENEMY_DPS[enemy];
       }
-      if (bestTarget == null) {
-        bestTarget = nextEnemy;
-        distToTarget = nextEnemy.location.distanceSquaredTo(location);
+      if (dist > Cache.Permanent.ACTION_RADIUS_SQUARED
+              && Cache.PerTurn.ENEMY_DISTANCE[enemy] > Cache.Permanent.ACTION_RADIUS_SQUARED) {
         return;
       }
-      if (getPriority(nextEnemy.type) > getPriority(bestTarget.type)) {
-        bestTarget = nextEnemy;
-        distToTarget = nextEnemy.location.distanceSquaredTo(location);
+      int priority = getPriority(Cache.PerTurn.ENEMY_TYPE[enemy]);
+      if (bestTargetIndex == NO_ENEMY || priority > targetPriority) {
+        bestTargetIndex = enemy;
+        targetPriority = priority;
+        distToTarget = dist;
         return;
-      } else if (getPriority(nextEnemy.type) < getPriority(bestTarget.type)) {
+      } else if (priority < targetPriority) {
         return;
       }
-      if (nextEnemy.health < bestTarget.health) {
-        bestTarget = nextEnemy;
-        distToTarget = nextEnemy.location.distanceSquaredTo(location);
+      int health = Cache.PerTurn.ENEMY_HP[enemy];
+      int bestHealth = Cache.PerTurn.ENEMY_HP[bestTargetIndex];
+      if (health < bestHealth) {
+        bestTargetIndex = enemy;
+        distToTarget = dist;
         return;
-      } else if (nextEnemy.health > bestTarget.health) {
+      } else if (health > bestHealth) {
         return;
       }
-      if (nextEnemy.location.isWithinDistanceSquared(location, distToTarget - 1)) {
-        bestTarget = nextEnemy;
-        distToTarget = nextEnemy.location.distanceSquaredTo(location);
-        return;
+      if (dist < distToTarget) {
+        bestTargetIndex = enemy;
+        distToTarget = dist;
       }
     }
 
     @Override
     public void finalizeInfo() throws GameActionException {
+      if (bestTargetIndex != NO_ENEMY) bestTarget = Cache.PerTurn.ENEMIES[bestTargetIndex];
+      if (closestOffensiveIndex != NO_ENEMY) closestOffensive = Cache.PerTurn.ENEMIES[closestOffensiveIndex];
       hasTarget = Global.rc.isActionReady() && this.bestTarget != null;
       if (hasTarget) {
-        targetPriority = getPriority(bestTarget.type);
-        rubbleOfTarget = Global.rc.senseRubble(bestTarget.location);
+        rubbleOfTarget = Cache.PerTurn.ENEMY_RUBBLE[bestTargetIndex];
 
         // one enemy at edge of action and no others, we are attacking then moving away
-        isAttackAndExit = !location.isWithinDistanceSquared(bestTarget.location, bestTarget.type.actionRadiusSquared);
+        isAttackAndExit = distToTarget > Cache.PerTurn.ENEMY_ACTION_RADIUS[bestTargetIndex];
         // only do so if there was just that one enemy
         shouldAttackAndExit = (isAttackAndExit
-                && rubble <= Global.rc.senseRubble(Cache.PerTurn.CURRENT_LOCATION) && ( // TODO: numOffending=0 doesn't account for going from 2 -> 1 enemies
+                && rubble <= TerrainMemory.rubbleAt(Cache.PerTurn.CURRENT_LOCATION) && ( // TODO: numOffending=0 doesn't account for going from 2 -> 1 enemies
                 bestTarget.type.damage <= 0
                         || (numOffendingEnemies == 0)))
                 || (numOffendingEnemies <= 1 && bestTarget.health <= Cache.Permanent.ROBOT_TYPE.damage)
@@ -182,7 +184,7 @@ public abstract class MicroInfo<T extends MicroInfo<T, U>, U extends Soldier> {
 
 
         // no enemies in current action, but one enemy in vision which we are moving towards
-        isMovingInToAttack = !bestTarget.location.isWithinDistanceSquared(Cache.PerTurn.CURRENT_LOCATION, Cache.Permanent.ACTION_RADIUS_SQUARED);
+        isMovingInToAttack = Cache.PerTurn.ENEMY_DISTANCE[bestTargetIndex] > Cache.Permanent.ACTION_RADIUS_SQUARED;
         // only move in if it's a 1v1 and rubble is less than the enemy's
         // TODO: potentially replace numOffensive=1 with something based on enemyDPS (which is based on rubble of enemies)
         shouldMoveInToAttack = isMovingInToAttack
@@ -215,11 +217,9 @@ public abstract class MicroInfo<T extends MicroInfo<T, U>, U extends Soldier> {
       } else if (closestOffensive != null) { // no target but we have an offensive enemy in sight
         // approach the enemy (vision -> vision)
         shouldMoveInAnyways = totalOffensiveEnemies <= 1
-                && rubble <= Global.rc.senseRubble(closestOffensive.location)
+                && rubble <= Cache.PerTurn.ENEMY_RUBBLE[closestOffensiveIndex]
                 && Global.rc.getActionCooldownTurns() < 20
-                && !Cache.PerTurn.CURRENT_LOCATION.isWithinDistanceSquared(
-                closestOffensive.location,
-                distToClosestOffensive);
+                && Cache.PerTurn.ENEMY_DISTANCE[closestOffensiveIndex] > distToClosestOffensive;
       } else {
         isBadIdea = true;
       }
@@ -289,7 +289,7 @@ public abstract class MicroInfo<T extends MicroInfo<T, U>, U extends Soldier> {
     public boolean execute() throws GameActionException {
       boolean attacked = false;
       this.robotDoingMicro.lastAttackedEnemy = this.bestTarget;
-      if (this.hasTarget && this.bestTarget.location.isWithinDistanceSquared(Cache.PerTurn.CURRENT_LOCATION, Cache.Permanent.ACTION_RADIUS_SQUARED) && this.rubble <= Global.rc.senseRubble(Cache.PerTurn.CURRENT_LOCATION)) {
+      if (this.hasTarget && this.bestTarget.location.isWithinDistanceSquared(Cache.PerTurn.CURRENT_LOCATION, Cache.Permanent.ACTION_RADIUS_SQUARED) && this.rubble <= TerrainMemory.rubbleAt(Cache.PerTurn.CURRENT_LOCATION)) {
         attacked = this.robotDoingMicro.attackTarget(bestTarget.location);
       }
       this.robotDoingMicro.move(Cache.PerTurn.CURRENT_LOCATION.directionTo(location));
@@ -327,10 +327,12 @@ public abstract class MicroInfo<T extends MicroInfo<T, U>, U extends Soldier> {
     double enemyDPS;
     double friendlyDPS;
 
+    int closestOffensiveIndex = NO_ENEMY;
     RobotInfo closestOffensive;
     int distToClosestOffensive = 9999;
     boolean shouldMoveInAnyways;
 
+    int bestTargetIndex = NO_ENEMY;
     RobotInfo bestTarget;
     int distToTarget = 9999;
     boolean hasTarget;
@@ -351,7 +353,7 @@ public abstract class MicroInfo<T extends MicroInfo<T, U>, U extends Soldier> {
 
     public MicroInfoSages(Sage sage, Direction direction) throws GameActionException {
       super(sage, direction);
-      this.rubble = Global.rc.senseRubble(location);
+      this.rubble = TerrainMemory.rubbleAt(location);
       this.distanceToEnemyArchon = this.distanceToFriendlyArchon = 0;
 //      this.distanceToFriendlyArchon = Global.communicator.archonInfo.getNearestFriendlyArchon(location).distanceSquaredTo(location);
 //      this.distanceToEnemyArchon = Global.communicator.archonInfo.getNearestEnemyArchon(location).distanceSquaredTo(location);
@@ -360,66 +362,64 @@ public abstract class MicroInfo<T extends MicroInfo<T, U>, U extends Soldier> {
     }
 
     @Override
-    public void update(RobotInfo nextEnemy) throws GameActionException {
-      if (nextEnemy.type.damage > 0) {
-        totalOffensiveEnemies++;
-        if (nextEnemy.location.isWithinDistanceSquared(location, distToClosestOffensive-1)) {
-          closestOffensive = nextEnemy;
-          distToClosestOffensive = nextEnemy.location.distanceSquaredTo(location);
-        }
-        if (location.isWithinDistanceSquared(nextEnemy.location, nextEnemy.type.actionRadiusSquared)) {
-          numOffendingEnemies++;
-          double turnsTillNextCooldown = Utils.turnsTillNextCooldown(nextEnemy.type.actionCooldown, Global.rc.senseRubble(nextEnemy.location));
-          enemyDPS += (nextEnemy.type.damage / turnsTillNextCooldown);
-        }
-      } else { // TODO remove and make it work for any enemy
-        return;
+    public void update(int enemy) throws GameActionException {
+      if (Cache.PerTurn.ENEMY_DAMAGE[enemy] <= 0) return; // TODO remove and make it work for any enemy
+      totalOffensiveEnemies++;
+      int dx = Cache.PerTurn.ENEMY_X[enemy] - location.x;
+      int dy = Cache.PerTurn.ENEMY_Y[enemy] - location.y;
+      int dist = dx * dx + dy * dy;
+      if (dist < distToClosestOffensive) {
+        closestOffensiveIndex = enemy;
+        distToClosestOffensive = dist;
       }
-      if (!nextEnemy.location.isWithinDistanceSquared(location, Cache.Permanent.ACTION_RADIUS_SQUARED)
-              && !nextEnemy.location.isWithinDistanceSquared(Cache.PerTurn.CURRENT_LOCATION, Cache.Permanent.ACTION_RADIUS_SQUARED)) {
-        return;
+      if (dist <= Cache.PerTurn.ENEMY_ACTION_RADIUS[enemy]) {
+        numOffendingEnemies++;
+        enemyDPS += Cache.PerTurn.ENEMY_DPS[enemy];
       }
-      if (bestTarget == null) {
-        bestTarget = nextEnemy;
-        distToTarget = nextEnemy.location.distanceSquaredTo(location);
+      if (dist > Cache.Permanent.ACTION_RADIUS_SQUARED
+              && Cache.PerTurn.ENEMY_DISTANCE[enemy] > Cache.Permanent.ACTION_RADIUS_SQUARED) {
         return;
       }
-      if (getPriority(nextEnemy.type) > getPriority(bestTarget.type)) {
-        bestTarget = nextEnemy;
-        distToTarget = nextEnemy.location.distanceSquaredTo(location);
+      int priority = getPriority(Cache.PerTurn.ENEMY_TYPE[enemy]);
+      if (bestTargetIndex == NO_ENEMY || priority > targetPriority) {
+        bestTargetIndex = enemy;
+        targetPriority = priority;
+        distToTarget = dist;
         return;
-      } else if (getPriority(nextEnemy.type) < getPriority(bestTarget.type)) {
+      } else if (priority < targetPriority) {
         return;
       }
-      if (nextEnemy.health != bestTarget.health) {
-        if (bestTarget.health <= Cache.Permanent.ROBOT_TYPE.damage
-                ? (nextEnemy.health <= Cache.Permanent.ROBOT_TYPE.damage
-                    && nextEnemy.health > bestTarget.health)
-                : nextEnemy.health < bestTarget.health) {
-          bestTarget = nextEnemy;
-          distToTarget = nextEnemy.location.distanceSquaredTo(location);
+      int health = Cache.PerTurn.ENEMY_HP[enemy];
+      int bestHealth = Cache.PerTurn.ENEMY_HP[bestTargetIndex];
+      if (health != bestHealth) {
+        if (bestHealth <= Cache.Permanent.ROBOT_TYPE.damage
+                ? (health <= Cache.Permanent.ROBOT_TYPE.damage
+                    && health > bestHealth)
+                : health < bestHealth) {
+          bestTargetIndex = enemy;
+          distToTarget = dist;
         }
         return;
       }
-      if (nextEnemy.location.isWithinDistanceSquared(location, distToTarget -1)) {
-        bestTarget = nextEnemy;
-        distToTarget = nextEnemy.location.distanceSquaredTo(location);
-        return;
+      if (dist < distToTarget) {
+        bestTargetIndex = enemy;
+        distToTarget = dist;
       }
     }
 
     @Override
     public void finalizeInfo() throws GameActionException {
+      if (bestTargetIndex != NO_ENEMY) bestTarget = Cache.PerTurn.ENEMIES[bestTargetIndex];
+      if (closestOffensiveIndex != NO_ENEMY) closestOffensive = Cache.PerTurn.ENEMIES[closestOffensiveIndex];
       hasTarget = Global.rc.isActionReady() && this.bestTarget != null;
       if (hasTarget) {
-        targetPriority = getPriority(bestTarget.type);
-        rubbleOfTarget = Global.rc.senseRubble(bestTarget.location);
+        rubbleOfTarget = Cache.PerTurn.ENEMY_RUBBLE[bestTargetIndex];
 
         // one enemy at edge of action and no others, we are attacking then moving away
-        isAttackAndExit = !location.isWithinDistanceSquared(bestTarget.location, Cache.Permanent.ACTION_RADIUS_SQUARED);
+        isAttackAndExit = distToTarget > Cache.Permanent.ACTION_RADIUS_SQUARED;
         // only do so if there was just that one enemy
         shouldAttackAndExit = (isAttackAndExit
-                && rubble <= Global.rc.senseRubble(Cache.PerTurn.CURRENT_LOCATION) && ( // TODO: numOffending=0 doesn't account for going from 2 -> 1 enemies
+                && rubble <= TerrainMemory.rubbleAt(Cache.PerTurn.CURRENT_LOCATION) && ( // TODO: numOffending=0 doesn't account for going from 2 -> 1 enemies
                 bestTarget.type.damage <= 0
                         || (numOffendingEnemies == 0)))
                 || (numOffendingEnemies <= 1 && bestTarget.health <= Cache.Permanent.ROBOT_TYPE.damage)
@@ -432,7 +432,7 @@ public abstract class MicroInfo<T extends MicroInfo<T, U>, U extends Soldier> {
 
 
         // no enemies in current action, but one enemy in vision which we are moving towards
-        isMovingInToAttack = !bestTarget.location.isWithinDistanceSquared(Cache.PerTurn.CURRENT_LOCATION, Cache.Permanent.ACTION_RADIUS_SQUARED);
+        isMovingInToAttack = Cache.PerTurn.ENEMY_DISTANCE[bestTargetIndex] > Cache.Permanent.ACTION_RADIUS_SQUARED;
         // only move in if it's a 1v1 and rubble is less than the enemy's
         // TODO: potentially replace numOffensive=1 with something based on enemyDPS (which is based on rubble of enemies)
         shouldMoveInToAttack = isMovingInToAttack && rubble <= Math.min(MAX_RUBBLE_TO_GO_IN, rubbleOfTarget) && (
@@ -463,14 +463,10 @@ public abstract class MicroInfo<T extends MicroInfo<T, U>, U extends Soldier> {
       } else if (closestOffensive != null) { // no target but we have an offensive enemy in sight
         // approach the enemy (vision -> vision)
         shouldMoveInAnyways = totalOffensiveEnemies <= 1
-                && rubble <= Math.min(MAX_RUBBLE_TO_GO_IN, Global.rc.senseRubble(closestOffensive.location))
+                && rubble <= Math.min(MAX_RUBBLE_TO_GO_IN, Cache.PerTurn.ENEMY_RUBBLE[closestOffensiveIndex])
                 && Global.rc.getActionCooldownTurns() < 20
-                && !Cache.PerTurn.CURRENT_LOCATION.isWithinDistanceSquared(
-                        closestOffensive.location,
-                        Cache.Permanent.ACTION_RADIUS_SQUARED)
-                && !Cache.PerTurn.CURRENT_LOCATION.isWithinDistanceSquared(
-                        closestOffensive.location,
-                        distToClosestOffensive);
+                && Cache.PerTurn.ENEMY_DISTANCE[closestOffensiveIndex] > Cache.Permanent.ACTION_RADIUS_SQUARED
+                && Cache.PerTurn.ENEMY_DISTANCE[closestOffensiveIndex] > distToClosestOffensive;
       } else {
         isBadIdea = true;
       }
@@ -537,7 +533,7 @@ public abstract class MicroInfo<T extends MicroInfo<T, U>, U extends Soldier> {
       boolean attacked = false;
       boolean shouldCharge = this.hasTarget && !this.bestTarget.type.isBuilding() && this.bestTarget.health <= this.bestTarget.type.health * 0.22;
       boolean shouldFury = this.hasTarget && this.bestTarget.type.isBuilding() && this.bestTarget.type.health * 0.10 >= Cache.Permanent.ROBOT_TYPE.damage;
-      if (this.hasTarget && this.bestTarget.location.isWithinDistanceSquared(Cache.PerTurn.CURRENT_LOCATION, Cache.Permanent.ACTION_RADIUS_SQUARED) && Global.rc.senseRubble(Cache.PerTurn.CURRENT_LOCATION) < this.rubble) {
+      if (this.hasTarget && this.bestTarget.location.isWithinDistanceSquared(Cache.PerTurn.CURRENT_LOCATION, Cache.Permanent.ACTION_RADIUS_SQUARED) && TerrainMemory.rubbleAt(Cache.PerTurn.CURRENT_LOCATION) < this.rubble) {
         if (shouldCharge) attacked = this.robotDoingMicro.envision(AnomalyType.CHARGE);
         else if (shouldFury && this.robotDoingMicro.noFriendlyTurretModeBuildingsNearby()) attacked = this.robotDoingMicro.envision(AnomalyType.FURY);
         else attacked = this.robotDoingMicro.attackTarget(bestTarget.location);
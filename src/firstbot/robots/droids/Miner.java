@@ -1,10 +1,12 @@
 package firstbot.robots.droids;
 
 import battlecode.common.*;
+import firstbot.communications.Communicator.RpcInfo;
 import firstbot.communications.messages.LeadFoundMessage;
-import firstbot.communications.messages.LeadRequestMessage;
 import firstbot.communications.messages.Message;
 import firstbot.utils.Cache;
+import firstbot.utils.RadiusOffsets;
+import firstbot.utils.TerrainMemory;
 import firstbot.utils.Utils;
 
 import java.util.Arrays;
@@ -13,7 +15,9 @@ public class Miner extends Droid {
 
   private static final int EXPLORING_TURNS_TO_BROADCAST_LEAD = 10; // if the miner wanders for >= 10 turns, it will broadcast when lead is found
   private static final int MAX_EXPLORING_REQUEST_LEAD = 8; // if wandering for 5+ turns, request lead broadcast
-  private LeadRequestMessage leadRequest;
+  private static final int LEAD_REQUEST_TIMEOUT = 5;
+  /** rpc slot of our open lead request (RpcInfo.NO_SLOT if none) */
+  private int leadRequestSlot;
 
 
   MapLocation leadTarget;
@@ -28,7 +32,7 @@ public class Miner extends Droid {
 
   public Miner(RobotController rc) throws GameActionException {
     super(rc);
-    leadRequest = null;
+    leadRequestSlot = RpcInfo.NO_SLOT;
     if (Cache.PerTurn.ROUND_NUM < 20) {
       explorationTarget = new MapLocation(
           parentArchonLoc.x < Cache.PerTurn.CURRENT_LOCATION.x ? Cache.Permanent.MAP_WIDTH-1 : 0,
@@ -53,15 +57,12 @@ public class Miner extends Droid {
   @Override
   protected void runTurn() throws GameActionException {
 //    System.out.println("Miner run(" + Clock.getBytecodeNum() + ") - " + Cache.PerTurn.ROUND_NUM);
-//    Printer.print("before incr: " + Clock.getBytecodeNum());
-    communicator.spawnInfo.incrMinerLiveCount();
-//    Printer.print("after incr: " + Clock.getBytecodeNum());
 
 
     mineSurroundingResourcesIfPossible(); // performs action of mining gold and then lead until cooldown is reached
 //    System.out.println("Miner execMining(" + Clock.getBytecodeNum() + ") - " + Cache.PerTurn.ROUND_NUM);
 
-//    checkLeadRequestResponseIfPending();
+    checkLeadRequestResponseIfPending();
 
     checkNeedToRunAway();
 //        System.out.println("Miner runAway(" + Clock.getBytecodeNum() + ") - " + Cache.PerTurn.ROUND_NUM);
@@ -83,6 +84,9 @@ public class Miner extends Droid {
 //          runAwayFrom(closestCommedEnemy);
 ////          randomizeExplorationTarget(true);
 //        } else {
+          if (leadTarget == null && leadRequestSlot == RpcInfo.NO_SLOT && needToRequestLead()) {
+            requestLead();
+          }
           doExploration();
 //        }
 //      reachedTarget = goToTarget(); // performs action of moving to target location
@@ -100,47 +104,36 @@ public class Miner extends Droid {
 
   }
 
-  @Override
-  public void ackMessage(Message message) throws GameActionException {
-    super.ackMessage(message);
-    if (message instanceof LeadFoundMessage) { // if lead was found somewhere far
-      acknowledgeLeadFoundMessage((LeadFoundMessage) message);
-    } else if (message instanceof LeadRequestMessage) {
-      acknowledgeLeadRequestMessage((LeadRequestMessage) message);
-    }
-  }
-
   /**
    * if lead is found somewhere, potentially start targetting it!
-   * @param message the received broadcast about lead
+   * @param encodedLoc the location of the found lead
    */
-  private void acknowledgeLeadFoundMessage(LeadFoundMessage message) {
+  @Override
+  public void onLeadFound(int encodedLoc) {
     if (turnsExploring <= EXPLORING_TURNS_TO_FOLLOW_LEAD) { // we haven't wandered enough to care
       return;
     }
-    registerLeadTarget(message.location);
+    registerLeadTarget(Utils.decodeLocationLower(encodedLoc));
   }
 
   /**
-   * if some miner is looking for lead, tell him where to go!
-   * @param message the received request for lead
+   * if some miner is looking for lead, tell them where to go!
+   * @param slot the rpc slot of the request
+   * @param kind the request kind
+   * @param arg the encoded location of the requester
    */
-  private void acknowledgeLeadRequestMessage(LeadRequestMessage message) throws GameActionException {
-    rc.setIndicatorString("Got lead request: " + message.answered + "|" + message.location + "|" + turnsExploring);
-    if (turnsExploring > 0) { // can't suggest lead if we wandering too
-      if (message.answered) registerLeadTarget(message.location); // if we wandering, just take someone elses answer lol
-      return;
-    }
-    if (message.answered) return; // some other miner already satisfied this request
-
+  @Override
+  public void onRpcRequest(int slot, int kind, int arg) throws GameActionException {
+    if (kind != RpcInfo.KIND_LEAD) return;
+    if (turnsExploring > 0) return; // can't suggest lead if we wandering too
 
     // we have a target, forward it to the requester
     MapLocation responseLocation = leadTarget != null ? leadTarget : Cache.PerTurn.CURRENT_LOCATION;
-    if (message.from.distanceSquaredTo(responseLocation) > MAX_SQDIST_FOR_LEAD_TARGET) return; // don't answer if too far
+    if (Utils.decodeLocationLower(arg).distanceSquaredTo(responseLocation) > MAX_SQDIST_FOR_LEAD_TARGET) return; // don't answer if too far
 
     rc.setIndicatorString("Answer lead request: " + responseLocation);
 
-    message.respond(responseLocation);
+    if (!communicator.rpc.respond(slot, RpcInfo.KIND_LEAD, Utils.encodeLocationLower(responseLocation))) return;
     rc.setIndicatorString("Respond to lead request! " + responseLocation);
     rc.setIndicatorDot(responseLocation, 0,255,0);
 //    rc.setIndicatorLine(Cache.PerTurn.CURRENT_LOCATION, responseLocation, 0,255,0);
@@ -188,8 +181,8 @@ public class Miner extends Droid {
     // known symmetry:
     int leadToLeave = 1;
     if (communicator.metaInfo.knownSymmetry != null) {
-      MapLocation friendly = communicator.archonInfo.getNearestFriendlyArchon(Cache.PerTurn.CURRENT_LOCATION);
-      MapLocation enemy = communicator.archonInfo.getNearestEnemyArchon(Cache.PerTurn.CURRENT_LOCATION);
+      MapLocation friendly = nearestFriendlyArchon();
+      MapLocation enemy = nearestEnemyArchon();
       leadToLeave = friendly.distanceSquaredTo(Cache.PerTurn.CURRENT_LOCATION) <= enemy.distanceSquaredTo(Cache.PerTurn.CURRENT_LOCATION) ? 1 : 0;
     } else {
       leadToLeave = offensiveEnemiesNearby() ? 0 : 1;
@@ -219,21 +212,23 @@ public class Miner extends Droid {
    * @throws GameActionException if reading fails
    */
   private void checkLeadRequestResponseIfPending() throws GameActionException {
-    if (leadTarget == null && leadRequest != null) {
-      rc.setIndicatorString("Checking request response!");
-      if (leadRequest.readSharedResponse()) {
-//        System.out.println("Got request response!!" + leadRequest.location);
-        registerLeadTarget(leadRequest.location);
-      }
-      leadRequest = null;
+    if (leadRequestSlot == RpcInfo.NO_SLOT) return;
+    int response = communicator.rpc.pollResponse(leadRequestSlot, RpcInfo.KIND_LEAD);
+    if (response == RpcInfo.PENDING && leadTarget == null) return;
+    communicator.rpc.release(leadRequestSlot, RpcInfo.KIND_LEAD); // answered, timed out, or we found lead some other way
+    leadRequestSlot = RpcInfo.NO_SLOT;
+    if (response >= 0 && leadTarget == null) {
+      rc.setIndicatorString("Got request response!");
+      registerLeadTarget(Utils.decodeLocationLower(response));
     }
   }
 
   /**
    * look for enemies nearby and determine if they need to be ran from
    *    sets runAwayTarget
+   * @throws GameActionException if sensing the enemies fails
    */
-  private void checkNeedToRunAway() {
+  private void checkNeedToRunAway() throws GameActionException {
     MapLocation enemies = offensiveEnemyCentroid();
     if (enemies != null) {
       MapLocation myLoc = Cache.PerTurn.CURRENT_LOCATION;
@@ -253,7 +248,7 @@ public class Miner extends Droid {
    * @return true if reached target
    */
   private boolean runAway() throws GameActionException {
-    if (moveOptimalTowards(runAwayTarget) || runHome(communicator.archonInfo.getNearestFriendlyArchon(Cache.PerTurn.CURRENT_LOCATION))) {
+    if (moveOptimalTowards(runAwayTarget) || runHome(nearestFriendlyArchon())) {
       rc.setIndicatorString("run away! " + runAwayTarget);
 //      rc.setIndicatorLine(Cache.PerTurn.CURRENT_LOCATION, runAwayTarget, 0,255,0);
       return Cache.PerTurn.CURRENT_LOCATION.isWithinDistanceSquared(runAwayTarget, Cache.Permanent.ACTION_RADIUS_SQUARED);
@@ -324,6 +319,9 @@ public class Miner extends Droid {
   }
 
   int[] leadByLocationMap;
+  /** scratch coords for RadiusOffsets.clip2 around each lead location */
+  private final int[] candidateXs = new int[RadiusOffsets.COUNT_2];
+  private final int[] candidateYs = new int[RadiusOffsets.COUNT_2];
   private static final int MAX_LEAD_LOCS_LEN = 5;
   /**
    * iterates over all visible lead and friendly miners to smartly determine what position would be optimal for lead mining
@@ -341,7 +339,7 @@ public class Miner extends Droid {
 //    if (leadLocs.length >= 5 && rc.senseRubble(Cache.PerTurn.CURRENT_LOCATION) < 5) return Cache.PerTurn.CURRENT_LOCATION;
 
     MapLocation[] leadLocs = rc.senseNearbyLocationsWithLead(Utils.DSQ_1by1, 2);
-    if (leadLocs.length >= 2 && rc.senseRubble(Cache.PerTurn.CURRENT_LOCATION) < 5) return Cache.PerTurn.CURRENT_LOCATION;
+    if (leadLocs.length >= 2 && TerrainMemory.rubbleAt(Cache.PerTurn.CURRENT_LOCATION) < 5) return Cache.PerTurn.CURRENT_LOCATION;
 
     int minBound = 2;
     leadLocs = leadLocs.length >= 2 ? rc.senseNearbyLocationsWithLead(Utils.DSQ_2by2, minBound) : rc.senseNearbyLocationsWithLead(-1, minBound);
@@ -430,7 +428,7 @@ public class Miner extends Droid {
 //    System.out.println("Miner finish populate leadLocs(" + Clock.getBytecodeNum() + ") - " + Cache.PerTurn.ROUND_NUM);
 
 //    System.out.println("Miner start check friends(" + Clock.getBytecodeNum() + ") - " + Cache.PerTurn.ROUND_NUM);
-    for (RobotInfo friend : Cache.PerTurn.ALL_NEARBY_FRIENDLY_ROBOTS) {
+    for (RobotInfo friend : Cache.PerTurn.allNearbyFriendlyRobots()) {
       leadByLocationMap[(5 + friend.location.x - Cache.PerTurn.CURRENT_LOCATION.x) * 11 + (5 + friend.location.y - Cache.PerTurn.CURRENT_LOCATION.y)] = 0;
       if (friend.type != RobotType.MINER) continue;
 //      if (Cache.PerTurn.ROUND_NUM == 5 && Cache.Permanent.ID == 11283) {
@@ -505,11 +503,14 @@ public class Miner extends Droid {
 //    for (int t = numLocsToCheck; --t >= 0; ) {
 //      int i = locsToCheck[t];
     for (MapLocation leadLoc : leadLocs) {
-      for (MapLocation candidateLocation : rc.getAllLocationsWithinRadiusSquared(leadLoc, Utils.DSQ_1by1)) {
+      int numCandidates = RadiusOffsets.clip2(leadLoc, candidateXs, candidateYs);
+      for (int o = 0; o < numCandidates; o++) {
+        int candidateX = candidateXs[o];
+        int candidateY = candidateYs[o];
 
 //      System.out.println("Miner check one candidate(" + Clock.getBytecodeNum() + ") - " + Cache.PerTurn.ROUND_NUM);
 
-        int i = (5 + candidateLocation.x - Cache.PerTurn.CURRENT_LOCATION.x) * 11 + (5 + candidateLocation.y - Cache.PerTurn.CURRENT_LOCATION.y);
+        int i = (5 + candidateX - Cache.PerTurn.CURRENT_LOCATION.x) * 11 + (5 + candidateY - Cache.PerTurn.CURRENT_LOCATION.y);
         int candidateLead = leadByLocationMap[i];
         leadByLocationMap[i] = 0;
 //        int candidateLead = leadByLocationMap[i];
@@ -523,9 +524,10 @@ public class Miner extends Droid {
 //        }
 //      MapLocation candidateLocation = new MapLocation((i/11)-5+Cache.PerTurn.CURRENT_LOCATION.x, (i%11)-5+Cache.PerTurn.CURRENT_LOCATION.y);
 
+        MapLocation candidateLocation = new MapLocation(candidateX, candidateY); // only built once there is lead here
         if (!rc.canSenseLocation(candidateLocation)) continue;
 
-        int candidateRubble = rc.senseRubble(candidateLocation);
+        int candidateRubble = TerrainMemory.rubbleAt(candidateLocation);
 
         if (candidateRubble > leastRubble) continue;
         int candidateDist = candidateLocation.distanceSquaredTo(Cache.PerTurn.CURRENT_LOCATION);
@@ -569,7 +571,6 @@ public class Miner extends Droid {
     }
     leadTarget = newTarget;
     turnsExploring = 0;
-    leadRequest = null;
     rc.setIndicatorString("Got new leadTarget! " + leadTarget);
     return true;
   }
@@ -597,13 +598,12 @@ public class Miner extends Droid {
   }
 
   /**
-   * send a RequestLeadMessage
+   * ask for lead through a shared rpc slot
    */
-  private void requestLead() {
-    leadRequest = new LeadRequestMessage(Cache.PerTurn.CURRENT_LOCATION);
-    communicator.enqueueMessage(leadRequest);
+  private void requestLead() throws GameActionException {
+    leadRequestSlot = communicator.rpc.request(RpcInfo.KIND_LEAD, Utils.encodeLocationLower(Cache.PerTurn.CURRENT_LOCATION), LEAD_REQUEST_TIMEOUT);
+    if (leadRequestSlot == RpcInfo.NO_SLOT) return; // all slots busy, try again next turn
     rc.setIndicatorDot(Cache.PerTurn.CURRENT_LOCATION, 0, 0, 255);
     rc.setIndicatorString("Requesting lead!");
-    System.out.println("Requesting lead!");
   }
 }
@@ -1,6 +1,7 @@
 package firstbot.robots.droids;
 
 import battlecode.common.*;
+import firstbot.utils.Budget;
 import firstbot.utils.Cache;
 import firstbot.utils.Utils;
 
@@ -12,6 +13,9 @@ public class Sage extends Soldier {
   @Override
   protected boolean attackEnemies() throws GameActionException {
     MicroInfo.MicroInfoSages best = null;
+    int numEnemies = Cache.PerTurn.snapshotEnemies(); // the snapshot can't go stale until we move (in execute)
+    int numMicroEnemies = chooseMicroEnemies(numEnemies);
+    boolean centerOnly = numMicroEnemies == 0;
 //    Cache.PerTurn.cacheEnemyInfos();
 //    if (Cache.Permanent.ID == 10532 && Cache.PerTurn.ROUND_NUM == 259) {
 //      Printer.cleanPrint();
@@ -27,39 +31,43 @@ public class Sage extends Soldier {
 //        Printer.print("rc.canMove: " + rc.canMove(dir));
 //        Printer.submitPrint();
 //      }
-      if (dir != Direction.CENTER && (isMovementDisabled || !rc.canMove(dir))) continue;
+      if (dir != Direction.CENTER && (centerOnly || isMovementDisabled || !rc.canMove(dir))) continue;
 //      MapLocation newLoc = Cache.PerTurn.CURRENT_LOCATION.add(dir);
-//      if (dir != Direction.CENTER && Cache.PerTurn.ALL_NEARBY_FRIENDLY_ROBOTS.length < 6 && !Cache.PerTurn.CURRENT_LOCATION.isWithinDistanceSquared(communicator.archonInfo.getNearestFriendlyArchon(Cache.PerTurn.CURRENT_LOCATION), Cache.PerTurn.CURRENT_LOCATION.distanceSquaredTo(communicator.archonInfo.getNearestEnemyArchon(Cache.PerTurn.CURRENT_LOCATION)))) {
+//      if (dir != Direction.CENTER && Cache.PerTurn.allNearbyFriendlyRobots().length < 6 && !Cache.PerTurn.CURRENT_LOCATION.isWithinDistanceSquared(communicator.archonInfo.getNearestFriendlyArchon(Cache.PerTurn.CURRENT_LOCATION), Cache.PerTurn.CURRENT_LOCATION.distanceSquaredTo(communicator.archonInfo.getNearestEnemyArchon(Cache.PerTurn.CURRENT_LOCATION)))) {
 //        if (!newLoc.isWithinDistanceSquared(communicator.archonInfo.getNearestFriendlyArchon(newLoc), newLoc.distanceSquaredTo(communicator.archonInfo.getNearestEnemyArchon(newLoc)))) {
 //          continue;
 //        }
 //      }
 //      Printer.cleanPrint();
       MicroInfo.MicroInfoSages curr = new MicroInfo.MicroInfoSages(this, dir);
-      switch (Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS.length) {
+      if (numMicroEnemies > 0) {
+        for (int i = 0; i < numMicroEnemies; i++) {
+          curr.update(microEnemies[i]);
+        }
+      } else switch (numEnemies) {
         case 10:
-          curr.update(Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS[9]);
+          curr.update(9);
         case 9:
-          curr.update(Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS[8]);
+          curr.update(8);
         case 8:
-          curr.update(Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS[7]);
+          curr.update(7);
         case 7:
-          curr.update(Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS[6]);
+          curr.update(6);
         case 6:
-          curr.update(Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS[5]);
+          curr.update(5);
         case 5:
-          curr.update(Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS[4]);
+          curr.update(4);
         case 4:
-          curr.update(Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS[3]);
+          curr.update(3);
         case 3:
-          curr.update(Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS[2]);
+          curr.update(2);
         case 2:
-          curr.update(Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS[1]);
+          curr.update(1);
         case 1:
-          curr.update(Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS[0]);
+          curr.update(0);
           break;
         default:
-          for (RobotInfo enemy : Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS) {
+          for (int enemy = 0; enemy < numEnemies; enemy++) {
 //            int s = Clock.getBytecodeNum();
             curr.update(enemy);
 //            Printer.print("Bytecode for 1 update: " + (Clock.getBytecodeNum() - s));
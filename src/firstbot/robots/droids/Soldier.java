@@ -2,7 +2,11 @@ package firstbot.robots.droids;
 
 import battlecode.common.*;
 import firstbot.communications.messages.*;
+import firstbot.utils.Budget;
 import firstbot.utils.Cache;
+import firstbot.utils.Memo;
+import firstbot.utils.Profiler;
+import firstbot.utils.TerrainMemory;
 import firstbot.utils.Utils;
 
 public class Soldier extends Droid {
@@ -16,6 +20,13 @@ public class Soldier extends Droid {
 
   private int cooldownAfterAttack;
 
+  /** chooseMicroEnemies result when every enemy in the snapshot fits in the budget */
+  protected static final int ALL_MICRO_ENEMIES = -1;
+  /** the most enemies a budget-limited micro evaluates */
+  private static final int MAX_MICRO_ENEMIES = 10;
+  /** snapshot indices of the enemies a budget-limited micro evaluates (nearest first) */
+  protected final int[] microEnemies = new int[MAX_MICRO_ENEMIES];
+
   public Soldier(RobotController rc) throws GameActionException {
     super(rc);
     HALF_RANGE_TO_CHASE_FROM = (Cache.Permanent.ACTION_RADIUS_SQUARED+1) / 2;
@@ -42,7 +53,7 @@ public class Soldier extends Droid {
     if (archonToSave != null
       && !isMovementDisabled
       && !Cache.PerTurn.CURRENT_LOCATION.isWithinDistanceSquared(archonToSave, Cache.Permanent.VISION_RADIUS_SQUARED)
-      && (!offensiveEnemiesNearby() || !Cache.PerTurn.CURRENT_LOCATION.isWithinDistanceSquared(communicator.archonInfo.getNearestFriendlyArchon(Cache.PerTurn.CURRENT_LOCATION), RobotType.ARCHON.actionRadiusSquared))) {
+      && (!offensiveEnemiesNearby() || !Cache.PerTurn.CURRENT_LOCATION.isWithinDistanceSquared(nearestFriendlyArchon(), RobotType.ARCHON.actionRadiusSquared))) {
 //      Printer.cleanPrint();
 //      Printer.print("archonToSave: " + archonToSave);
 //      Printer.submitPrint();
@@ -71,7 +82,7 @@ public class Soldier extends Droid {
       if (lastAttackedEnemy == null) {
         System.out.println("lastAttackedEnemy is null!!! " + Cache.PerTurn.CURRENT_LOCATION);
       } else {
-        int myRubble = rc.senseRubble(Cache.PerTurn.CURRENT_LOCATION);
+        int myRubble = TerrainMemory.rubbleAt(Cache.PerTurn.CURRENT_LOCATION);
         rc.setIndicatorString("myRubble: " + myRubble + " lastAERubble: " + lastAttackedEnemyRubble);
         if (myRubble >= lastAttackedEnemyRubble && lastAttackedEnemy.type != RobotType.ARCHON) { //health?
           cooldownAfterAttack = rc.getActionCooldownTurns();
@@ -94,31 +105,19 @@ public class Soldier extends Droid {
   int lastAttackedEnemyRubble;
   void runNew() throws GameActionException {
     if (anyOffensiveEnemies()) {
+      Profiler.start(Profiler.MICRO);
       attackEnemies();
+      Profiler.finish(Profiler.MICRO);
 //      System.out.println("SETTING! " + lastAttackedEnemy);
-    } else if (Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS.length > 0 && (!(this instanceof Sage) || rc.isActionReady())) {
-      RobotInfo best = null;
-      int distToBest = 9999;
-      for (RobotInfo enemy : Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS) {
-        if (best == null) {
-          best = enemy;
-          distToBest = enemy.location.distanceSquaredTo(Cache.PerTurn.CURRENT_LOCATION);
-        } else if (MicroInfo.getPriority(enemy.type) > MicroInfo.getPriority(best.type)) {
-          best = enemy;
-          distToBest = enemy.location.distanceSquaredTo(Cache.PerTurn.CURRENT_LOCATION);
-        } else if (enemy.health < best.health) {
-          best = enemy;
-          distToBest = enemy.location.distanceSquaredTo(Cache.PerTurn.CURRENT_LOCATION);
-        } else if (enemy.location.isWithinDistanceSquared(Cache.PerTurn.CURRENT_LOCATION, distToBest -1)) {
-          best = enemy;
-          distToBest = enemy.location.distanceSquaredTo(Cache.PerTurn.CURRENT_LOCATION);
-        }
-      }
+    } else if (Cache.PerTurn.allNearbyEnemyRobots().length > 0 && (!(this instanceof Sage) || rc.isActionReady())) {
+      int bestIndex = chooseTargetIndex();
+      RobotInfo best = Cache.PerTurn.ENEMIES[bestIndex];
+      int rubbleOfBest = Cache.PerTurn.ENEMY_RUBBLE[bestIndex];
       lastAttackedEnemy = null;
       if (attackAtAndMoveTo(best.location, best.location, true)) {
 //        System.out.println("HERE! " + best);
         lastAttackedEnemy = best;
-        lastAttackedEnemyRubble = rc.senseRubble(best.location);
+        lastAttackedEnemyRubble = rubbleOfBest;
       }
     } else if (!isMovementDisabled) {
       if (lastAttackedEnemy != null) {
@@ -132,7 +131,7 @@ public class Soldier extends Droid {
       }
 
       if (rc.getActionCooldownTurns() * 2 > cooldownAfterAttack && cooldownAfterAttack != 0) {
-        MapLocation runTo = communicator.archonInfo.getNearestFriendlyArchon(Cache.PerTurn.CURRENT_LOCATION);
+        MapLocation runTo = nearestFriendlyArchon();
         runHome(runTo);
         rc.setIndicatorString("runTo: " + runTo + " cdAfterA: " + cooldownAfterAttack + " aCD: " + rc.getActionCooldownTurns());
         rc.setIndicatorLine(Cache.PerTurn.CURRENT_LOCATION, runTo, 255, 0, 0);
@@ -153,7 +152,7 @@ public class Soldier extends Droid {
           lastAttackedEnemy = null;
         } else {
           lastAttackedEnemy = rc.senseRobot(lastAttackedEnemy.ID);
-          lastAttackedEnemyRubble = rc.senseRubble(lastAttackedEnemy.location);
+          lastAttackedEnemyRubble = TerrainMemory.rubbleAt(lastAttackedEnemy.location);
 
 //          System.out.println("HERE2! " + lastAttackedEnemy);
         }
@@ -164,6 +163,9 @@ public class Soldier extends Droid {
 
   protected boolean attackEnemies() throws GameActionException {
     MicroInfo best = null;
+    int numEnemies = Cache.PerTurn.snapshotEnemies(); // the snapshot can't go stale until we move (in execute)
+    int numMicroEnemies = chooseMicroEnemies(numEnemies);
+    boolean centerOnly = numMicroEnemies == 0;
 //    Cache.PerTurn.cacheEnemyInfos();
 //    Printer.cleanPrint();
 //    Printer.print("isMovementDisabled: " + isMovementDisabled);
@@ -171,39 +173,43 @@ public class Soldier extends Droid {
 //    Printer.print("movementCooldown: " + rc.getMovementCooldownTurns(), "actionCooldown: " + rc.getActionCooldownTurns());
 //    Printer.submitPrint();
     for (Direction dir : Utils.directionsNine) {
-      if (dir != Direction.CENTER && (isMovementDisabled || !rc.canMove(dir))) continue;
+      if (dir != Direction.CENTER && (centerOnly || isMovementDisabled || !rc.canMove(dir))) continue;
 //      MapLocation newLoc = Cache.PerTurn.CURRENT_LOCATION.add(dir);
-//      if (dir != Direction.CENTER && Cache.PerTurn.ALL_NEARBY_FRIENDLY_ROBOTS.length < 6 && !Cache.PerTurn.CURRENT_LOCATION.isWithinDistanceSquared(communicator.archonInfo.getNearestFriendlyArchon(Cache.PerTurn.CURRENT_LOCATION), Cache.PerTurn.CURRENT_LOCATION.distanceSquaredTo(communicator.archonInfo.getNearestEnemyArchon(Cache.PerTurn.CURRENT_LOCATION)))) {
+//      if (dir != Direction.CENTER && Cache.PerTurn.allNearbyFriendlyRobots().length < 6 && !Cache.PerTurn.CURRENT_LOCATION.isWithinDistanceSquared(communicator.archonInfo.getNearestFriendlyArchon(Cache.PerTurn.CURRENT_LOCATION), Cache.PerTurn.CURRENT_LOCATION.distanceSquaredTo(communicator.archonInfo.getNearestEnemyArchon(Cache.PerTurn.CURRENT_LOCATION)))) {
 //        if (!newLoc.isWithinDistanceSquared(communicator.archonInfo.getNearestFriendlyArchon(newLoc), newLoc.distanceSquaredTo(communicator.archonInfo.getNearestEnemyArchon(newLoc)))) {
 //          continue;
 //        }
 //      }
 //      Printer.cleanPrint();
       MicroInfo curr = new MicroInfo.MicroInfoSoldiers(this, dir);
-      switch (Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS.length) {
+      if (numMicroEnemies > 0) {
+        for (int i = 0; i < numMicroEnemies; i++) {
+          curr.update(microEnemies[i]);
+        }
+      } else switch (numEnemies) {
         case 10:
-          curr.update(Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS[9]);
+          curr.update(9);
         case 9:
-          curr.update(Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS[8]);
+          curr.update(8);
         case 8:
-          curr.update(Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS[7]);
+          curr.update(7);
         case 7:
-          curr.update(Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS[6]);
+          curr.update(6);
         case 6:
-          curr.update(Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS[5]);
+          curr.update(5);
         case 5:
-          curr.update(Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS[4]);
+          curr.update(4);
         case 4:
-          curr.update(Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS[3]);
+          curr.update(3);
         case 3:
-          curr.update(Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS[2]);
+          curr.update(2);
         case 2:
-          curr.update(Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS[1]);
+          curr.update(1);
         case 1:
-          curr.update(Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS[0]);
+          curr.update(0);
           break;
         default:
-          for (RobotInfo enemy : Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS) {
+          for (int enemy = 0; enemy < numEnemies; enemy++) {
 //            int s = Clock.getBytecodeNum();
             curr.update(enemy);
 //            Printer.print("Bytecode for 1 update: " + (Clock.getBytecodeNum() - s));
@@ -219,21 +225,50 @@ public class Soldier extends Droid {
     return best != null && best.execute();
   }
 
-  private boolean anyOffensiveEnemies() {
-    for (RobotInfo enemy : Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS) {
-      if (enemy.type.damage > 0) return true;
+  /**
+   * decide which enemies the micro can afford to evaluate in each of the 9 directions
+   *    all of them if the budget allows, else the nearest offensive ones (so we can still step toward/away from the threat)
+   *    and only staying put (against every enemy) if not even one enemy per direction fits
+   * @param numEnemies the size of the Cache.PerTurn enemy snapshot
+   * @return ALL_MICRO_ENEMIES, the number of nearest offensive enemies put in microEnemies, or 0 to only evaluate CENTER
+   */
+  protected int chooseMicroEnemies(int numEnemies) {
+    if (Budget.canAfford(Budget.MICRO, 9 * (numEnemies + 1))) return ALL_MICRO_ENEMIES;
+    int k = Budget.available(Budget.MICRO) / (9 * Budget.cost(Budget.MICRO)) - 1;
+    if (k <= 0) return 0;
+    if (k > MAX_MICRO_ENEMIES) k = MAX_MICRO_ENEMIES;
+    // keep the k nearest offensive enemies sorted by distance (insertion into a short list)
+    int[] chosen = microEnemies;
+    int count = 0;
+    for (int enemy = 0; enemy < numEnemies; enemy++) {
+      if (Cache.PerTurn.ENEMY_DAMAGE[enemy] <= 0) continue;
+      int dist = Cache.PerTurn.ENEMY_DISTANCE[enemy];
+      int i;
+      if (count < k) {
+        i = count++;
+      } else if (dist < Cache.PerTurn.ENEMY_DISTANCE[chosen[k - 1]]) {
+        i = k - 1;
+      } else {
+        continue;
+      }
+      while (i > 0 && Cache.PerTurn.ENEMY_DISTANCE[chosen[i - 1]] > dist) {
+        chosen[i] = chosen[i - 1];
+        i--;
+      }
+      chosen[i] = enemy;
     }
-    return false;
+    return count;
+  }
+
+  private boolean anyOffensiveEnemies() {
+    return Cache.PerTurn.offensiveEnemies().length > 0;
   }
 
-  private boolean cachedCheckNeedToStay;
-  private int cacheStateOnLastNeedToStayCalc = -1;
   public boolean checkNeedToStayOnSafeSide() {
-    if (Cache.PerTurn.cacheState == cacheStateOnLastNeedToStayCalc) return cachedCheckNeedToStay;
-    cacheStateOnLastNeedToStayCalc = Cache.PerTurn.cacheState;
+    if (Memo.isValid(Memo.NEED_TO_STAY_ON_SAFE_SIDE)) return Memo.booleanValue(Memo.NEED_TO_STAY_ON_SAFE_SIDE);
     int numFriendlyOffense = 0;
     int numEnemyOffense = 0;
-    for (RobotInfo robot : Cache.PerTurn.ALL_NEARBY_ROBOTS) {
+    for (RobotInfo robot : Cache.PerTurn.allNearbyRobots()) {
       if (robot.type.damage > 0) {
         if (robot.team == Cache.Permanent.OUR_TEAM) {
           numFriendlyOffense++;
@@ -242,7 +277,7 @@ public class Soldier extends Droid {
         }
       }
     }
-    return cachedCheckNeedToStay = (numFriendlyOffense < 4 || numEnemyOffense * 1.5 >= numFriendlyOffense);
+    return Memo.store(Memo.NEED_TO_STAY_ON_SAFE_SIDE, numFriendlyOffense < 4 || numEnemyOffense * 1.5 >= numFriendlyOffense);
   }
 
   /**
@@ -264,10 +299,10 @@ public class Soldier extends Droid {
 //      System.out.printf("Can't move\n%s -> %s!\n", Cache.PerTurn.CURRENT_LOCATION, whereToMove);
       dirToMove = Direction.CENTER;
     }
-    int rubbleHere = rc.senseRubble(Cache.PerTurn.CURRENT_LOCATION);
+    int rubbleHere = TerrainMemory.rubbleAt(Cache.PerTurn.CURRENT_LOCATION);
     if (rubbleHere > 20) {
       Direction leastRubble = getLeastRubbleMoveableDirAroundDir(dirToMove);
-      if (leastRubble != null && rc.senseRubble(Cache.PerTurn.CURRENT_LOCATION.add(leastRubble)) < rubbleHere) {
+      if (leastRubble != null && TerrainMemory.rubbleAt(Cache.PerTurn.CURRENT_LOCATION.add(leastRubble)) < rubbleHere) {
         dirToMove = leastRubble;
       }
     }
@@ -280,7 +315,7 @@ public class Soldier extends Droid {
     // only attack early if moving first screws us over
     if (whereToAttack != null
         && !whereToAttack.isWithinDistanceSquared(newLoc, Cache.Permanent.ACTION_RADIUS_SQUARED)
-        && rubbleHere <= rc.senseRubble(newLoc)) {
+        && rubbleHere <= TerrainMemory.rubbleAt(newLoc)) {
       if (shouldCharge) attacked = ((Sage)this).envision(AnomalyType.CHARGE);
       else if (shouldFury && this.noFriendlyTurretModeBuildingsNearby()) attacked = ((Sage)this).envision(AnomalyType.FURY);
       else attacked = attackTarget(whereToAttack);
@@ -355,56 +390,47 @@ public class Soldier extends Droid {
     return true;
   }
 
-  @Override
-  public void ackMessage(Message message) throws GameActionException {
-    super.ackMessage(message);
-    if (message instanceof SaveMeMessage) {
-      ackSaveMeMessage((SaveMeMessage) message);
-    } else if (message instanceof ArchonSavedMessage) {
-      ackArchonSavedMessage((ArchonSavedMessage) message);
-    } else if (message instanceof JoinTheFightMessage) {
-      ackJoinFightMessage((JoinTheFightMessage) message);
-    } else if (message instanceof EndFightMessage) {
-      ackEndFightMessage((EndFightMessage) message);
-    }
-  }
-
   /**
    * acknowledge an archon that needs saving
-   * @param message the request for saving from an archon
+   * @param encodedLoc the location of the archon requesting saving
    */
-  private void ackSaveMeMessage(SaveMeMessage message) {
+  @Override
+  public void onSaveMe(int encodedLoc) {
     if (archonToSave == null || Utils.rng.nextInt(5) < 2) { // not already saving or 2/5 chance to switch
-      archonToSave = message.location;
+      archonToSave = Utils.decodeLocationLower(encodedLoc);
     }
   }
 
   /**
    * acknowledge an archon is done being saved
-   * @param message the message to stop saving an archon
+   * @param encodedLoc the location of the saved archon
    */
-  private void ackArchonSavedMessage(ArchonSavedMessage message) {
-    if (archonToSave != null && archonToSave.isWithinDistanceSquared(message.location, RobotType.ARCHON.visionRadiusSquared)) { // not already saving or 2/5 chance to switch
+  @Override
+  public void onArchonSaved(int encodedLoc) {
+    if (archonToSave != null && archonToSave.isWithinDistanceSquared(Utils.decodeLocationLower(encodedLoc), RobotType.ARCHON.visionRadiusSquared)) { // not already saving or 2/5 chance to switch
       archonToSave = null;
     }
   }
 
   /**
    * acknowledge an ongoing fight and decide if we should join
-   * @param message the message to join a fight
+   * @param encodedLoc the location of the fight
    */
-  private void ackJoinFightMessage(JoinTheFightMessage message) {
-    if (fightToJoin == null || message.location.isWithinDistanceSquared(Cache.PerTurn.CURRENT_LOCATION, fightToJoin.distanceSquaredTo(Cache.PerTurn.CURRENT_LOCATION)-1)) {
-      fightToJoin = message.location;
+  @Override
+  public void onJoinTheFight(int encodedLoc) {
+    MapLocation fightLocation = Utils.decodeLocationLower(encodedLoc);
+    if (fightToJoin == null || fightLocation.isWithinDistanceSquared(Cache.PerTurn.CURRENT_LOCATION, fightToJoin.distanceSquaredTo(Cache.PerTurn.CURRENT_LOCATION)-1)) {
+      fightToJoin = fightLocation;
     }
   }
 
   /**
    * receive a message that a fight is over
-   * @param message fight ending message with a specific fight location
+   * @param encodedLoc the location of the fight that ended
    * @throws GameActionException if ack fails
    */
-  private void ackEndFightMessage(EndFightMessage message) throws GameActionException {
+  @Override
+  public void onEndFight(int encodedLoc) throws GameActionException {
 //    if (fightToJoin != null) {
 //      if (message.location.isWithinDistanceSquared(fightToJoin, Cache.Permanent.VISION_RADIUS_SQUARED*2)) {
         fightToJoin = null;
@@ -426,28 +452,43 @@ public class Soldier extends Droid {
       return false;
     }
 
-    RobotInfo best = null;
-    int distToBest = 9999;
-    for (RobotInfo enemy : Cache.PerTurn.ALL_NEARBY_ENEMY_ROBOTS) {
-      if (best == null) {
-        best = enemy;
-        distToBest = enemy.location.distanceSquaredTo(Cache.PerTurn.CURRENT_LOCATION);
-      } else if (MicroInfo.getPriority(enemy.type) > MicroInfo.getPriority(best.type)) {
-        best = enemy;
-        distToBest = enemy.location.distanceSquaredTo(Cache.PerTurn.CURRENT_LOCATION);
-      } else if (enemy.health < best.health) {
+    int bestIndex = chooseTargetIndex();
+    if (bestIndex == MicroInfo.NO_ENEMY) {
+      lastAttackedEnemy = null;
+      return false;
+    }
+    RobotInfo best = lastAttackedEnemy = Cache.PerTurn.ENEMIES[bestIndex];
+    lastAttackedEnemyRubble = Cache.PerTurn.ENEMY_RUBBLE[bestIndex];
+
+    return attackAtAndMoveTo(best.location, best.location, true);
+  }
+
+  /**
+   * pick an enemy to shoot outside of the full micro (by priority, then health, then distance)
+   * @return the index of the enemy in the Cache.PerTurn enemy snapshot (NO_ENEMY if none in vision)
+   * @throws GameActionException if taking the snapshot fails
+   */
+  private int chooseTargetIndex() throws GameActionException {
+    int numEnemies = Cache.PerTurn.snapshotEnemies();
+    int best = MicroInfo.NO_ENEMY;
+    int priorityOfBest = 0;
+    for (int enemy = 0; enemy < numEnemies; enemy++) {
+      int priority = MicroInfo.getPriority(Cache.PerTurn.ENEMY_TYPE[enemy]);
+      if (best == MicroInfo.NO_ENEMY || priority > priorityOfBest) {
         best = enemy;
-        distToBest = enemy.location.distanceSquaredTo(Cache.PerTurn.CURRENT_LOCATION);
-      } else if (enemy.location.isWithinDistanceSquared(Cache.PerTurn.CURRENT_LOCATION, distToBest -1)) {
+        priorityOfBest = priority;
+        continue;
+      } else if (priority < priorityOfBest) {
+        continue;
+      }
+      int health = Cache.PerTurn.ENEMY_HP[enemy];
+      int bestHealth = Cache.PerTurn.ENEMY_HP[best];
+      if (health < bestHealth
+          || (health == bestHealth && Cache.PerTurn.ENEMY_DISTANCE[enemy] < Cache.PerTurn.ENEMY_DISTANCE[best])) {
         best = enemy;
-        distToBest = enemy.location.distanceSquaredTo(Cache.PerTurn.CURRENT_LOCATION);
       }
     }
-    lastAttackedEnemy = best;
-    if (best == null) return false;
-    lastAttackedEnemyRubble = rc.senseRubble(lastAttackedEnemy.location);
-
-    return attackAtAndMoveTo(best.location, best.location, true);
+    return best;
   }
 
 }
@@ -0,0 +1,114 @@
+package firstbot.utils;
+
+import battlecode.common.Clock;
+
+/**
+ * central per-turn bytecode governor
+ *    each phase has a per-type cost estimate, and always leaves END_OF_TURN reserve for commNearbyEnemies + sending
+ *    subsystems ask before running their full version and fall back to something cheaper if it can't be afforded
+ */
+public class Budget {
+  public static final int COMMS_READ = 0;   // cost of reading + acking one message
+  public static final int SENSING = 1;      // cost of evaluating one sensed location in a scan
+  public static final int MICRO = 2;        // cost of evaluating one (direction, enemy) pair
+  public static final int PATHFINDING = 3;  // cost of one full unrolled BFS pass (measured per robot)
+  public static final int COMMS_SEND = 4;   // cost of sending one message
+  public static final int NUM_PHASES = 5;
+
+  /** cost of the greedy pathfinding fallback */
+  public static final int GREEDY_PATHFINDING_COST = 1000;
+  /** bytecodes that must be left to move + update the cache in the same turn */
+  public static final int MOVE_RESERVE = 25;
+  /** bytecodes kept for wrapping up the turn after sending */
+  private static final int WRAP_UP_RESERVE = 100;
+
+  private static final int[] costs = new int[NUM_PHASES];
+  private static final boolean[] measured = new boolean[NUM_PHASES];
+  private static int endOfTurnReserve;
+
+  /**
+   * set up the per-type phase costs
+   *    ASSUMES - Cache.setup() has been called
+   */
+  public static void setup() {
+    costs[COMMS_READ] = 250;
+    costs[COMMS_SEND] = 400;
+    // no fixed guess for a StolenBFS2 pass (getBestDir is 5666 bytecodes with every branch taken, far less near walls)
+    //    -- until this robot has measured one (recordCost) it only has to afford the greedy fallback, so it measures early
+    costs[PATHFINDING] = GREEDY_PATHFINDING_COST;
+    switch (Cache.Permanent.ROBOT_TYPE) {
+      case ARCHON:
+      case LABORATORY:
+      case WATCHTOWER:
+        costs[SENSING] = 256;
+        endOfTurnReserve = 400 + costs[COMMS_SEND];
+        break;
+      case MINER:
+        costs[SENSING] = 512;
+        endOfTurnReserve = 500 + costs[COMMS_SEND];
+        break;
+      case BUILDER:
+        costs[SENSING] = 512;
+        endOfTurnReserve = 400 + costs[COMMS_SEND];
+        break;
+      case SOLDIER:
+        costs[SENSING] = 512;
+        costs[MICRO] = 80;
+        endOfTurnReserve = 600 + costs[COMMS_SEND];
+        break;
+      case SAGE:
+        costs[SENSING] = 512;
+        costs[MICRO] = 100;
+        endOfTurnReserve = 600 + costs[COMMS_SEND];
+        break;
+    }
+  }
+
+  /**
+   * @param phase the phase to check
+   * @return the bytecodes the phase may use without eating into the reserve for later phases
+   */
+  public static int available(int phase) {
+    return Clock.getBytecodesLeft() - (phase == COMMS_SEND ? WRAP_UP_RESERVE : endOfTurnReserve);
+  }
+
+  /**
+   * @param phase the phase to check
+   * @return the estimated cost of one unit of work in the phase
+   */
+  public static int cost(int phase) {
+    return costs[phase];
+  }
+
+  /**
+   * fold a measured cost into the estimate for a phase (the first measurement replaces the seed, later ones average in)
+   * @param phase the phase that was measured
+   * @param bytecodes what one unit of work actually cost (ignored if the turn ran over mid-measurement)
+   */
+  public static void recordCost(int phase, int bytecodes) {
+    if (bytecodes <= 0) return;
+    if (!measured[phase]) {
+      measured[phase] = true;
+      costs[phase] = bytecodes;
+    } else {
+      costs[phase] = (costs[phase] + bytecodes) / 2; // smooth out occasional spikes
+    }
+  }
+
+  /**
+   * @param phase the phase to check
+   * @return true if one unit of work in the phase can be afforded
+   */
+  public static boolean canAfford(int phase) {
+    return available(phase) >= costs[phase];
+  }
+
+  /**
+   * @param phase the phase to check
+   * @param units how many units of work are needed
+   * @return true if all the units of work can be afforded
+   */
+  public static boolean canAfford(int phase, int units) {
+    return available(phase) >= costs[phase] * units;
+  }
+}
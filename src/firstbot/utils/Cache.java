@@ -154,27 +154,151 @@ public class Cache {
     public static class PerTurn {
         public static int ROUND_NUM;
         public static int ROUNDS_ALIVE;
-        public static RobotInfo[] ALL_NEARBY_ROBOTS;
-        public static RobotInfo[] ALL_NEARBY_FRIENDLY_ROBOTS;
-        public static RobotInfo[] ALL_NEARBY_ENEMY_ROBOTS;
-        public static RobotInfo ENEMY_0;
-        public static RobotInfo ENEMY_1;
-        public static RobotInfo ENEMY_2;
-        public static RobotInfo ENEMY_3;
-        public static RobotInfo ENEMY_4;
-        public static RobotInfo ENEMY_5;
-        public static RobotInfo ENEMY_6;
-        public static RobotInfo ENEMY_7;
-        public static RobotInfo ENEMY_8;
-        public static RobotInfo ENEMY_9;
         public static MapLocation CURRENT_LOCATION;
         public static int LEVEL;
         public static int HEALTH;
         //        public static MapLocation[] NEARBY_LEAD_MIN_2;
 //        public static MapLocation[] NEARBY_LEAD_2;
 
+        /** bumped every turn and every time the robot moves -- anything derived from sensing is valid for one cacheState */
         public static int cacheState;
 
+        // ================ LAZY SENSING ================
+        // one senseNearbyRobots() per cacheState, on first access, split by team (and counted by type) in a single pass
+        private static final int MAX_SENSED_ROBOTS = 177; // tiles with dx^2 + dy^2 <= 53 (the largest vision radius), own tile included
+        private static final RobotInfo[] friendlyBuffer = new RobotInfo[MAX_SENSED_ROBOTS];
+        private static final RobotInfo[] enemyBuffer = new RobotInfo[MAX_SENSED_ROBOTS];
+        private static final int NUM_TYPES = RobotType.values().length;
+
+        private static int sensedState = -1;
+        private static RobotInfo[] allNearbyRobots;
+        private static RobotInfo[] allNearbyFriendlyRobots;
+        private static RobotInfo[] allNearbyEnemyRobots;
+        private static final int[] friendlyTypeCounts = new int[NUM_TYPES];
+        private static final int[] enemyTypeCounts = new int[NUM_TYPES];
+
+        private static int offensiveState = -1;
+        private static RobotInfo[] offensiveEnemies;
+
+        private static void sense() {
+            sensedState = cacheState;
+            RobotInfo[] all = allNearbyRobots = Global.rc.senseNearbyRobots();
+            int[] friendlyCounts = friendlyTypeCounts;
+            int[] enemyCounts = enemyTypeCounts;
+            for (int i = NUM_TYPES; --i >= 0; ) {
+                friendlyCounts[i] = 0;
+                enemyCounts[i] = 0;
+            }
+            Team ourTeam = Permanent.OUR_TEAM;
+            int numFriendly = 0;
+            int numEnemy = 0;
+            for (int i = 0, len = all.length; i < len; i++) {
+                RobotInfo robot = all[i];
+                if (robot.team == ourTeam) {
+                    friendlyBuffer[numFriendly++] = robot;
+                    friendlyCounts[robot.type.ordinal()]++;
+                } else {
+                    enemyBuffer[numEnemy++] = robot;
+                    enemyCounts[robot.type.ordinal()]++;
+                }
+            }
+            System.arraycopy(friendlyBuffer, 0, allNearbyFriendlyRobots = new RobotInfo[numFriendly], 0, numFriendly);
+            System.arraycopy(enemyBuffer, 0, allNearbyEnemyRobots = new RobotInfo[numEnemy], 0, numEnemy);
+        }
+
+        public static RobotInfo[] allNearbyRobots() {
+            if (sensedState != cacheState) sense();
+            return allNearbyRobots;
+        }
+
+        public static RobotInfo[] allNearbyFriendlyRobots() {
+            if (sensedState != cacheState) sense();
+            return allNearbyFriendlyRobots;
+        }
+
+        public static RobotInfo[] allNearbyEnemyRobots() {
+            if (sensedState != cacheState) sense();
+            return allNearbyEnemyRobots;
+        }
+
+        /**
+         * @param type the type to count
+         * @return how many friendly robots of that type are in vision
+         */
+        public static int numFriendly(RobotType type) {
+            if (sensedState != cacheState) sense();
+            return friendlyTypeCounts[type.ordinal()];
+        }
+
+        /**
+         * @param type the type to count
+         * @return how many enemy robots of that type are in vision
+         */
+        public static int numEnemy(RobotType type) {
+            if (sensedState != cacheState) sense();
+            return enemyTypeCounts[type.ordinal()];
+        }
+
+        /**
+         * @return the enemies in vision that can do damage (type.damage > 0)
+         */
+        public static RobotInfo[] offensiveEnemies() {
+            if (offensiveState == cacheState) return offensiveEnemies;
+            offensiveState = cacheState;
+            RobotInfo[] enemies = allNearbyEnemyRobots();
+            int numOffensive = 0;
+            for (int i = 0, len = enemies.length; i < len; i++) {
+                if (enemies[i].type.damage > 0) enemyBuffer[numOffensive++] = enemies[i];
+            }
+            System.arraycopy(enemyBuffer, 0, offensiveEnemies = new RobotInfo[numOffensive], 0, numOffensive);
+            return offensiveEnemies;
+        }
+
+        // ================ ENEMY SNAPSHOT ================
+        // struct-of-arrays copy of allNearbyEnemyRobots() (same indices) for the micro loops, which visit every enemy once per direction
+        //    everything that doesn't depend on the direction being evaluated (incl. rubble under the enemy) is computed once per enemy here
+        private static int snapshotState = -1;
+        public static RobotInfo[] ENEMIES;
+        public static int NUM_ENEMIES;
+        public static final RobotType[] ENEMY_TYPE = new RobotType[MAX_SENSED_ROBOTS];
+        public static final int[] ENEMY_X = new int[MAX_SENSED_ROBOTS];
+        public static final int[] ENEMY_Y = new int[MAX_SENSED_ROBOTS];
+        public static final int[] ENEMY_HP = new int[MAX_SENSED_ROBOTS];
+        public static final int[] ENEMY_DAMAGE = new int[MAX_SENSED_ROBOTS];
+        public static final int[] ENEMY_ACTION_RADIUS = new int[MAX_SENSED_ROBOTS];
+        /** distance squared from CURRENT_LOCATION */
+        public static final int[] ENEMY_DISTANCE = new int[MAX_SENSED_ROBOTS];
+        public static final int[] ENEMY_RUBBLE = new int[MAX_SENSED_ROBOTS];
+        /** damage per turn after the enemy's rubble slows its cooldown (0 for non-offensive enemies) */
+        public static final double[] ENEMY_DPS = new double[MAX_SENSED_ROBOTS];
+
+        /**
+         * fill the ENEMY_* arrays for the current cacheState (no-op if already filled)
+         * @return the number of enemies in the snapshot
+         * @throws GameActionException if sensing rubble fails
+         */
+        public static int snapshotEnemies() throws GameActionException {
+            if (snapshotState == cacheState) return NUM_ENEMIES;
+            snapshotState = cacheState;
+            RobotInfo[] enemies = ENEMIES = allNearbyEnemyRobots();
+            int myX = CURRENT_LOCATION.x;
+            int myY = CURRENT_LOCATION.y;
+            for (int i = NUM_ENEMIES = enemies.length; --i >= 0; ) {
+                RobotInfo enemy = enemies[i];
+                RobotType type = ENEMY_TYPE[i] = enemy.type;
+                MapLocation location = enemy.location;
+                int x = ENEMY_X[i] = location.x;
+                int y = ENEMY_Y[i] = location.y;
+                ENEMY_DISTANCE[i] = (x - myX) * (x - myX) + (y - myY) * (y - myY);
+                ENEMY_HP[i] = enemy.health;
+                ENEMY_ACTION_RADIUS[i] = type.actionRadiusSquared;
+                int rubble = ENEMY_RUBBLE[i] = TerrainMemory.rubbleAt(location);
+                int damage = ENEMY_DAMAGE[i] = type.damage;
+                ENEMY_DPS[i] = damage > 0 ? damage / Utils.turnsTillNextCooldown(type.actionCooldown, rubble) : 0;
+            }
+            return NUM_ENEMIES;
+        }
+
         public static void whenMoved() throws GameActionException {
             // don't need to update
             if (PerTurn.CURRENT_LOCATION != null && Global.rc.getLocation().equals(PerTurn.CURRENT_LOCATION)) {
@@ -187,9 +311,6 @@ public class Cache {
         private static void updateForMovement() throws GameActionException {
             PerTurn.cacheState++;
             PerTurn.CURRENT_LOCATION = Global.rc.getLocation();
-            PerTurn.ALL_NEARBY_ROBOTS = Global.rc.senseNearbyRobots();
-            PerTurn.ALL_NEARBY_FRIENDLY_ROBOTS = Global.rc.senseNearbyRobots(-1, Permanent.OUR_TEAM);
-            PerTurn.ALL_NEARBY_ENEMY_ROBOTS = Global.rc.senseNearbyRobots(-1, Permanent.OPPONENT_TEAM);
 //            PerTurn.NEARBY_LEAD_MIN_2 = Global.rc.senseNearbyLocationsWithLead(-1, 2);
         }
     }
@@ -0,0 +1,76 @@
+package firstbot.utils;
+
+/**
+ * registry of memoized values for derived queries -- each slot holds one int or object plus the stamp it was computed at
+ *    slots flagged PER_ROUND stay valid for the round, the rest for one Cache.PerTurn.cacheState (until we move or the turn ends)
+ *    inputs that can change within a cacheState/round must invalidate their slots (see ArchonInfo for the nearest archons)
+ *    usage:
+ *      if (Memo.isValid(Memo.SLOT)) return (T) Memo.object(Memo.SLOT);
+ *      ...compute...
+ *      return (T) Memo.store(Memo.SLOT, value);
+ *    add new slots below (keep NUM_SLOTS in sync)
+ */
+public class Memo {
+  public static final int PER_ROUND = 1 << 8;
+  private static final int INDEX_MASK = PER_ROUND - 1;
+
+  public static final int OFFENSIVE_ENEMY_CENTROID = 0;
+  public static final int FRIENDLY_SOLDIER_CENTROID = 1;
+  public static final int NEAREST_FRIENDLY_ARCHON = 2;
+  public static final int NEAREST_ENEMY_ARCHON = 3;
+  public static final int NEED_TO_STAY_ON_SAFE_SIDE = 4;
+  public static final int LOADED_MUX_TAG = 5 | PER_ROUND;
+  private static final int NUM_SLOTS = 6;
+
+  private static final int[] stamps = new int[NUM_SLOTS];
+  private static final int[] ints = new int[NUM_SLOTS];
+  private static final Object[] objects = new Object[NUM_SLOTS];
+
+  private static int stampFor(int slot) {
+    // +1 so the zeroed stamps never look valid
+    return ((slot & PER_ROUND) != 0 ? Cache.PerTurn.ROUND_NUM : Cache.PerTurn.cacheState) + 1;
+  }
+
+  /**
+   * @param slot the slot to check
+   * @return true if the slot was stored during the current cacheState (or round for PER_ROUND slots) and not invalidated since
+   */
+  public static boolean isValid(int slot) {
+    return stamps[slot & INDEX_MASK] == stampFor(slot);
+  }
+
+  public static void invalidate(int slot) {
+    stamps[slot & INDEX_MASK] = 0;
+  }
+
+  public static Object object(int slot) {
+    return objects[slot & INDEX_MASK];
+  }
+
+  public static int intValue(int slot) {
+    return ints[slot & INDEX_MASK];
+  }
+
+  public static boolean booleanValue(int slot) {
+    return ints[slot & INDEX_MASK] != 0;
+  }
+
+  /**
+   * @return the stored value (so a computation can end with return (T) Memo.store(...))
+   */
+  public static Object store(int slot, Object value) {
+    stamps[slot & INDEX_MASK] = stampFor(slot);
+    return objects[slot & INDEX_MASK] = value;
+  }
+
+  public static int store(int slot, int value) {
+    stamps[slot & INDEX_MASK] = stampFor(slot);
+    return ints[slot & INDEX_MASK] = value;
+  }
+
+  public static boolean store(int slot, boolean value) {
+    stamps[slot & INDEX_MASK] = stampFor(slot);
+    ints[slot & INDEX_MASK] = value ? 1 : 0;
+    return value;
+  }
+}
@@ -0,0 +1,122 @@
+package firstbot.utils;
+
+import battlecode.common.GameConstants;
+
+/**
+ * records which phase of runTurnWrapper was running when a turn went over the bytecode limit
+ *    records are packed ints in a bounded ring, reported once at game end (or when about to die)
+ */
+public class OverrunRecorder {
+  public static final boolean ENABLED = true;
+
+  // ================ PHASES ================
+  public static final int ACK = 0;
+  public static final int TURN = 1;
+  public static final int COMM_ENEMIES = 2;
+  public static final int SEND = 3;
+  public static final int NUM_PHASES = 4;
+
+  private static final String[] PHASE_NAMES = {
+      "ack",
+      "runTurnTypeWrapper",
+      "commNearbyEnemies",
+      "sendQueuedMessages",
+  };
+
+  // ================ RECORD LAYOUT ================
+  // round   -- 11 bits [31,21]
+  // phase   -- 2 bits  [20,19]
+  // nearby  -- 7 bits  [18,12]
+  // queued  -- 12 bits [11,0] (unsent outgoing messages)
+  private static final int ROUND_SHIFT = 21;
+  private static final int PHASE_SHIFT = 19;
+  private static final int PHASE_MASK = 0b11;
+  private static final int NEARBY_SHIFT = 12;
+  private static final int NEARBY_MASK = 0b1111111;
+  private static final int QUEUED_MASK = 0b111111111111;
+
+  private static final int RING_SIZE = 16;
+  private static final int[] ring = new int[RING_SIZE];
+  private static int totalOverruns;
+  private static final int[] overrunsPerPhase = new int[NUM_PHASES];
+  private static int maxNearby;
+
+  private static int turnStartRound;
+  private static int lastFinishedPhase;
+  private static boolean recordedThisTurn;
+  private static boolean reported;
+
+  /**
+   * start tracking a new turn
+   */
+  public static void beginTurn() {
+    if (!ENABLED) return;
+    turnStartRound = Cache.PerTurn.ROUND_NUM;
+    lastFinishedPhase = -1;
+    recordedThisTurn = false;
+  }
+
+  /**
+   * called after a phase completes - records the phase if the turn has crossed the limit during it
+   * @param phase the phase that just finished
+   */
+  public static void afterPhase(int phase) {
+    if (!ENABLED) return;
+    lastFinishedPhase = phase;
+    if (recordedThisTurn || Global.rc.getRoundNum() == turnStartRound) return;
+    record(phase);
+  }
+
+  private static void record(int phase) {
+    recordedThisTurn = true;
+    int nearby = Cache.PerTurn.allNearbyRobots().length;
+    if (nearby > maxNearby) maxNearby = nearby;
+    ring[totalOverruns++ % RING_SIZE] = (turnStartRound << ROUND_SHIFT)
+        | (phase << PHASE_SHIFT)
+        | (Math.min(nearby, NEARBY_MASK) << NEARBY_SHIFT)
+        | Math.min(Global.communicator.numQueuedMessages(), QUEUED_MASK);
+    overrunsPerPhase[phase]++;
+  }
+
+  /**
+   * called once at the end of every turn (from a finally, so also after a turn that threw)
+   *    an overrun no afterPhase saw (the turn threw, or ran over after the last phase) goes to the phase that was running
+   *    reports on the last round or once when the robot is likely about to die
+   */
+  public static void endTurn() {
+    if (!ENABLED) return;
+    if (!recordedThisTurn && Global.rc.getRoundNum() != turnStartRound) {
+      record(Math.min(lastFinishedPhase + 1, NUM_PHASES - 1));
+    }
+    recordedThisTurn = true; // nothing more to record until the next beginTurn
+    if (reported) return;
+    if (Cache.PerTurn.ROUND_NUM >= GameConstants.GAME_MAX_NUMBER_OF_ROUNDS || Cache.PerTurn.HEALTH * 5 <= Cache.Permanent.MAX_HEALTH) {
+      report();
+    }
+  }
+
+  /**
+   * print the overrun summary for this robot (tagged with its type for aggregation across robots)
+   *    format: phase counts, then the most recent records as round:phase/nearby/queued
+   */
+  public static void report() {
+    if (!ENABLED || reported || totalOverruns == 0) return;
+    reported = true;
+    StringBuilder summary = new StringBuilder("OVERRUN ");
+    summary.append(Cache.Permanent.ROBOT_TYPE).append(' ').append(Cache.Permanent.ID)
+        .append(" total:").append(totalOverruns).append(" maxNearby:").append(maxNearby);
+    for (int phase = 0; phase < NUM_PHASES; phase++) {
+      if (overrunsPerPhase[phase] > 0) summary.append(' ').append(PHASE_NAMES[phase]).append(':').append(overrunsPerPhase[phase]);
+    }
+    summary.append(" |");
+    int first = Math.max(0, totalOverruns - RING_SIZE);
+    for (int i = first; i < totalOverruns; i++) {
+      int record = ring[i % RING_SIZE];
+      summary.append(" r").append(record >>> ROUND_SHIFT)
+          .append(':').append(PHASE_NAMES[(record >>> PHASE_SHIFT) & PHASE_MASK])
+          .append('/').append((record >>> NEARBY_SHIFT) & NEARBY_MASK)
+          .append('/').append(record & QUEUED_MASK);
+    }
+    System.out.println(summary);
+  }
+}
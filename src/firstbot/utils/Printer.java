@@ -1,7 +1,60 @@
 package firstbot.utils;
 
+/**
+ * zero-allocation logger
+ *    structured events (event id + int args) are stored in a preallocated int ring and only formatted on submit
+ *    log levels are static final so guarded call sites (if (Printer.LOG_DEBUG) ...) are compiled out entirely
+ *    free-form print(String) is kept for ad-hoc debugging and goes into a single reused StringBuilder
+ */
 public class Printer {
-    public static StringBuilder print;
+    // ================ LOG LEVELS ================
+    public static final boolean LOG_ERROR = true;
+    public static final boolean LOG_INFO = true;
+    public static final boolean LOG_DEBUG = false;
+
+    // ================ EVENTS ================
+    // each '%' in the format is replaced by the next int arg
+    public static final int EVENT_OUR_ARCHON_MISSING = 0;    // x, y
+    public static final int EVENT_ENEMY_ARCHON_MISSING = 1;  // x, y
+    private static final String[] EVENT_FORMATS = {
+        "ERROR: our archon not at (%, %) - probably dead, replacing with nearest",
+        "ERROR: enemy archon not at (%, %) - probably dead, replacing with nearest",
+    };
+
+    // ================ RING ================
+    private static final int MAX_ARGS = 3;
+    private static final int RECORD_SIZE = 1 + MAX_ARGS;
+    private static final int RING_EVENTS = 32;
+    private static final int[] ring = new int[RING_EVENTS * RECORD_SIZE];
+    private static int numEvents; // events logged since last submit (may exceed RING_EVENTS -> oldest dropped)
+
+    private static final StringBuilder print = new StringBuilder(256);
+
+    public static void log(int event) {
+      int base = (numEvents++ % RING_EVENTS) * RECORD_SIZE;
+      ring[base] = event;
+    }
+
+    public static void log(int event, int a) {
+      int base = (numEvents++ % RING_EVENTS) * RECORD_SIZE;
+      ring[base] = event;
+      ring[base+1] = a;
+    }
+
+    public static void log(int event, int a, int b) {
+      int base = (numEvents++ % RING_EVENTS) * RECORD_SIZE;
+      ring[base] = event;
+      ring[base+1] = a;
+      ring[base+2] = b;
+    }
+
+    public static void log(int event, int a, int b, int c) {
+      int base = (numEvents++ % RING_EVENTS) * RECORD_SIZE;
+      ring[base] = event;
+      ring[base+1] = a;
+      ring[base+2] = b;
+      ring[base+3] = c;
+    }
 
     public static void print(String s) {
       print.append(s).append("\n");
@@ -19,17 +72,45 @@ public class Printer {
       print(s); print(s2); print(s3); print(s4);
     }
 
+    /**
+     * drop anything logged/printed so far this turn
+     */
     public static void cleanPrint() {
-      print = new StringBuilder();
-      print.append(" *** ");
-      print.append(Cache.PerTurn.CURRENT_LOCATION);
-      print.append(" ***\n");
+      numEvents = 0;
+      print.setLength(0);
     }
 
+    /**
+     * format and output everything logged/printed this turn (if anything)
+     */
     public static void submitPrint() {
-      if (print.length() > 25) {
-        System.out.println(print);
+      if (numEvents == 0 && print.length() == 0) return;
+      StringBuilder out = new StringBuilder();
+      out.append(" *** ").append(Cache.PerTurn.CURRENT_LOCATION).append(" ***\n");
+      int first = 0;
+      if (numEvents > RING_EVENTS) {
+        first = numEvents - RING_EVENTS;
+        out.append("(dropped ").append(first).append(" events)\n");
+      }
+      for (int i = first; i < numEvents; i++) {
+        formatEvent(out, (i % RING_EVENTS) * RECORD_SIZE);
       }
+      out.append(print);
+      System.out.println(out);
       cleanPrint();
     }
+
+    private static void formatEvent(StringBuilder out, int base) {
+      String format = EVENT_FORMATS[ring[base]];
+      int arg = base + 1;
+      for (int i = 0, len = format.length(); i < len; i++) {
+        char c = format.charAt(i);
+        if (c == '%') {
+          out.append(ring[arg++]);
+        } else {
+          out.append(c);
+        }
+      }
+      out.append('\n');
+    }
 }
@@ -0,0 +1,101 @@
+package firstbot.utils;
+
+import battlecode.common.Clock;
+import battlecode.common.GameConstants;
+
+/**
+ * allocation-free bytecode profiler
+ *    sections are compile-time int ids, stats are accumulated into a flat int[]
+ *    a compact summary is only printed every FLUSH_PERIOD rounds (or when about to die)
+ */
+public class Profiler {
+  public static final boolean ENABLED = true;
+  public static final int FLUSH_PERIOD = 250;
+
+  // ================ SECTIONS ================
+  public static final int READING = 0;
+  public static final int RELOAD_BUFFER = 1;
+  public static final int SENDING = 2;
+  public static final int PATHFINDING = 3;
+  public static final int MICRO = 4;
+  public static final int NUM_SECTIONS = 5;
+
+  private static final String[] SECTION_NAMES = {
+      "reading",
+      "reloadBuffer",
+      "sending",
+      "pathfinding",
+      "micro",
+  };
+
+  // ================ STATS LAYOUT ================
+  private static final int MIN = 0;
+  private static final int MAX = 1;
+  private static final int SUM = 2;
+  private static final int COUNT = 3;
+  private static final int STATS_PER_SECTION = 4;
+
+  private static final int[] stats = new int[NUM_SECTIONS * STATS_PER_SECTION];
+  private static final int[] startBytecode = new int[NUM_SECTIONS];
+  private static final int[] startRound = new int[NUM_SECTIONS];
+
+  private static boolean flushedForLowHealth;
+
+  /**
+   * mark the start of a profiled section
+   * @param section the section id
+   */
+  public static void start(int section) {
+    if (!ENABLED) return;
+    startBytecode[section] = Clock.getBytecodeNum();
+    startRound[section] = Global.rc.getRoundNum();
+  }
+
+  /**
+   * mark the end of a profiled section and accumulate its cost
+   *    accounts for sections that spilled over into the next turn
+   * @param section the section id
+   */
+  public static void finish(int section) {
+    if (!ENABLED) return;
+    int cost = Clock.getBytecodeNum() - startBytecode[section]
+        + (Global.rc.getRoundNum() - startRound[section]) * Cache.Permanent.ROBOT_TYPE.bytecodeLimit;
+    int base = section * STATS_PER_SECTION;
+    if (stats[base + COUNT]++ == 0 || cost < stats[base + MIN]) stats[base + MIN] = cost;
+    if (cost > stats[base + MAX]) stats[base + MAX] = cost;
+    stats[base + SUM] += cost;
+  }
+
+  /**
+   * called once at the end of every turn
+   *    flushes periodically, on the last round, and once when the robot is likely about to die
+   */
+  public static void endTurn() {
+    if (!ENABLED) return;
+    if (Cache.PerTurn.ROUND_NUM % FLUSH_PERIOD == 0 || Cache.PerTurn.ROUND_NUM >= GameConstants.GAME_MAX_NUMBER_OF_ROUNDS) {
+      flush();
+    } else if (!flushedForLowHealth && Cache.PerTurn.HEALTH * 5 <= Cache.Permanent.MAX_HEALTH) {
+      flushedForLowHealth = true;
+      flush();
+    }
+  }
+
+  /**
+   * print a compact summary of all sections that have been hit
+   *    format: name:count/min/avg/max
+   */
+  public static void flush() {
+    if (!ENABLED) return;
+    StringBuilder summary = new StringBuilder("PROF ");
+    summary.append(Cache.Permanent.ROBOT_TYPE).append(' ').append(Cache.Permanent.ID).append(" r").append(Cache.PerTurn.ROUND_NUM);
+    for (int section = 0, base = 0; section < NUM_SECTIONS; section++, base += STATS_PER_SECTION) {
+      int count = stats[base + COUNT];
+      if (count == 0) continue;
+      summary.append(' ').append(SECTION_NAMES[section]).append(':').append(count)
+          .append('/').append(stats[base + MIN])
+          .append('/').append(stats[base + SUM] / count)
+          .append('/').append(stats[base + MAX]);
+    }
+    System.out.println(summary);
+  }
+}
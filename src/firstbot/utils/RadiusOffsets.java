@@ -0,0 +1,129 @@
+package firstbot.utils;
+
+import battlecode.common.MapLocation;
+
+/**
+ * precomputed (dx, dy) offsets of every tile within radius^2 34 of a center, sorted by distance
+ *    because of the sort, the tiles within any smaller radius are a prefix of the table -- see countWithin / COUNT_*
+ *    so a scan is an array walk over the first N offsets instead of rc.getAllLocationsWithinRadiusSquared
+ *    (no engine call, and a MapLocation is only built for tiles that survive the cheap checks)
+ *    clip2 is the unrolled version of the hottest size (the 3x3 block around a tile)
+ */
+public class RadiusOffsets {
+  public static final int MAX_RADIUS_SQUARED = 34;
+
+  public static final int COUNT_2 = 9;
+  public static final int COUNT_8 = 25;
+  public static final int COUNT_13 = 45;
+  public static final int COUNT_20 = 69;
+  public static final int COUNT_34 = 109;
+
+  public static final int[] DX = {
+      0, // 0
+      -1, 0, 0, 1, // 1
+      -1, -1, 1, 1, // 2
+      -2, 0, 0, 2, // 4
+      -2, -2, -1, -1, 1, 1, 2, 2, // 5
+      -2, -2, 2, 2, // 8
+      -3, 0, 0, 3, // 9
+      -3, -3, -1, -1, 1, 1, 3, 3, // 10
+      -3, -3, -2, -2, 2, 2, 3, 3, // 13
+      -4, 0, 0, 4, // 16
+      -4, -4, -1, -1, 1, 1, 4, 4, // 17
+      -3, -3, 3, 3, // 18
+      -4, -4, -2, -2, 2, 2, 4, 4, // 20
+      -5, -4, -4, -3, -3, 0, 0, 3, 3, 4, 4, 5, // 25
+      -5, -5, -1, -1, 1, 1, 5, 5, // 26
+      -5, -5, -2, -2, 2, 2, 5, 5, // 29
+      -4, -4, 4, 4, // 32
+      -5, -5, -3, -3, 3, 3, 5, 5, // 34
+  };
+  public static final int[] DY = {
+      0, // 0
+      0, -1, 1, 0, // 1
+      -1, 1, -1, 1, // 2
+      0, -2, 2, 0, // 4
+      -1, 1, -2, 2, -2, 2, -1, 1, // 5
+      -2, 2, -2, 2, // 8
+      0, -3, 3, 0, // 9
+      -1, 1, -3, 3, -3, 3, -1, 1, // 10
+      -2, 2, -3, 3, -3, 3, -2, 2, // 13
+      0, -4, 4, 0, // 16
+      -1, 1, -4, 4, -4, 4, -1, 1, // 17
+      -3, 3, -3, 3, // 18
+      -2, 2, -4, 4, -4, 4, -2, 2, // 20
+      0, -3, 3, -4, 4, -5, 5, -4, 4, -3, 3, 0, // 25
+      -1, 1, -5, 5, -5, 5, -1, 1, // 26
+      -2, 2, -5, 5, -5, 5, -2, 2, // 29
+      -4, 4, -4, 4, // 32
+      -3, 3, -5, 5, -5, 5, -3, 3, // 34
+  };
+
+  /** COUNTS[r] = number of offsets with dx^2 + dy^2 <= r */
+  private static final int[] COUNTS = {1, 5, 9, 9, 13, 21, 21, 21, 25, 29, 37, 37, 37, 45, 45, 45, 49, 57, 61, 61, 69, 69, 69, 69, 69, 81, 89, 89, 89, 97, 97, 97, 101, 101, 109};
+
+  /**
+   * @param radiusSquared the radius to scan (at most MAX_RADIUS_SQUARED)
+   * @return how many offsets (from the start of DX/DY) are within the radius
+   */
+  public static int countWithin(int radiusSquared) {
+    return COUNTS[radiusSquared > MAX_RADIUS_SQUARED ? MAX_RADIUS_SQUARED : radiusSquared];
+  }
+
+  /**
+   * write the on-map absolute coordinates of the first count offsets around center into xs/ys (still sorted by distance)
+   * @param center the center of the scan
+   * @param count how many offsets to consider (COUNT_* or countWithin)
+   * @param xs output x coords (length >= count)
+   * @param ys output y coords (length >= count)
+   * @return how many coords were written
+   */
+  public static int clip(MapLocation center, int count, int[] xs, int[] ys) {
+    int cx = center.x;
+    int cy = center.y;
+    int width = Cache.Permanent.MAP_WIDTH;
+    int height = Cache.Permanent.MAP_HEIGHT;
+    if (cx >= 5 && cy >= 5 && cx < width - 5 && cy < height - 5) { // whole disk on the map
+      for (int i = count; --i >= 0; ) {
+        xs[i] = cx + DX[i];
+        ys[i] = cy + DY[i];
+      }
+      return count;
+    }
+    int n = 0;
+    for (int i = 0; i < count; i++) {
+      int x = cx + DX[i];
+      int y = cy + DY[i];
+      if (x < 0 || y < 0 || x >= width || y >= height) continue;
+      xs[n] = x;
+      ys[n++] = y;
+    }
+    return n;
+  }
+
+  /**
+   * unrolled clip(center, COUNT_2, xs, ys) -- the 3x3 block around center, in DX/DY order
+   *    no loop or table reads unless center is on the map edge (then falls back to clip)
+   * @param center the center of the scan
+   * @param xs output x coords (length >= COUNT_2)
+   * @param ys output y coords (length >= COUNT_2)
+   * @return how many coords were written
+   */
+  public static int clip2(MapLocation center, int[] xs, int[] ys) {
+    int cx = center.x;
+    int cy = center.y;
+    if (cx < 1 || cy < 1 || cx >= Cache.Permanent.MAP_WIDTH - 1 || cy >= Cache.Permanent.MAP_HEIGHT - 1) {
+      return clip(center, COUNT_2, xs, ys);
+    }
+    xs[0] = cx;     ys[0] = cy;
+    xs[1] = cx - 1; ys[1] = cy;
+    xs[2] = cx;     ys[2] = cy - 1;
+    xs[3] = cx;     ys[3] = cy + 1;
+    xs[4] = cx + 1; ys[4] = cy;
+    xs[5] = cx - 1; ys[5] = cy - 1;
+    xs[6] = cx - 1; ys[6] = cy + 1;
+    xs[7] = cx + 1; ys[7] = cy - 1;
+    xs[8] = cx + 1; ys[8] = cy + 1;
+    return COUNT_2;
+  }
+}
@@ -0,0 +1,189 @@
+package firstbot.utils;
+
+import battlecode.common.Clock;
+import battlecode.common.GameActionException;
+import battlecode.common.MapLocation;
+import firstbot.containers.Bitboard;
+
+/**
+ * per-robot memory of the rubble on every tile it has sensed (rubble never changes, so one sense per tile is enough)
+ *    rubble is stored +1 in a flat byte grid indexed by (x << 6) | y -- 0 means unknown, so a lookup is one array read
+ *    known holds the same set of tiles as a Bitboard for row-at-a-time questions
+ *    tiles get filled on demand (rubbleAt) and a chunk of vision at a time at the end of each turn (fillVision)
+ *    once the map symmetry is known (useSymmetry) every tile also tells us its mirror, so both get remembered together
+ *      and the tiles known from before go through mirrorKnown a few rows at a time
+ */
+public class TerrainMemory {
+  private static final int INDEX_SHIFT = 6; // 1 << 6 == Bitboard.MAX_SIZE >= GameConstants.MAP_MAX_HEIGHT
+
+  /** the rubble to assume for tiles that are neither remembered nor sensable */
+  public static final int UNKNOWN_RUBBLE = 100;
+
+  private static byte[] rubblePlusOne;
+  private static Bitboard known;
+  public static int numKnown;
+
+  private static int visionCount;
+  private static int[] visionXs;
+  private static int[] visionYs;
+  private static MapLocation fillCenter;
+  private static int fillCursor;
+  private static int fillEnd;
+  private static boolean fillDone;
+
+  private static Utils.MapSymmetry symmetry;
+  private static int mirrorRow; // rows below this were taken up by mirrorKnown (everything after is mirrored in remember)
+  private static long mirrorBits; // the tiles of row mirrorRow - 1 that mirrorKnown hasn't mirrored yet
+
+  /**
+   * allocate the grid
+   *    ASSUMES - Cache.setup() has been called
+   */
+  public static void setup() {
+    rubblePlusOne = new byte[Bitboard.MAX_SIZE << INDEX_SHIFT];
+    known = new Bitboard(Cache.Permanent.MAP_WIDTH, Cache.Permanent.MAP_HEIGHT);
+    visionCount = RadiusOffsets.countWithin(Cache.Permanent.VISION_RADIUS_SQUARED);
+    visionXs = new int[visionCount];
+    visionYs = new int[visionCount];
+  }
+
+  public static boolean onTheMap(int x, int y) {
+    return x >= 0 && y >= 0 && x < Cache.Permanent.MAP_WIDTH && y < Cache.Permanent.MAP_HEIGHT;
+  }
+
+  public static boolean onTheMap(MapLocation loc) {
+    return onTheMap(loc.x, loc.y);
+  }
+
+  public static boolean isKnown(int x, int y) {
+    return rubblePlusOne[(x << INDEX_SHIFT) | y] != 0;
+  }
+
+  public static boolean isKnown(MapLocation loc) {
+    return rubblePlusOne[(loc.x << INDEX_SHIFT) | loc.y] != 0;
+  }
+
+  /**
+   * drop-in for rc.senseRubble -- only asks the engine the first time a tile is seen
+   * @param loc the tile (must be remembered or within vision)
+   * @return the rubble on the tile
+   * @throws GameActionException if the tile is unknown and can't be sensed
+   */
+  public static int rubbleAt(MapLocation loc) throws GameActionException {
+    int stored = rubblePlusOne[(loc.x << INDEX_SHIFT) | loc.y];
+    if (stored != 0) return stored - 1;
+    return remember(loc.x, loc.y, Global.rc.senseRubble(loc));
+  }
+
+  /**
+   * like rubbleAt, but for tiles that may be out of vision (or off the map)
+   * @param loc the tile
+   * @param unknownRubble what to return if the tile isn't remembered and can't be sensed
+   * @return the rubble on the tile
+   * @throws GameActionException if sensing fails
+   */
+  public static int rubbleOr(MapLocation loc, int unknownRubble) throws GameActionException {
+    if (!onTheMap(loc.x, loc.y)) return unknownRubble;
+    int stored = rubblePlusOne[(loc.x << INDEX_SHIFT) | loc.y];
+    if (stored != 0) return stored - 1;
+    if (!Global.rc.canSenseLocation(loc)) return unknownRubble;
+    return remember(loc.x, loc.y, Global.rc.senseRubble(loc));
+  }
+
+  private static int remember(int x, int y, int rubble) {
+    rubblePlusOne[(x << INDEX_SHIFT) | y] = (byte) (rubble + 1);
+    known.set(x, y);
+    numKnown++;
+    if (symmetry != null) rememberMirror(x, y, (byte) (rubble + 1));
+    return rubble;
+  }
+
+  private static void rememberMirror(int x, int y, byte stored) {
+    switch (symmetry) {
+      case HORIZONTAL:
+        x = Cache.Permanent.MAP_WIDTH - 1 - x;
+        break;
+      case VERTICAL:
+        y = Cache.Permanent.MAP_HEIGHT - 1 - y;
+        break;
+      case ROTATIONAL:
+        x = Cache.Permanent.MAP_WIDTH - 1 - x;
+        y = Cache.Permanent.MAP_HEIGHT - 1 - y;
+        break;
+    }
+    int index = (x << INDEX_SHIFT) | y;
+    if (rubblePlusOne[index] != 0) return;
+    rubblePlusOne[index] = stored;
+    known.set(x, y);
+    numKnown++;
+  }
+
+  /**
+   * start mirroring terrain across the (now certain) map symmetry -- no-op after the first call
+   * @param knownSymmetry the symmetry of the map
+   */
+  public static void useSymmetry(Utils.MapSymmetry knownSymmetry) {
+    if (symmetry != null || knownSymmetry == null) return;
+    symmetry = knownSymmetry;
+    mirrorRow = 0;
+    mirrorBits = 0;
+  }
+
+  /**
+   * copy the tiles remembered before the symmetry was known onto their mirrors, tile by tile until the bytecode cap
+   *    an interrupted pass resumes at the next tile of the same row
+   * @param maxBytecodes the most bytecodes to spend
+   */
+  public static void mirrorKnown(int maxBytecodes) {
+    if (symmetry == null || (mirrorBits == 0 && mirrorRow >= Cache.Permanent.MAP_HEIGHT) || maxBytecodes <= 0) return;
+    int stopAt = Clock.getBytecodesLeft() - maxBytecodes;
+    byte[] grid = rubblePlusOne;
+    while (true) {
+      while (mirrorBits == 0) {
+        if (mirrorRow >= Cache.Permanent.MAP_HEIGHT) return;
+        mirrorBits = known.row(mirrorRow++);
+      }
+      int y = mirrorRow - 1;
+      // mirrors written by earlier rows come back to tiles that are already known, so rememberMirror skips them
+      do {
+        int x = Long.numberOfTrailingZeros(mirrorBits);
+        mirrorBits &= mirrorBits - 1;
+        rememberMirror(x, y, grid[(x << INDEX_SHIFT) | y]);
+        if (Clock.getBytecodesLeft() < stopAt) return;
+      } while (mirrorBits != 0);
+    }
+  }
+
+  /**
+   * sense the not yet remembered tiles in vision, nearest first, until the bytecode cap
+   *    an interrupted fill resumes where it stopped if the robot hasn't moved since
+   * @param maxBytecodes the most bytecodes to spend
+   * @throws GameActionException if sensing fails
+   */
+  public static void fillVision(int maxBytecodes) throws GameActionException {
+    MapLocation center = Cache.PerTurn.CURRENT_LOCATION;
+    if (!center.equals(fillCenter)) {
+      fillCenter = center;
+      fillCursor = 0;
+      fillEnd = RadiusOffsets.clip(center, visionCount, visionXs, visionYs);
+      fillDone = false;
+    }
+    if (fillDone || maxBytecodes <= 0) return;
+    int stopAt = Clock.getBytecodesLeft() - maxBytecodes;
+    byte[] grid = rubblePlusOne;
+    int[] xs = visionXs;
+    int[] ys = visionYs;
+    for (int i = fillCursor; i < fillEnd; i++) {
+      int x = xs[i];
+      int y = ys[i];
+      if (grid[(x << INDEX_SHIFT) | y] == 0) {
+        remember(x, y, Global.rc.senseRubble(new MapLocation(x, y)));
+        if (Clock.getBytecodesLeft() < stopAt) {
+          fillCursor = i + 1;
+          return;
+        }
+      }
+    }
+    fillDone = true;
+  }
+}
@@ -334,38 +334,4 @@ public class Utils {
   public static boolean tooCloseToEnemyArchon(MapLocation location) throws GameActionException {
     return Global.communicator.archonInfo.getNearestEnemyArchon(location).distanceSquaredTo(location) <= Global.communicator.archonInfo.getNearestFriendlyArchon(location).distanceSquaredTo(location);
   }
-
-  /*
-
-  * / // ================================== TOGGLE THIS OFF/ON
-
-  private static Map<String, Integer> byteCodeMap = new HashMap<>();
-  public static void startByteCodeCounting(String reason) {
-    if (byteCodeMap.putIfAbsent(reason, Clock.getBytecodeNum()) != null) { // we're already counting!
-      System.out.printf("Already counting for %s!!\n", reason);
-    }
-  }
-
-  public static void finishByteCodeCounting(String reason) {
-    int end = Clock.getBytecodeNum();
-    Integer start = byteCodeMap.getOrDefault(reason, -1);
-    if (start == -1) {
-      System.out.printf("Not counting bytecodes for %s!!!\n", reason);
-      return;
-    }
-    System.out.printf("%4d BC: %s\n", end-start, reason);
-    byteCodeMap.remove(reason);
-  }
-
-
-  /*
-
-  */ // ------------------------------ TOGGLE THIS ON/OFF
-
-  public static void startByteCodeCounting(String reason) {}
-  public static void finishByteCodeCounting(String reason) {}
-
-  /*
-   */
-
 }
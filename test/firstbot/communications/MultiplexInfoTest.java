@@ -0,0 +1,112 @@
+package firstbot.communications;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import battlecode.common.MapLocation;
+import battlecode.common.RobotController;
+import firstbot.utils.Cache;
+import firstbot.utils.Global;
+import firstbot.utils.Memo;
+import java.lang.reflect.Proxy;
+
+public class MultiplexInfoTest {
+
+  private static final int MUX = SharedArrayLayout.MUX_START;
+
+  /** a controller whose only behaviour is the shared array (forgets the loaded bank from earlier tests) */
+  private static int[] mockSharedArray() {
+    final int[] shared = new int[64];
+    Memo.invalidate(Memo.LOADED_MUX_TAG);
+    Global.rc = (RobotController) Proxy.newProxyInstance(MultiplexInfoTest.class.getClassLoader(),
+        new Class[] {RobotController.class}, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "readSharedArray": return shared[(Integer) args[0]];
+            case "writeSharedArray": shared[(Integer) args[0]] = (Integer) args[1]; return null;
+          }
+          Class<?> type = method.getReturnType();
+          if (type == int.class) return 0;
+          if (type == boolean.class) return false;
+          return null;
+        });
+    return shared;
+  }
+
+  private static void setupChunks() {
+    Cache.Permanent.MAP_WIDTH = 20;
+    Cache.Permanent.MAP_HEIGHT = 20;
+    Cache.Permanent.CHUNK_WIDTH = 2;
+    Cache.Permanent.CHUNK_HEIGHT = 2;
+    Cache.Permanent.NUM_HORIZONTAL_CHUNKS = 10;
+    Cache.Permanent.NUM_VERTICAL_CHUNKS = 10;
+    Cache.Permanent.NUM_CHUNKS = 100;
+  }
+
+  @Test
+  public void testBanksSwapOnAlternateRounds() throws Exception {
+    int[] shared = mockSharedArray();
+    Communicator.MultiplexInfo first = new Communicator.MultiplexInfo();
+    Communicator.MultiplexInfo second = new Communicator.MultiplexInfo();
+
+    Cache.PerTurn.ROUND_NUM = 2;
+    first.swapIfDue();
+    assertTrue(SharedArrayLayout.isActive(SharedArrayLayout.EVEN_ROUNDS));
+    shared[MUX] = 0x1234; // heatmap write
+    second.swapIfDue();
+
+    Cache.PerTurn.ROUND_NUM = 3;
+    first.swapIfDue();
+    assertTrue(SharedArrayLayout.isActive(SharedArrayLayout.ODD_ROUNDS));
+    assertFalse(SharedArrayLayout.isActive(SharedArrayLayout.EVEN_ROUNDS));
+    assertEquals(0, shared[MUX]);
+    shared[MUX + 6] = 0x8001; // chunk write
+    second.swapIfDue(); // only copies -- the first archon already swapped
+    assertEquals(0x8001, shared[MUX + 6]);
+
+    Cache.PerTurn.ROUND_NUM = 4;
+    first.swapIfDue();
+    assertEquals(0x1234, shared[MUX]);
+    assertEquals(0, shared[MUX + 6]);
+
+    // the first archon is gone -- the second one has copies of both banks
+    Cache.PerTurn.ROUND_NUM = 5;
+    second.swapIfDue();
+    assertEquals(0, shared[MUX]);
+    assertEquals(0x8001, shared[MUX + 6]);
+  }
+
+  @Test
+  public void testSwapKeepsTheValidRegion() throws Exception {
+    int[] shared = mockSharedArray();
+    shared[SharedArrayLayout.MUX_TAG_IND] = 0xABCE;
+    Cache.PerTurn.ROUND_NUM = 7;
+    new Communicator.MultiplexInfo().swapIfDue();
+    assertEquals(0xABCF, shared[SharedArrayLayout.MUX_TAG_IND]);
+  }
+
+  @Test
+  public void testChunkMarksWaitForTheirBank() throws Exception {
+    int[] shared = mockSharedArray();
+    setupChunks();
+    Communicator.MultiplexInfo archon = new Communicator.MultiplexInfo();
+    Communicator.ChunkInfo chunks = new Communicator.ChunkInfo();
+    MapLocation location = new MapLocation(5, 3); // chunk 12
+
+    Cache.PerTurn.ROUND_NUM = 2;
+    archon.swapIfDue();
+    chunks.markExplored(location);
+    assertEquals(0, shared[MUX]); // the heatmap is loaded
+    assertTrue(chunks.chunkHasBeenExplored(12));
+
+    Cache.PerTurn.ROUND_NUM = 3;
+    archon.swapIfDue();
+    chunks.flushPending();
+    assertEquals(1 << 12, shared[MUX]);
+
+    Cache.PerTurn.ROUND_NUM = 4;
+    archon.swapIfDue();
+    assertEquals(0, shared[MUX]);
+    assertFalse(new Communicator.ChunkInfo().chunkHasBeenExplored(12)); // a fresh robot has nothing to go on until an odd round
+    assertTrue(chunks.chunkHasBeenExplored(12));
+  }
+}
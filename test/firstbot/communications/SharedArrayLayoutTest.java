@@ -0,0 +1,91 @@
+package firstbot.communications;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class SharedArrayLayoutTest {
+
+  private static final int FULL = 0xFFFF;
+  private static final int LAST = 63;
+
+  private static String failure(int[] claims) {
+    String[] names = new String[claims.length / 4];
+    for (int i = 0; i < names.length; i++) names[i] = "claim" + i;
+    try {
+      SharedArrayLayout.checkClaims(claims, names);
+    } catch (RuntimeException e) {
+      return e.getMessage();
+    }
+    return null;
+  }
+
+  @Test
+  public void testLayoutIsDisjointAndCoversTheArray() {
+    SharedArrayLayout.checkLayout(); // regardless of VALIDATE -- throws on any overlap, gap or schema mismatch
+    assertEquals(0, SharedArrayLayout.MESSAGE_RING_START);
+    assertEquals(SharedArrayLayout.HEATMAP_START, SharedArrayLayout.CHUNK_START);
+    assertEquals(28, SharedArrayLayout.MESSAGE_RING_SIZE);
+  }
+
+  @Test
+  public void testOverlapIsRejected() {
+    String error = failure(new int[] {
+        0, 40, FULL, SharedArrayLayout.ALWAYS,
+        39, 25, FULL, SharedArrayLayout.ALWAYS,
+    });
+    assertNotNull(error);
+    assertTrue(error, error.startsWith("Shared array overlap! - claim1 at 39"));
+  }
+
+  @Test
+  public void testGapIsRejected() {
+    String error = failure(new int[] {
+        0, LAST, FULL, SharedArrayLayout.ALWAYS,
+        LAST, 1, 0xFF00, SharedArrayLayout.ALWAYS,
+    });
+    assertNotNull(error);
+    assertTrue(error, error.startsWith("Shared array gap! - nothing owns 63 mask 11111111"));
+  }
+
+  @Test
+  public void testPackedFieldsShareAnInt() {
+    assertNull(failure(new int[] {
+        0, LAST, FULL, SharedArrayLayout.ALWAYS,
+        LAST, 1, 0xFF00, SharedArrayLayout.ALWAYS,
+        LAST, 1, 0x00FF, SharedArrayLayout.ALWAYS,
+    }));
+    assertNotNull(failure(new int[] {
+        0, LAST, FULL, SharedArrayLayout.ALWAYS,
+        LAST, 1, 0xFF00, SharedArrayLayout.ALWAYS,
+        LAST, 1, 0x01FF, SharedArrayLayout.ALWAYS,
+    }));
+  }
+
+  @Test
+  public void testOppositePhasesShareInts() {
+    assertNull(failure(new int[] {
+        0, 60, FULL, SharedArrayLayout.ALWAYS,
+        60, 4, FULL, SharedArrayLayout.EVEN_ROUNDS,
+        60, 4, FULL, SharedArrayLayout.ODD_ROUNDS,
+    }));
+    assertNotNull(failure(new int[] {
+        0, 60, FULL, SharedArrayLayout.ALWAYS,
+        60, 4, FULL, SharedArrayLayout.EVEN_ROUNDS,
+        60, 4, FULL, SharedArrayLayout.EVEN_ROUNDS,
+    }));
+    assertNotNull(failure(new int[] { // multiplexed ints can't also be claimed every round
+        0, 61, FULL, SharedArrayLayout.ALWAYS,
+        60, 4, FULL, SharedArrayLayout.ODD_ROUNDS,
+    }));
+  }
+
+  @Test
+  public void testOnePhaseAloneLeavesAGap() {
+    String error = failure(new int[] {
+        0, 60, FULL, SharedArrayLayout.ALWAYS,
+        60, 4, FULL, SharedArrayLayout.EVEN_ROUNDS,
+    });
+    assertNotNull(error);
+    assertTrue(error, error.startsWith("Shared array gap! - nothing owns 60"));
+  }
+}
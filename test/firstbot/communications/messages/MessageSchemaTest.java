@@ -0,0 +1,58 @@
+package firstbot.communications.messages;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class MessageSchemaTest {
+
+  private static final Message.MessageType RUBBLE = Message.MessageType.RUBBLE_AT_LOCATION;
+
+  private static String failure(Message.MessageType type, int[] fieldWidths, int... offsets) {
+    try {
+      MessageSchema.checkLayout(type, fieldWidths, offsets);
+    } catch (RuntimeException e) {
+      return e.getMessage();
+    }
+    return null;
+  }
+
+  @Test
+  public void testDeclaredSchemasAgreeWithTheirOffsets() {
+    MessageSchema.validate(); // throws on the first mismatch
+    assertNull(failure(RUBBLE, RubbleAtLocationMessage.FIELDS,
+        RubbleAtLocationMessage.LOCATION_OFFSET, RubbleAtLocationMessage.RUBBLE_OFFSET));
+  }
+
+  @Test
+  public void testOverlappingFieldsAreRejected() {
+    // rubble declared 4 bits into the location field
+    String error = failure(RUBBLE, RubbleAtLocationMessage.FIELDS,
+        RubbleAtLocationMessage.LOCATION_OFFSET, RubbleAtLocationMessage.RUBBLE_OFFSET - 4);
+    assertNotNull(error);
+    assertEquals("Message schema mismatch! - RUBBLE_AT_LOCATION field 1 at bit 12 should be at 16", error);
+  }
+
+  @Test
+  public void testGapBetweenFieldsIsRejected() {
+    String error = failure(RUBBLE, RubbleAtLocationMessage.FIELDS,
+        RubbleAtLocationMessage.LOCATION_OFFSET, RubbleAtLocationMessage.RUBBLE_OFFSET + 1);
+    assertNotNull(error);
+    assertTrue(error, error.endsWith("field 1 at bit 17 should be at 16"));
+  }
+
+  @Test
+  public void testMissingOffsetIsRejected() {
+    String error = failure(RUBBLE, RubbleAtLocationMessage.FIELDS, RubbleAtLocationMessage.LOCATION_OFFSET);
+    assertNotNull(error);
+    assertTrue(error, error.endsWith("has 2 fields but 1 offsets"));
+  }
+
+  @Test
+  public void testStaleMessageLengthIsRejected() {
+    // a third field pushes the message into another int, but MESSAGE_LENGTH wasn't bumped
+    int[] grown = {MessageSchema.LOCATION_BITS, MessageSchema.RUBBLE_BITS, MessageSchema.LOCATION_BITS};
+    String error = failure(RUBBLE, grown, 4, 16, 23);
+    assertNotNull(error);
+    assertTrue(error, error.endsWith("MESSAGE_LENGTH 1 should be 2"));
+  }
+}
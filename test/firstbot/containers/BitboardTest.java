@@ -0,0 +1,98 @@
+package firstbot.containers;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class BitboardTest {
+
+    private static final int WIDTH = 20;
+    private static final int HEIGHT = 30;
+
+    private static int count(Bitboard board) {
+        int n = 0;
+        for (int y = 0; y < HEIGHT; y++) {
+            n += Long.bitCount(board.row(y));
+        }
+        return n;
+    }
+
+    @Test
+    public void testShiftNegativeDropsLocationsPastTheEdge() {
+        Bitboard board = new Bitboard(WIDTH, HEIGHT);
+        board.set(0, 0);
+        board.set(0, 5);
+        board.set(3, 0);
+        board.set(WIDTH - 1, HEIGHT - 1);
+        board.shift(-1, -1);
+        assertEquals(1, count(board)); // x == 0 or y == 0 fall off the low edge
+        assertTrue(board.test(WIDTH - 2, HEIGHT - 2));
+        assertEquals(0, board.row(HEIGHT - 1)); // nothing moves into the vacated top row
+    }
+
+    @Test
+    public void testShiftPositiveDropsLocationsPastTheEdge() {
+        Bitboard board = new Bitboard(WIDTH, HEIGHT);
+        board.set(WIDTH - 1, 2);
+        board.set(4, HEIGHT - 1);
+        board.set(4, 2);
+        board.shift(2, 3);
+        assertEquals(1, count(board)); // shifted past the width (masked) or the height
+        assertTrue(board.test(6, 5));
+        assertEquals(0, board.row(0));
+    }
+
+    @Test
+    public void testShiftRoundTrip() {
+        Bitboard board = new Bitboard(WIDTH, HEIGHT);
+        board.set(5, 7);
+        board.set(10, 20);
+        board.shift(-4, 6);
+        assertTrue(board.test(1, 13));
+        assertTrue(board.test(6, 26));
+        board.shift(4, -6);
+        assertTrue(board.test(5, 7));
+        assertTrue(board.test(10, 20));
+        assertEquals(2, count(board));
+    }
+
+    @Test
+    public void testClearAllThenUnion() {
+        Bitboard board = new Bitboard(WIDTH, HEIGHT);
+        Bitboard other = new Bitboard(WIDTH, HEIGHT);
+        board.set(1, 1);
+        board.set(2, 2);
+        board.clearAll();
+        assertEquals(0, count(board));
+
+        other.set(2, 2);
+        other.set(3, 3);
+        board.union(other);
+        assertFalse(board.test(1, 1)); // stale rows must not come back through union
+        assertTrue(board.test(2, 2));
+        assertTrue(board.test(3, 3));
+        assertEquals(2, count(board));
+
+        other.clearAll();
+        board.union(other);
+        assertEquals(2, count(board));
+    }
+
+    @Test
+    public void testIntersectIgnoresClearedRows() {
+        Bitboard board = new Bitboard(WIDTH, HEIGHT);
+        Bitboard other = new Bitboard(WIDTH, HEIGHT);
+        board.set(1, 1);
+        board.set(2, 1);
+        board.set(4, 4);
+        other.set(2, 1);
+        other.set(4, 4);
+        other.clearAll();
+        other.set(2, 1);
+        board.intersect(other);
+        assertTrue(board.test(2, 1));
+        assertFalse(board.test(1, 1));
+        assertFalse(board.test(4, 4));
+        assertEquals(1, count(board));
+    }
+
+}
@@ -0,0 +1,72 @@
+package firstbot.containers;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class IntDequeTest {
+
+  @Test
+  public void testPushFrontPopBackWrapsAround() {
+    IntDeque deque = new IntDeque(4);
+    // walk the front backwards around the ring a few times, keeping 3 items in flight
+    int nextIn = 0;
+    int nextOut = 0;
+    for (int i = 0; i < 3; i++) {
+      deque.pushFront(nextIn++);
+    }
+    for (int step = 0; step < 10; step++) {
+      assertEquals(nextOut++, deque.popBack());
+      deque.pushFront(nextIn++);
+      assertEquals(3, deque.size());
+      assertEquals(nextIn - 1, deque.getFront());
+      assertEquals(nextOut, deque.getBack());
+    }
+    assertEquals(nextIn - 1, deque.get(0));
+    assertEquals(nextOut, deque.get(2));
+    while (!deque.isEmpty()) {
+      assertEquals(nextOut++, deque.popBack());
+    }
+    assertEquals(nextIn, nextOut);
+  }
+
+  @Test
+  public void testPushBackPopFrontWrapsAround() {
+    IntDeque deque = new IntDeque(4);
+    for (int i = 0; i < 3; i++) {
+      deque.pushBack(i);
+    }
+    for (int i = 3; i < 13; i++) {
+      assertEquals(i - 3, deque.popFront());
+      deque.pushBack(i);
+    }
+    int n = deque.startIter();
+    assertEquals(3, n);
+    for (int i = 10; i < 13; i++) {
+      assertEquals(i, deque.next());
+    }
+  }
+
+  @Test
+  public void testFullDequeGrowsInsteadOfOverwriting() {
+    IntDeque deque = new IntDeque(4);
+    deque.pushBack(1);
+    deque.pushBack(2);
+    assertEquals(1, deque.popFront()); // move the front off 0 so the grow has to unwrap
+    deque.pushBack(3);
+    deque.pushBack(4);
+    deque.pushFront(1); // deque is now full (4)
+    deque.pushFront(0); // grows
+    deque.pushBack(5);
+    deque.pushFront(-1);
+    deque.pushFront(-2);
+    assertEquals(8, deque.size());
+    for (int i = -2; i <= 5; i++) {
+      assertEquals(i, deque.get(i + 2));
+    }
+    assertEquals(5, deque.popBack());
+    assertEquals(-2, deque.popFront());
+    deque.clear();
+    assertTrue(deque.isEmpty());
+  }
+
+}
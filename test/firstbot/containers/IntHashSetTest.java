@@ -0,0 +1,105 @@
+package firstbot.containers;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class IntHashSetTest {
+
+    /** the first count keys (scanning up from 0) whose home slot in a table of mask + 1 is slot */
+    static int[] keysHomedAt(int slot, int mask, int count) {
+        int[] found = new int[count];
+        for (int key = 0, n = 0; n < count; key++) {
+            if (IntHashSet.slotOf(key, mask) == slot) found[n++] = key;
+        }
+        return found;
+    }
+
+    @Test
+    public void testProbeRunWrapsAroundTheTable() {
+        IntHashSet set = new IntHashSet(4);
+        int mask = set.mask;
+        int[] run = keysHomedAt(mask, mask, 3); // fills the last slot, then wraps to 0 and 1
+        for (int key : run) {
+            assertTrue(set.add(key));
+        }
+        assertFalse(set.add(run[2]));
+        assertEquals(3, set.size);
+        assertEquals(mask, set.mask); // still no grow
+
+        assertTrue(set.remove(run[0]));
+        assertFalse(set.contains(run[0]));
+        assertTrue(set.contains(run[1]));
+        assertTrue(set.contains(run[2]));
+
+        int[] wrapped = keysHomedAt(0, mask, 1);
+        assertTrue(set.add(wrapped[0]));
+        assertTrue(set.remove(run[1]));
+        assertTrue(set.contains(run[2]));
+        assertTrue(set.contains(wrapped[0]));
+        assertFalse(set.remove(run[1]));
+        assertEquals(2, set.size);
+    }
+
+    @Test
+    public void testGrowKeepsEveryKey() {
+        IntHashSet set = new IntHashSet(2);
+        int initialSlots = set.keys.length;
+        for (int i = -100; i < 100; i++) {
+            assertTrue(set.add(i * 7919));
+        }
+        assertTrue(set.add(Integer.MAX_VALUE));
+        assertEquals(201, set.size);
+        assertTrue(set.keys.length > initialSlots);
+        for (int i = -100; i < 100; i++) {
+            assertTrue(set.contains(i * 7919));
+        }
+        assertTrue(set.contains(Integer.MAX_VALUE));
+        assertFalse(set.contains(1));
+
+        for (int i = -100; i < 100; i += 2) {
+            assertTrue(set.remove(i * 7919));
+        }
+        for (int i = -100; i < 100; i++) {
+            assertEquals((i & 1) != 0, set.contains(i * 7919));
+        }
+        assertEquals(101, set.size);
+    }
+
+    @Test
+    public void testIteratorVisitsEachKeyOnce() {
+        IntHashSet set = new IntHashSet(8);
+        set.resetIterator();
+        assertEquals(IntHashSet.NO_KEY, set.next());
+
+        Set<Integer> expected = new HashSet<>();
+        for (int key : new int[] {0, -1, 5, 64, 1 << 20, Integer.MAX_VALUE}) {
+            set.add(key);
+            expected.add(key);
+        }
+        set.remove(5);
+        expected.remove(5);
+
+        Set<Integer> seen = new HashSet<>();
+        set.resetIterator();
+        for (int key; (key = set.next()) != IntHashSet.NO_KEY; ) {
+            assertTrue(seen.add(key));
+        }
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    public void testClear() {
+        IntHashSet set = new IntHashSet(4);
+        set.add(3);
+        set.add(-3);
+        set.clear();
+        assertEquals(0, set.size);
+        assertFalse(set.contains(3));
+        assertFalse(set.contains(-3));
+        assertTrue(set.add(3));
+    }
+
+}
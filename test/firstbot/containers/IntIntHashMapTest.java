@@ -0,0 +1,89 @@
+package firstbot.containers;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class IntIntHashMapTest {
+
+    @Test
+    public void testProbeRunWrapsAroundTheTable() {
+        IntIntHashMap map = new IntIntHashMap(4);
+        int mask = map.mask;
+        int[] run = IntHashSetTest.keysHomedAt(mask, mask, 3); // fills the last slot, then wraps to 0 and 1
+        for (int i = 0; i < run.length; i++) {
+            assertTrue(map.put(run[i], 10 + i));
+        }
+        assertFalse(map.put(run[2], 99));
+        assertEquals(12, map.get(run[2]));
+        assertEquals(mask, map.mask); // still no grow
+
+        assertTrue(map.remove(run[0]));
+        assertFalse(map.contains(run[0]));
+        assertEquals(11, map.get(run[1])); // values move back with their keys
+        assertEquals(12, map.get(run[2]));
+
+        int[] wrapped = IntHashSetTest.keysHomedAt(0, mask, 1);
+        map.set(wrapped[0], 20);
+        assertTrue(map.remove(run[1]));
+        assertEquals(12, map.get(run[2]));
+        assertEquals(20, map.get(wrapped[0]));
+        assertEquals(-1, map.getOrDefault(run[1], -1));
+        assertEquals(2, map.size);
+    }
+
+    @Test
+    public void testGrowKeepsEveryEntry() {
+        IntIntHashMap map = new IntIntHashMap(2);
+        int initialSlots = map.keys.length;
+        for (int i = -100; i < 100; i++) {
+            map.set(i * 7919, i);
+        }
+        assertEquals(200, map.size);
+        assertTrue(map.keys.length > initialSlots);
+        for (int i = -100; i < 100; i++) {
+            assertEquals(i, map.getOrDefault(i * 7919, Integer.MIN_VALUE));
+        }
+
+        for (int i = -100; i < 100; i += 2) {
+            assertTrue(map.remove(i * 7919));
+        }
+        for (int i = -100; i < 100; i++) {
+            assertEquals((i & 1) != 0, map.contains(i * 7919));
+        }
+        assertEquals(100, map.size);
+    }
+
+    @Test
+    public void testSetIncrementAndIterator() {
+        IntIntHashMap map = new IntIntHashMap(8);
+        map.resetIterator();
+        assertEquals(IntIntHashMap.NO_KEY, map.next());
+
+        map.increment(4, 3);
+        map.increment(4, 2);
+        map.set(-7, 1);
+        map.set(-7, 2);
+        map.setAlreadyContainedValue(9, 100); // not contained -- no-op
+        map.put(0, 6);
+        assertFalse(map.contains(9));
+
+        Map<Integer, Integer> expected = new HashMap<>();
+        expected.put(4, 5);
+        expected.put(-7, 2);
+        expected.put(0, 6);
+        Map<Integer, Integer> seen = new HashMap<>();
+        map.resetIterator();
+        for (int key; (key = map.next()) != IntIntHashMap.NO_KEY; ) {
+            assertNull(seen.put(key, map.value()));
+        }
+        assertEquals(expected, seen);
+
+        map.clear();
+        assertEquals(0, map.size);
+        assertEquals(0, map.get(4));
+    }
+
+}
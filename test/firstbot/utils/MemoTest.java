@@ -0,0 +1,72 @@
+package firstbot.utils;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import battlecode.common.MapLocation;
+import battlecode.common.RobotController;
+import firstbot.communications.Communicator;
+import java.lang.reflect.Proxy;
+
+public class MemoTest {
+
+  /** a controller whose only behaviour is the shared array (and two archons) */
+  private static void mockSharedArray() {
+    final int[] shared = new int[64];
+    Global.rc = (RobotController) Proxy.newProxyInstance(MemoTest.class.getClassLoader(),
+        new Class[] {RobotController.class}, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "readSharedArray": return shared[(Integer) args[0]];
+            case "writeSharedArray": shared[(Integer) args[0]] = (Integer) args[1]; return null;
+            case "getArchonCount": return 2;
+          }
+          Class<?> type = method.getReturnType();
+          if (type == int.class) return 0;
+          if (type == boolean.class) return false;
+          return null;
+        });
+  }
+
+  @Test
+  public void testSlotsExpireWithTheirKey() {
+    Cache.PerTurn.ROUND_NUM = 100;
+    Cache.PerTurn.cacheState = 7;
+    Memo.store(Memo.NEED_TO_STAY_ON_SAFE_SIDE, true);
+    Memo.store(Memo.LOADED_MUX_TAG, 1);
+    assertTrue(Memo.isValid(Memo.NEED_TO_STAY_ON_SAFE_SIDE));
+    assertTrue(Memo.isValid(Memo.LOADED_MUX_TAG));
+
+    Cache.PerTurn.cacheState++; // moved
+    assertFalse(Memo.isValid(Memo.NEED_TO_STAY_ON_SAFE_SIDE));
+    assertTrue(Memo.isValid(Memo.LOADED_MUX_TAG));
+    assertEquals(1, Memo.intValue(Memo.LOADED_MUX_TAG));
+
+    Cache.PerTurn.ROUND_NUM++;
+    assertFalse(Memo.isValid(Memo.LOADED_MUX_TAG));
+  }
+
+  @Test
+  public void testInvalidateDropsTheSlot() {
+    Cache.PerTurn.ROUND_NUM = 100;
+    Memo.store(Memo.LOADED_MUX_TAG, 0);
+    Memo.invalidate(Memo.LOADED_MUX_TAG);
+    assertFalse(Memo.isValid(Memo.LOADED_MUX_TAG));
+  }
+
+  @Test
+  public void testReplaceEnemyArchonInvalidatesNearestArchons() throws Exception {
+    mockSharedArray();
+    Cache.PerTurn.cacheState = 3;
+    Communicator.ArchonInfo info = new Communicator.ArchonInfo();
+    info.setEnemyArchonLoc(1, new MapLocation(3, 3));
+    info.setEnemyArchonLoc(2, new MapLocation(40, 40));
+    MapLocation from = new MapLocation(5, 5);
+    Memo.store(Memo.NEAREST_ENEMY_ARCHON, info.getNearestEnemyArchon(from));
+    Memo.store(Memo.NEAREST_FRIENDLY_ARCHON, new MapLocation(0, 0));
+    assertTrue(Memo.isValid(Memo.NEAREST_ENEMY_ARCHON));
+
+    info.replaceEnemyArchon(info.enemyArchon1);
+    assertFalse(Memo.isValid(Memo.NEAREST_ENEMY_ARCHON)); // same cacheState, but the archon it was computed from is gone
+    assertFalse(Memo.isValid(Memo.NEAREST_FRIENDLY_ARCHON));
+  }
+}
@@ -0,0 +1,47 @@
+package firstbot.utils;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import battlecode.common.MapLocation;
+
+public class RadiusOffsetsTest {
+
+  private static final int WIDTH = 20;
+  private static final int HEIGHT = 30;
+
+  @Test
+  public void testClip2MatchesClipEverywhere() {
+    Cache.Permanent.MAP_WIDTH = WIDTH;
+    Cache.Permanent.MAP_HEIGHT = HEIGHT;
+    int[] xs = new int[RadiusOffsets.COUNT_2];
+    int[] ys = new int[RadiusOffsets.COUNT_2];
+    int[] expectedXs = new int[RadiusOffsets.COUNT_2];
+    int[] expectedYs = new int[RadiusOffsets.COUNT_2];
+    for (int x = 0; x < WIDTH; x++) {
+      for (int y = 0; y < HEIGHT; y++) {
+        MapLocation center = new MapLocation(x, y);
+        int expected = RadiusOffsets.clip(center, RadiusOffsets.COUNT_2, expectedXs, expectedYs);
+        assertEquals(expected, RadiusOffsets.clip2(center, xs, ys));
+        for (int i = 0; i < expected; i++) {
+          assertEquals(expectedXs[i], xs[i]);
+          assertEquals(expectedYs[i], ys[i]);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testClip2KeepsTheCenterFirst() {
+    Cache.Permanent.MAP_WIDTH = WIDTH;
+    Cache.Permanent.MAP_HEIGHT = HEIGHT;
+    int[] xs = new int[RadiusOffsets.COUNT_2];
+    int[] ys = new int[RadiusOffsets.COUNT_2];
+    assertEquals(4, RadiusOffsets.clip2(new MapLocation(0, 0), xs, ys)); // corner
+    assertEquals(0, xs[0]);
+    assertEquals(0, ys[0]);
+    assertEquals(9, RadiusOffsets.clip2(new MapLocation(5, 5), xs, ys));
+    assertEquals(5, xs[0]);
+    assertEquals(5, ys[0]);
+  }
+}